@@ -0,0 +1,205 @@
+package com.ramyastore.ai.client;
+
+import com.ramyastore.exception.AiServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Shared client for the Gemini generateContent endpoint. One pooled HTTP
+ * client serves every call; each call has a connect and an overall deadline,
+ * and its latency is recorded as {@code gemini.request} tagged by outcome.
+ * Streamed calls are recorded as {@code gemini.stream}, with the wait for
+ * the first text chunk as {@code gemini.stream.first-token}.
+ */
+@Component
+public class GeminiClient {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final URI generateContentUri;
+    private final URI streamGenerateContentUri;
+    private final Duration requestTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public GeminiClient(MeterRegistry meterRegistry,
+                        @Value("${gemini.api.key}") String apiKey,
+                        @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+                        @Value("${gemini.model:gemini-pro}") String model,
+                        @Value("${gemini.client.connect-timeout:2s}") Duration connectTimeout,
+                        @Value("${gemini.client.request-timeout:15s}") Duration requestTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.requestTimeout = requestTimeout;
+        String key = URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
+        this.generateContentUri = URI.create(baseUrl + "/models/" + model + ":generateContent?key=" + key);
+        this.streamGenerateContentUri = URI.create(baseUrl + "/models/" + model
+                + ":streamGenerateContent?alt=sse&key=" + key);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    public JSONObject generateContent(JSONObject body) throws AiServiceException {
+        HttpRequest request = HttpRequest.newBuilder(generateContentUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                outcome = "http_error";
+                throw new AiServiceException("assistant returned status " + response.statusCode());
+            }
+            JSONObject json = new JSONObject(response.body());
+            outcome = "success";
+            return json;
+        } catch (HttpTimeoutException e) {
+            outcome = "timeout";
+            throw new AiServiceException("assistant timed out");
+        } catch (IOException | JSONException e) {
+            throw new AiServiceException("assistant unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiServiceException("assistant call interrupted");
+        } finally {
+            Timer.builder("gemini.request")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TextListener {
+        void onText(String text) throws IOException;
+    }
+
+    /**
+     * Relays each text chunk to the listener as Gemini generates it. The
+     * next chunk is only read once the listener returns, so a slow reader
+     * slows the upstream stream rather than buffering it. An IOException
+     * from the listener, or interrupting the calling thread, closes the
+     * upstream connection straight away; the former is rethrown as is.
+     */
+    public void streamGenerateContent(JSONObject body, TextListener listener)
+            throws AiServiceException, IOException {
+        HttpRequest request = HttpRequest.newBuilder(streamGenerateContentUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            HttpResponse<Stream<String>> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            } catch (HttpTimeoutException e) {
+                outcome = "timeout";
+                throw new AiServiceException("assistant timed out");
+            } catch (IOException e) {
+                throw new AiServiceException("assistant unavailable");
+            }
+
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    outcome = "http_error";
+                    throw new AiServiceException("assistant returned status " + response.statusCode());
+                }
+                boolean first = true;
+                Iterator<String> events = lines.iterator();
+                while (events.hasNext()) {
+                    String line = events.next();
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    String text = textOf(new JSONObject(line.substring("data:".length()).trim()));
+                    if (text.isEmpty()) {
+                        continue;
+                    }
+                    if (first) {
+                        first = false;
+                        Timer.builder("gemini.stream.first-token")
+                                .publishPercentileHistogram()
+                                .register(meterRegistry)
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    try {
+                        listener.onText(text);
+                    } catch (IOException e) {
+                        outcome = "cancelled";
+                        throw e;
+                    }
+                }
+                outcome = "success";
+            } catch (UncheckedIOException | JSONException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    outcome = "cancelled";
+                    throw new AiServiceException("assistant call interrupted");
+                }
+                throw new AiServiceException("assistant unavailable");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "cancelled";
+            throw new AiServiceException("assistant call interrupted");
+        } finally {
+            Timer.builder("gemini.stream")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String textOf(JSONObject chunk) {
+        JSONArray candidates = chunk.optJSONArray("candidates");
+        if (candidates == null || candidates.isEmpty()) {
+            return "";
+        }
+        JSONObject content = candidates.getJSONObject(0).optJSONObject("content");
+        JSONArray parts = content == null ? null : content.optJSONArray("parts");
+        if (parts == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < parts.length(); i++) {
+            text.append(parts.getJSONObject(i).optString("text"));
+        }
+        return text.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+}
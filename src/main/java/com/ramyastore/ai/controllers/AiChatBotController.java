@@ -1,13 +1,23 @@
 package com.ramyastore.ai.controllers;
 
 import com.ramyastore.ai.services.AiChatBotService;
+import com.ramyastore.exception.AiServiceException;
+import com.ramyastore.exception.ProductException;
 import com.ramyastore.model.User;
 import com.ramyastore.request.Prompt;
 import com.ramyastore.response.ApiResponse;
 import com.ramyastore.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RequiredArgsConstructor
 @RestController
@@ -17,8 +27,12 @@ public class AiChatBotController {
     private final AiChatBotService aiChatBotService;
     private final UserService userService;
 
+    /**
+     * Answers off the servlet thread. If the async request times out or fails
+     * the chat is cancelled, which interrupts the upstream call.
+     */
     @PostMapping()
-    public ResponseEntity<ApiResponse> generate(
+    public DeferredResult<ResponseEntity<ApiResponse>> generate(
             @RequestBody Prompt prompt,
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) Long productId,
@@ -38,10 +52,68 @@ public class AiChatBotController {
 //            userId=user.getId();
 //        }
 
-        ApiResponse apiResponse = aiChatBotService.aiChatBot(message,productId,user.getId());
+        // the servlet thread is released while the assistant works
+        CompletableFuture<ApiResponse> chat = aiChatBotService.aiChatBotAsync(message,productId,user.getId());
+        DeferredResult<ResponseEntity<ApiResponse>> response = new DeferredResult<>();
+        response.onTimeout(() -> chat.cancel(true));
+        response.onError(e -> chat.cancel(true));
+
+        chat.whenComplete((answer, e) -> {
+            if (e == null) {
+                response.setResult(ResponseEntity.ok(answer));
+            } else {
+                response.setErrorResult(e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause() : e);
+            }
+        });
+        return response;
+
+    }
+
+    /**
+     * Streams the answer as "token" events followed by "done", or an "error"
+     * event. A disconnected client or an expired emitter cancels the chat.
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestBody Prompt prompt,
+            @RequestParam(required = false) Long productId,
+            @RequestHeader(required = false,name = "Authorization")String jwt) throws Exception {
+
+        String message = prompt.getPrompt();
+        if (productId != null) {
+            message = "the product id is " + productId +", " + message ;
+        }
+
+        User user=new User();
+        if(jwt!=null)
+            user=userService.findUserProfileByJwt(jwt);
 
-        return ResponseEntity.ok(apiResponse);
+        SseEmitter emitter = new SseEmitter();
+        CompletableFuture<Void> chat = aiChatBotService.aiChatBotStream(message, productId, user.getId(),
+                text -> emitter.send(SseEmitter.event().name("token").data(text)));
+        emitter.onTimeout(() -> chat.cancel(true));
+        emitter.onError(e -> chat.cancel(true));
+        emitter.onCompletion(() -> chat.cancel(true));
 
+        chat.whenComplete((ignored, e) -> {
+            if (e instanceof CancellationException) {
+                return;
+            }
+            try {
+                if (e == null) {
+                    emitter.send(SseEmitter.event().name("done").data(""));
+                } else {
+                    boolean expected = e instanceof AiServiceException || e instanceof ProductException;
+                    emitter.send(SseEmitter.event().name("error")
+                            .data(expected ? e.getMessage() : "assistant unavailable"));
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException closed) {
+                // the client is already gone
+            }
+        });
+        return emitter;
     }
 
 }
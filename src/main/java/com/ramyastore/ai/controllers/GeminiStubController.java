@@ -0,0 +1,74 @@
+package com.ramyastore.ai.controllers;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imitates Gemini's generateContent with a fixed delay so the chat path can be
+ * load tested without a quota; streamGenerateContent spreads the same delay
+ * over one event per word. Only active with the {@code llm-stub} profile.
+ */
+@Profile("llm-stub")
+@RestController
+@RequestMapping("/llm-stub")
+public class GeminiStubController {
+
+    private final Duration latency;
+
+    public GeminiStubController(@Value("${gemini.stub.latency:800ms}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @PostMapping(value = "/models/{model}:streamGenerateContent", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGenerateContent(@PathVariable String model, @RequestBody String body) {
+        String[] words = "This is a stubbed assistant reply.".split("(?<= )");
+        SseEmitter emitter = new SseEmitter();
+        Thread.ofVirtual().start(() -> {
+            try {
+                for (String word : words) {
+                    Thread.sleep(latency.toMillis() / words.length);
+                    emitter.send(new JSONObject()
+                            .put("candidates", new JSONArray().put(new JSONObject()
+                                    .put("content", new JSONObject()
+                                            .put("role", "model")
+                                            .put("parts", new JSONArray().put(new JSONObject().put("text", word))))))
+                            .toString());
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @PostMapping(value = "/models/{model}:generateContent", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<String>> generateContent(@PathVariable String model,
+                                                                     @RequestBody String body) {
+        boolean answersFunction = body.contains("\"functionResponse\"");
+        JSONObject part = answersFunction
+                ? new JSONObject().put("text", "This is a stubbed assistant reply.")
+                : new JSONObject().put("functionCall", new JSONObject()
+                        .put("name", "getUserCart")
+                        .put("args", new JSONObject().put("cart", "stub")));
+        String response = new JSONObject()
+                .put("candidates", new JSONArray().put(new JSONObject()
+                        .put("content", new JSONObject()
+                                .put("role", "model")
+                                .put("parts", new JSONArray().put(part)))))
+                .toString();
+
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(response),
+                CompletableFuture.delayedExecutor(latency.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
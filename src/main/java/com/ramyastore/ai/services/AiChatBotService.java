@@ -1,9 +1,20 @@
 package com.ramyastore.ai.services;
 
+import com.ramyastore.ai.client.GeminiClient;
+import com.ramyastore.exception.AiServiceException;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.response.ApiResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AiChatBotService {
 
-    ApiResponse aiChatBot(String prompt,Long productId,Long userId) throws ProductException;
+    ApiResponse aiChatBot(String prompt,Long productId,Long userId) throws ProductException, AiServiceException;
+
+    /** Runs the chat off the request thread; fails fast with AiServiceException when the assistant is saturated. */
+    CompletableFuture<ApiResponse> aiChatBotAsync(String prompt, Long productId, Long userId);
+
+    /** Relays the answer to the listener as it is generated; cancelling the result stops the upstream call. */
+    CompletableFuture<Void> aiChatBotStream(String prompt, Long productId, Long userId,
+                                            GeminiClient.TextListener listener);
 }
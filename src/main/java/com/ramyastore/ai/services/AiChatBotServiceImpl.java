@@ -1,32 +1,72 @@
 package com.ramyastore.ai.services;
 
+import com.ramyastore.ai.client.GeminiClient;
+import com.ramyastore.exception.AiServiceException;
 import com.ramyastore.exception.ProductException;
-import com.ramyastore.mapper.OrderMapper;
-import com.ramyastore.mapper.ProductMapper;
-import com.ramyastore.model.*;
-import com.ramyastore.repository.*;
-import com.ramyastore.response.*;
-import lombok.RequiredArgsConstructor;
+import com.ramyastore.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Chats run on virtual threads behind a fixed number of permits, so slow
+ * upstream calls never hold Tomcat workers and a burst of chats cannot take
+ * more than its share of database connections. Callers that cannot get a
+ * permit within the queue timeout are turned away.
+ */
 @Service
-@RequiredArgsConstructor
 public class AiChatBotServiceImpl implements AiChatBotService {
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
+    private final ChatContextBuilder contextBuilder;
+    private final GeminiClient geminiClient;
+    private final ChatIntentRouter intentRouter;
+    private final ChatAnswerCache answerCache;
+    private final TransactionTemplate transactionTemplate;
 
-    private final CartRepository cartRepository;
-    private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final ExecutorService chatExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    public AiChatBotServiceImpl(ChatContextBuilder contextBuilder,
+                                GeminiClient geminiClient,
+                                ChatIntentRouter intentRouter,
+                                ChatAnswerCache answerCache,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.chat.max-concurrent:16}") int maxConcurrent,
+                                @Value("${ai.chat.max-queued:200}") int maxQueued,
+                                @Value("${ai.chat.queue-timeout:5s}") Duration queueTimeout) {
+        this.contextBuilder = contextBuilder;
+        this.geminiClient = geminiClient;
+        this.intentRouter = intentRouter;
+        this.answerCache = answerCache;
+        this.transactionTemplate = transactionTemplate;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.rejected = Counter.builder("ai.chat.rejected").register(meterRegistry);
+        this.queueWait = Timer.builder("ai.chat.queue.wait").register(meterRegistry);
+        Gauge.builder("ai.chat.queued", queued, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("ai.chat.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
 
     private JSONArray createFunctionDeclarations() {
         return new JSONArray()
@@ -74,38 +114,7 @@ public class AiChatBotServiceImpl implements AiChatBotService {
                 );
     }
 
-    private FunctionResponse processFunctionCall(JSONObject functionCall, Long productId, Long userId) throws ProductException {
-        String functionName = functionCall.getString("name");
-        JSONObject args = functionCall.getJSONObject("args");
-
-        FunctionResponse res = new FunctionResponse();
-        res.setFunctionName(functionName);
-        User user = userRepository.findById(userId).orElse(null);
-
-        switch (functionName) {
-            case "getUserCart":
-                Cart cart = cartRepository.findByUserId(userId);
-                res.setUserCart(cart);
-                break;
-            case "getUsersOrder":
-                List<Order> orders = orderRepository.findByUserId(userId);
-                res.setOrderHistory(OrderMapper.toOrderHistory(orders, user));
-                break;
-            case "getProductDetails":
-                Product product = productRepository.findById(productId)
-                        .orElseThrow(() -> new ProductException("product not found"));
-                res.setProduct(product);
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported function: " + functionName);
-        }
-
-        return res;
-    }
-
-    public FunctionResponse getFunctionResponse(String prompt, Long productId, Long userId) throws ProductException {
-        String geminiApiUrl = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent?key=" + geminiApiKey;
-
+    private JSONObject requestFunctionCall(String prompt) throws AiServiceException {
         JSONObject requestBodyJson = new JSONObject()
                 .put("contents", new JSONArray()
                         .put(new JSONObject()
@@ -119,35 +128,17 @@ public class AiChatBotServiceImpl implements AiChatBotService {
                         )
                 );
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<String> requestEntity = new HttpEntity<>(requestBodyJson.toString(), headers);
-        RestTemplate restTemplate = new RestTemplate();
-        ResponseEntity<String> response = restTemplate.postForEntity(geminiApiUrl, requestEntity, String.class);
-
-        JSONObject jsonObject = new JSONObject(response.getBody());
-        JSONObject functionCall = jsonObject
+        return geminiClient.generateContent(requestBodyJson)
                 .getJSONArray("candidates")
                 .getJSONObject(0)
                 .getJSONObject("content")
                 .getJSONArray("parts")
                 .getJSONObject(0)
                 .getJSONObject("functionCall");
-
-        return processFunctionCall(functionCall, productId, userId);
     }
 
-    @Override
-    public ApiResponse aiChatBot(String prompt, Long productId, Long userId) throws ProductException {
-        String geminiApiUrl = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent?key=" + geminiApiKey;
-
-        FunctionResponse functionResponse = getFunctionResponse(prompt, productId, userId);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        JSONObject requestBody = new JSONObject()
+    private JSONObject createFunctionResultRequest(String prompt, String functionName, JSONObject context) {
+        return new JSONObject()
                 .put("contents", new JSONArray()
                         .put(new JSONObject()
                                 .put("role", "user")
@@ -156,22 +147,18 @@ public class AiChatBotServiceImpl implements AiChatBotService {
                                 .put("role", "model")
                                 .put("parts", new JSONArray().put(new JSONObject()
                                         .put("functionCall", new JSONObject()
-                                                .put("name", functionResponse.getFunctionName())
-                                                .put("args", new JSONObject()
-                                                        .put("cart", functionResponse.getUserCart() != null ? functionResponse.getUserCart().getUser() : null)
-                                                        .put("order", functionResponse.getOrderHistory() != null ? functionResponse.getOrderHistory() : null)
-                                                        .put("product", functionResponse.getProduct() != null ? ProductMapper.toProductDto(functionResponse.getProduct()) : null)
-                                                )
+                                                .put("name", functionName)
+                                                .put("args", new JSONObject())
                                         )
                                 )))
                         .put(new JSONObject()
                                 .put("role", "function")
                                 .put("parts", new JSONArray().put(new JSONObject()
                                         .put("functionResponse", new JSONObject()
-                                                .put("name", functionResponse.getFunctionName())
+                                                .put("name", functionName)
                                                 .put("response", new JSONObject()
-                                                        .put("name", functionResponse.getFunctionName())
-                                                        .put("content", functionResponse)
+                                                        .put("name", functionName)
+                                                        .put("content", context)
                                                 )
                                         )
                                 )))
@@ -180,22 +167,185 @@ public class AiChatBotServiceImpl implements AiChatBotService {
                         .put(new JSONObject()
                                 .put("functionDeclarations", createFunctionDeclarations()))
                 );
+    }
+
+    private PreparedRequest prepare(String prompt, Long productId, Long userId)
+            throws ProductException, AiServiceException {
+        // common questions are routed locally and skip the first upstream call
+        Optional<String> intent = intentRouter.route(prompt, productId);
+        JSONObject functionCall = intent.isPresent()
+                ? new JSONObject().put("name", intent.get()).put("args", new JSONObject())
+                : requestFunctionCall(prompt);
 
-        HttpEntity<String> request = new HttpEntity<>(requestBody.toString(), headers);
-        RestTemplate restTemplate = new RestTemplate();
-        ResponseEntity<String> response = restTemplate.postForEntity(geminiApiUrl, request, String.class);
+        // the function result is read and serialised inside one short transaction;
+        // no connection is held while waiting on either upstream call
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    String functionName = functionCall.getString("name");
+                    JSONObject context = contextBuilder.build(functionName, productId, userId);
+                    // product answers are shared across users; cart and order answers are not
+                    String owner = ChatIntentRouter.PRODUCT.equals(functionName) ? "" : String.valueOf(userId);
+                    return new PreparedRequest(createFunctionResultRequest(prompt, functionName, context),
+                            ChatAnswerCache.fingerprint(functionName, owner, context.toString()));
+                } catch (ProductException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            // only the ProductException wrapped above is unwrapped; anything else is not ours
+            if (e.getCause() instanceof ProductException productException) {
+                throw productException;
+            }
+            throw e;
+        }
+    }
 
-        JSONObject jsonObject = new JSONObject(response.getBody());
-        String message = jsonObject
+    @Override
+    public ApiResponse aiChatBot(String prompt, Long productId, Long userId)
+            throws ProductException, AiServiceException {
+        PreparedRequest prepared = prepare(prompt, productId, userId);
+        String message = answerCache.get(prompt, prepared.fingerprint(), () -> geminiClient
+                .generateContent(prepared.body())
                 .getJSONArray("candidates")
                 .getJSONObject(0)
                 .getJSONObject("content")
                 .getJSONArray("parts")
                 .getJSONObject(0)
-                .getString("text");
+                .getString("text"));
 
         ApiResponse res = new ApiResponse();
         res.setMessage(message);
         return res;
     }
+
+    @Override
+    public CompletableFuture<ApiResponse> aiChatBotAsync(String prompt, Long productId, Long userId) {
+        AtomicBoolean slot = reserveQueueSlot();
+        if (slot == null) {
+            return CompletableFuture.failedFuture(new AiServiceException("assistant is busy, try again shortly"));
+        }
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        Future<?> chat;
+        try {
+            chat = chatExecutor.submit(() -> {
+                try {
+                    result.complete(withPermit(slot, () -> aiChatBot(prompt, productId, userId)));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            leaveQueue(slot);
+            throw e;
+        }
+        // as for streams, cancelling the result interrupts the chat; a chat cancelled
+        // before it starts never reaches withPermit, so the slot is freed here
+        result.whenComplete((ignored, e) -> {
+            if (result.isCancelled()) {
+                chat.cancel(true);
+            }
+            leaveQueue(slot);
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> aiChatBotStream(String prompt, Long productId, Long userId,
+                                                   GeminiClient.TextListener listener) {
+        AtomicBoolean slot = reserveQueueSlot();
+        if (slot == null) {
+            return CompletableFuture.failedFuture(new AiServiceException("assistant is busy, try again shortly"));
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> chat;
+        try {
+            chat = chatExecutor.submit(() -> {
+                try {
+                    withPermit(slot, () -> {
+                        streamChat(prompt, productId, userId, listener);
+                        return null;
+                    });
+                    result.complete(null);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            leaveQueue(slot);
+            throw e;
+        }
+        // cancelling the result interrupts the chat, which closes the upstream stream
+        result.whenComplete((ignored, e) -> {
+            if (result.isCancelled()) {
+                chat.cancel(true);
+            }
+            leaveQueue(slot);
+        });
+        return result;
+    }
+
+    private void streamChat(String prompt, Long productId, Long userId, GeminiClient.TextListener listener)
+            throws Exception {
+        PreparedRequest prepared = prepare(prompt, productId, userId);
+        Optional<String> cached = answerCache.getIfPresent(prompt, prepared.fingerprint());
+        if (cached.isPresent()) {
+            listener.onText(cached.get());
+            return;
+        }
+
+        // only a completely relayed answer is cached
+        StringBuilder answer = new StringBuilder();
+        geminiClient.streamGenerateContent(prepared.body(), text -> {
+            answer.append(text);
+            listener.onText(text);
+        });
+        answerCache.put(prompt, prepared.fingerprint(), answer.toString());
+    }
+
+    // taken on the calling thread, so a burst cannot overshoot maxQueued before its chats start;
+    // null when the queue is full
+    private AtomicBoolean reserveQueueSlot() {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+        return new AtomicBoolean(true);
+    }
+
+    // frees the slot once, whether the chat got a permit, timed out or was cancelled first
+    private void leaveQueue(AtomicBoolean slot) {
+        if (slot.compareAndSet(true, false)) {
+            queued.decrementAndGet();
+        }
+    }
+
+    private <T> T withPermit(AtomicBoolean slot, Callable<T> chat) throws Exception {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            leaveQueue(slot);
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new AiServiceException("assistant is busy, try again shortly");
+        }
+        try {
+            return chat.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        chatExecutor.shutdownNow();
+    }
+
+    private record PreparedRequest(JSONObject body, String fingerprint) {
+    }
 }
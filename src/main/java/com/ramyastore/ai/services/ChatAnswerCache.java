@@ -0,0 +1,122 @@
+package com.ramyastore.ai.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ramyastore.exception.AiServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * Chatbot answers keyed by the normalised prompt and a fingerprint of the
+ * data the answer was grounded on, so a changed cart, order or product
+ * naturally misses. Identical questions asked while an answer is still
+ * being generated wait for that one upstream call instead of making their
+ * own; failed calls are not cached.
+ */
+@Component
+public class ChatAnswerCache {
+
+    private static final Pattern NOISE = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final AsyncCache<String, String> answers;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ChatAnswerCache(MeterRegistry meterRegistry,
+                           @Value("${ai.chat.cache.max-size:10000}") long maxSize,
+                           @Value("${ai.chat.cache.ttl:10m}") Duration ttl) {
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        this.hits = Counter.builder("ai.chat.answer.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.chat.answer.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ai.chat.answer.cache.size", answers, cache -> cache.synchronous().estimatedSize())
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface AnswerLoader {
+        String load() throws AiServiceException;
+    }
+
+    public String get(String prompt, String fingerprint, AnswerLoader loader) throws AiServiceException {
+        String key = key(prompt, fingerprint);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = answers.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            hits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof AiServiceException aiServiceException) {
+                    throw aiServiceException;
+                }
+                throw e;
+            }
+        }
+
+        misses.increment();
+        try {
+            String answer = loader.load();
+            pending.complete(answer);
+            return answer;
+        } catch (AiServiceException | RuntimeException e) {
+            // waiters see the same failure; the next caller tries again
+            answers.asMap().remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** A finished answer, if any; answers still being generated are not waited for. */
+    public Optional<String> getIfPresent(String prompt, String fingerprint) {
+        CompletableFuture<String> answer = answers.getIfPresent(key(prompt, fingerprint));
+        if (answer != null && answer.isDone() && !answer.isCompletedExceptionally()) {
+            hits.increment();
+            return Optional.of(answer.join());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String prompt, String fingerprint, String answer) {
+        answers.put(key(prompt, fingerprint), CompletableFuture.completedFuture(answer));
+    }
+
+    private static String key(String prompt, String fingerprint) {
+        return normalize(prompt) + "|" + fingerprint;
+    }
+
+    static String normalize(String prompt) {
+        return prompt == null ? "" : NOISE.matcher(prompt.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /** Hashes whatever identifies the grounding data, e.g. function name, owner and serialised result. */
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
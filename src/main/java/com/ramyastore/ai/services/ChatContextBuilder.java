@@ -0,0 +1,218 @@
+package com.ramyastore.ai.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.model.Cart;
+import com.ramyastore.model.CartItem;
+import com.ramyastore.model.Product;
+import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.OrderItemRepository;
+import com.ramyastore.repository.OrderRepository;
+import com.ramyastore.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Builds the function result sent back to Gemini as a small, field-selected
+ * JSON summary instead of whole entities: cart lines, the most recent
+ * orders with their product titles, or the product's selling facts with a
+ * shortened description. Cart lines and orders are trimmed from the end
+ * until the estimated token count fits the budget. Order and product summaries are kept per user/product for a
+ * short TTL; carts change too often and are always read fresh. Serialised
+ * sizes are recorded as {@code ai.context.size} tagged by function.
+ */
+@Component
+public class ChatContextBuilder {
+
+    // rough average for English text and JSON punctuation
+    static final int CHARS_PER_TOKEN = 4;
+    private static final int MAX_DESCRIPTION_CHARS = 400;
+
+    private static final LocalDateTime FIRST_ORDER_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LAST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final CartRepository cartRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+    private final int maxTokens;
+    private final int recentOrders;
+    private final Cache<String, String> contexts;
+
+    public ChatContextBuilder(CartRepository cartRepository,
+                              OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${ai.context.max-tokens:1000}") int maxTokens,
+                              @Value("${ai.context.recent-orders:5}") int recentOrders,
+                              @Value("${ai.context.ttl:30s}") Duration ttl,
+                              @Value("${ai.context.max-size:10000}") long maxSize) {
+        this.cartRepository = cartRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxTokens = maxTokens;
+        this.recentOrders = recentOrders;
+        this.contexts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public JSONObject build(String functionName, Long productId, Long userId) throws ProductException {
+        String context = switch (functionName) {
+            case ChatIntentRouter.CART -> fitToBudget(cartContext(userId), "items");
+            case ChatIntentRouter.ORDER -> cached(ChatIntentRouter.ORDER + ":" + userId,
+                    () -> fitToBudget(orderContext(userId), "recentOrders"));
+            case ChatIntentRouter.PRODUCT -> cached(ChatIntentRouter.PRODUCT + ":" + productId,
+                    () -> productContext(productId).toString());
+            default -> throw new IllegalArgumentException("Unsupported function: " + functionName);
+        };
+
+        DistributionSummary.builder("ai.context.size")
+                .baseUnit("bytes")
+                .tag("function", functionName)
+                .register(meterRegistry)
+                .record(context.getBytes(StandardCharsets.UTF_8).length);
+        return new JSONObject(context);
+    }
+
+    private JSONObject cartContext(Long userId) {
+        Cart cart = cartRepository.findByUserId(userId);
+        JSONObject context = new JSONObject();
+        if (cart == null) {
+            return context.put("items", new JSONArray());
+        }
+
+        JSONArray items = new JSONArray();
+        cart.getCartItems().stream()
+                .sorted(Comparator.comparing(CartItem::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(item -> items.put(new JSONObject()
+                        .put("title", item.getProduct() != null ? item.getProduct().getTitle() : null)
+                        .put("size", item.getSize())
+                        .put("quantity", item.getQuantity())
+                        .put("sellingPrice", item.getSellingPrice())));
+        return context
+                .put("totalItem", cart.getTotalItem())
+                .put("totalMrpPrice", cart.getTotalMrpPrice())
+                .put("totalSellingPrice", cart.getTotalSellingPrice())
+                .put("discount", cart.getDiscount())
+                .put("couponCode", cart.getCouponCode())
+                .put("items", items);
+    }
+
+    private JSONObject orderContext(Long userId) {
+        JSONObject statusCounts = new JSONObject();
+        long totalOrders = 0;
+        for (Object[] row : orderRepository.countStatusesForUser(userId)) {
+            long count = (Long) row[1];
+            statusCounts.put(String.valueOf(row[0]), count);
+            totalOrders += count;
+        }
+
+        List<OrderSummaryDto> recent = orderRepository.findUserOrderSummaries(userId, null,
+                FIRST_ORDER_DATE, LAST_ORDER_DATE, LAST_ORDER_DATE, Long.MAX_VALUE, Limit.of(recentOrders));
+        Map<Long, JSONArray> products = new HashMap<>();
+        if (!recent.isEmpty()) {
+            for (Object[] row : orderItemRepository.findTitlesForOrders(
+                    recent.stream().map(OrderSummaryDto::getId).toList())) {
+                products.computeIfAbsent((Long) row[0], id -> new JSONArray())
+                        .put(new JSONObject().put("title", row[1]).put("quantity", row[2]));
+            }
+        }
+
+        JSONArray orders = new JSONArray();
+        for (OrderSummaryDto order : recent) {
+            orders.put(new JSONObject()
+                    .put("orderId", order.getOrderId())
+                    .put("status", String.valueOf(order.getOrderStatus()))
+                    .put("paymentStatus", String.valueOf(order.getPaymentStatus()))
+                    .put("totalSellingPrice", order.getTotalSellingPrice())
+                    .put("orderDate", String.valueOf(order.getOrderDate()))
+                    .put("deliverDate", String.valueOf(order.getDeliverDate()))
+                    .put("products", products.getOrDefault(order.getId(), new JSONArray())));
+        }
+        return new JSONObject()
+                .put("totalOrders", totalOrders)
+                .put("statusCounts", statusCounts)
+                .put("recentOrders", orders);
+    }
+
+    private JSONObject productContext(Long productId) throws ProductException {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductException("product not found"));
+        String description = product.getDescription();
+        if (description != null && description.length() > MAX_DESCRIPTION_CHARS) {
+            description = description.substring(0, MAX_DESCRIPTION_CHARS) + "...";
+        }
+
+        JSONArray sizes = new JSONArray();
+        if (product.getSizes() != null) {
+            Arrays.stream(product.getSizes().split(","))
+                    .map(String::trim)
+                    .filter(size -> !size.isEmpty())
+                    .forEach(sizes::put);
+        }
+        return new JSONObject()
+                .put("title", product.getTitle())
+                .put("description", description)
+                .put("mrpPrice", product.getMrpPrice())
+                .put("sellingPrice", product.getSellingPrice())
+                .put("discountPercent", product.getDiscountPercent())
+                .put("color", product.getColor())
+                .put("inStock", product.isIn_stock() && product.getQuantity() > 0)
+                .put("quantity", product.getQuantity())
+                .put("averageRating", product.getRatingSummary() != null
+                        ? product.getRatingSummary().getAverageRating() : 0)
+                .put("numRatings", product.getNumRatings())
+                .put("category", product.getCategory() != null ? product.getCategory().getName() : null)
+                .put("sizes", sizes);
+    }
+
+    /** Drops entries from the end of {@code listKey} until the estimate fits, noting how many were left out. */
+    String fitToBudget(JSONObject context, String listKey) {
+        String json = context.toString();
+        JSONArray list = context.optJSONArray(listKey);
+        int omitted = 0;
+        while (estimateTokens(json) > maxTokens && list != null && !list.isEmpty()) {
+            list.remove(list.length() - 1);
+            omitted++;
+            context.put("omitted", omitted);
+            json = context.toString();
+        }
+        return json;
+    }
+
+    static int estimateTokens(String json) {
+        return (json.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private String cached(String key, ContextLoader loader) throws ProductException {
+        String context = contexts.getIfPresent(key);
+        if (context == null) {
+            context = loader.load();
+            contexts.put(key, context);
+        }
+        return context;
+    }
+
+    @FunctionalInterface
+    private interface ContextLoader {
+        String load() throws ProductException;
+    }
+}
@@ -0,0 +1,166 @@
+package com.ramyastore.ai.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the chatbot function for a message without asking the LLM. Keyword
+ * rules decide first; when no single rule matches, a naive Bayes model
+ * trained offline (token counts in {@code ai/intent-model.json}) decides if
+ * it is confident enough. Otherwise the caller falls back to Gemini's
+ * function-calling step. Routes are counted as {@code ai.intent.route}
+ * tagged rule/model/llm.
+ */
+@Component
+public class ChatIntentRouter {
+
+    static final String CART = "getUserCart";
+    static final String ORDER = "getUsersOrder";
+    static final String PRODUCT = "getProductDetails";
+
+    private static final Pattern ORDER_RULE = Pattern.compile(
+            "\\bmy orders?\\b"
+                    + "|\\b(where|track\\w*|status|deliver\\w*|ship\\w*|arriv\\w*|cancel\\w*|refund\\w*)\\b.*\\borders?\\b"
+                    + "|\\borders?\\b.*\\b(status|track\\w*|deliver\\w*|ship\\w*|arriv\\w*)\\b");
+    private static final Pattern CART_RULE = Pattern.compile(
+            "\\b(my|the) (cart|basket|bag)\\b|\\bin (my )?(cart|basket)\\b");
+    private static final Pattern PRODUCT_RULE = Pattern.compile(
+            "\\b(sizes?|colou?rs?|material|fabric|price|cost|stock|availab\\w*|fit|details|specs?)\\b");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+
+    private final Map<String, Double> logPriors = new HashMap<>();
+    private final Map<String, Map<String, Double>> logLikelihoods = new HashMap<>();
+    private final Map<String, Double> unseenLogLikelihoods = new HashMap<>();
+    private final Set<String> vocabulary = new HashSet<>();
+    private final double minConfidence;
+    private final boolean enabled;
+    private final Counter ruleRoutes;
+    private final Counter modelRoutes;
+    private final Counter llmRoutes;
+
+    public ChatIntentRouter(MeterRegistry meterRegistry,
+                            @Value("${ai.intent.model:classpath:ai/intent-model.json}") Resource model,
+                            @Value("${ai.intent.min-confidence:0.85}") double minConfidence,
+                            @Value("${ai.intent.enabled:true}") boolean enabled) {
+        this.minConfidence = minConfidence;
+        this.enabled = enabled;
+        this.ruleRoutes = Counter.builder("ai.intent.route").tag("source", "rule").register(meterRegistry);
+        this.modelRoutes = Counter.builder("ai.intent.route").tag("source", "model").register(meterRegistry);
+        this.llmRoutes = Counter.builder("ai.intent.route").tag("source", "llm").register(meterRegistry);
+        load(model);
+    }
+
+    /** The function to call for this message, or empty when the LLM should choose. */
+    public Optional<String> route(String message, Long productId) {
+        Optional<String> intent = enabled ? classify(message, productId) : Optional.empty();
+        if (intent.isEmpty()) {
+            llmRoutes.increment();
+        }
+        return intent;
+    }
+
+    private Optional<String> classify(String message, Long productId) {
+        if (message == null || message.isBlank()) {
+            return Optional.empty();
+        }
+        String text = message.toLowerCase(Locale.ROOT);
+
+        List<String> matched = new ArrayList<>(1);
+        if (ORDER_RULE.matcher(text).find()) {
+            matched.add(ORDER);
+        }
+        if (CART_RULE.matcher(text).find()) {
+            matched.add(CART);
+        }
+        if (productId != null && PRODUCT_RULE.matcher(text).find()) {
+            matched.add(PRODUCT);
+        }
+        if (matched.size() == 1) {
+            ruleRoutes.increment();
+            return Optional.of(matched.get(0));
+        }
+
+        Optional<String> predicted = predict(text, productId);
+        predicted.ifPresent(intent -> modelRoutes.increment());
+        return predicted;
+    }
+
+    private Optional<String> predict(String text, Long productId) {
+        List<String> tokens = Arrays.stream(NON_WORD.split(text))
+                .filter(vocabulary::contains)
+                .toList();
+        if (tokens.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Double> prior : logPriors.entrySet()) {
+            String intent = prior.getKey();
+            Map<String, Double> likelihoods = logLikelihoods.get(intent);
+            double score = prior.getValue();
+            for (String token : tokens) {
+                score += likelihoods.getOrDefault(token, unseenLogLikelihoods.get(intent));
+            }
+            scores.put(intent, score);
+        }
+
+        // softmax over log scores gives the posterior of the best intent
+        double best = Collections.max(scores.values());
+        String bestIntent = null;
+        double normaliser = 0;
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            normaliser += Math.exp(score.getValue() - best);
+            if (score.getValue() == best) {
+                bestIntent = score.getKey();
+            }
+        }
+        double confidence = 1 / normaliser;
+        // product lookups need an id; without one let the LLM ask for it
+        if (confidence < minConfidence || (PRODUCT.equals(bestIntent) && productId == null)) {
+            return Optional.empty();
+        }
+        return Optional.of(bestIntent);
+    }
+
+    private void load(Resource model) {
+        JSONObject classes;
+        try (InputStream in = model.getInputStream()) {
+            classes = new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8)).getJSONObject("classes");
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read intent model " + model, e);
+        }
+
+        double totalDocs = 0;
+        for (String intent : classes.keySet()) {
+            totalDocs += classes.getJSONObject(intent).getInt("docs");
+            vocabulary.addAll(classes.getJSONObject(intent).getJSONObject("tokens").keySet());
+        }
+        for (String intent : classes.keySet()) {
+            JSONObject counts = classes.getJSONObject(intent).getJSONObject("tokens");
+            double totalTokens = 0;
+            for (String token : counts.keySet()) {
+                totalTokens += counts.getInt(token);
+            }
+            // Laplace smoothing over the shared vocabulary
+            double denominator = totalTokens + vocabulary.size();
+            Map<String, Double> likelihoods = new HashMap<>();
+            for (String token : counts.keySet()) {
+                likelihoods.put(token, Math.log((counts.getInt(token) + 1) / denominator));
+            }
+            logLikelihoods.put(intent, likelihoods);
+            unseenLogLikelihoods.put(intent, Math.log(1 / denominator));
+            logPriors.put(intent, Math.log(classes.getJSONObject(intent).getInt("docs") / totalDocs));
+        }
+    }
+}
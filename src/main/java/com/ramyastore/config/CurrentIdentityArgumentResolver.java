@@ -0,0 +1,48 @@
+package com.ramyastore.config;
+
+import com.ramyastore.dto.SellerIdentity;
+import com.ramyastore.dto.UserIdentity;
+import com.ramyastore.exception.SellerException;
+import com.ramyastore.exception.UserException;
+import com.ramyastore.service.IdentityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} and {@link CurrentSeller} parameters from the
+ * principal {@link JwtTokenValidator} put on the request.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentIdentityArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final IdentityService identityService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return (parameter.hasParameterAnnotation(CurrentUser.class)
+                && parameter.getParameterType() == UserIdentity.class)
+                || (parameter.hasParameterAnnotation(CurrentSeller.class)
+                && parameter.getParameterType() == SellerIdentity.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        boolean seller = parameter.hasParameterAnnotation(CurrentSeller.class);
+        if (!(webRequest.getAttribute(JwtTokenVerifier.PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof JwtPrincipal principal)) {
+            if (seller) {
+                throw new SellerException("authorization token is required");
+            }
+            throw new UserException("authorization token is required");
+        }
+        return seller ? identityService.findSeller(principal.email()) : identityService.findUser(principal.email());
+    }
+}
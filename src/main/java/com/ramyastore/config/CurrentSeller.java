@@ -0,0 +1,12 @@
+package com.ramyastore.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Injects the authenticated seller as a {@link com.ramyastore.dto.SellerIdentity}. */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentSeller {
+}
@@ -0,0 +1,14 @@
+package com.ramyastore.config;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/** The verified contents of a JWT: who the caller is, what they may do and until when. */
+public record JwtPrincipal(String email, List<GrantedAuthority> authorities, Instant expiresAt) {
+
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
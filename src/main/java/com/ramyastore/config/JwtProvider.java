@@ -11,7 +11,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -19,6 +18,12 @@ import io.jsonwebtoken.security.Keys;
 public class JwtProvider {
 	
 	private SecretKey key=Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
+
+	private final JwtTokenVerifier tokenVerifier;
+
+	public JwtProvider(JwtTokenVerifier tokenVerifier) {
+		this.tokenVerifier=tokenVerifier;
+	}
 	
 	public String generateToken(Authentication auth) {
 		Collection<? extends GrantedAuthority> authorities = auth.getAuthorities();
@@ -36,12 +41,9 @@ public class JwtProvider {
 	}
 	
 	public String getEmailFromJwtToken(String jwt) {
-		jwt=jwt.substring(7);
-		
-		Claims claims=Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
-		String email=String.valueOf(claims.get("email"));
+		jwt=JwtTokenVerifier.stripBearer(jwt);
 		
-		return email;
+		return tokenVerifier.resolve(jwt).email();
 	}
 	
 	public String populateAuthorities(Collection<? extends GrantedAuthority> collection) {
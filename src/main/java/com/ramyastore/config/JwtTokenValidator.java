@@ -1,22 +1,13 @@
 package com.ramyastore.config;
 
 import java.io.IOException;
-import java.util.List;
-
-import javax.crypto.SecretKey;
 
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 
@@ -25,6 +16,11 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class JwtTokenValidator extends OncePerRequestFilter {
 
+	private final JwtTokenVerifier tokenVerifier;
+
+	public JwtTokenValidator(JwtTokenVerifier tokenVerifier) {
+		this.tokenVerifier=tokenVerifier;
+	}
 	
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,23 +28,18 @@ public class JwtTokenValidator extends OncePerRequestFilter {
 		String jwt = request.getHeader(JwtConstant.JWT_HEADER);
 		
 		if(jwt!=null) {
-			jwt=jwt.substring(7);
+			jwt=JwtTokenVerifier.stripBearer(jwt);
 			
 			
 			try {
 				
-				SecretKey key= Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
-				
-				Claims claims=Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
-				
-				String email=String.valueOf(claims.get("email"));
-				
-				String authorities=String.valueOf(claims.get("authorities"));
-				
-				System.out.println("authorities -------- "+authorities);
+				JwtPrincipal principal=tokenVerifier.verify(jwt);
+
+				// controllers pass the same header on to services, which pick this up instead of re-parsing
+				request.setAttribute(JwtTokenVerifier.TOKEN_ATTRIBUTE, jwt);
+				request.setAttribute(JwtTokenVerifier.PRINCIPAL_ATTRIBUTE, principal);
 				
-				List<GrantedAuthority> auths=AuthorityUtils.commaSeparatedStringToAuthorityList(authorities);
-				Authentication athentication=new UsernamePasswordAuthenticationToken(email,null, auths);
+				Authentication athentication=new UsernamePasswordAuthenticationToken(principal.email(),null, principal.authorities());
 				
 				SecurityContextHolder.getContext().setAuthentication(athentication);
 				
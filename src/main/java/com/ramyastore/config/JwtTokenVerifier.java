@@ -0,0 +1,115 @@
+package com.ramyastore.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Verifies JWT signatures with one shared key and parser, and remembers the
+ * result until the token expires. Tokens are cached by their SHA-256 hash so
+ * raw credentials never sit in memory longer than the request.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    public static final String PRINCIPAL_ATTRIBUTE = JwtTokenVerifier.class.getName() + ".principal";
+    public static final String TOKEN_ATTRIBUTE = JwtTokenVerifier.class.getName() + ".token";
+
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> principals;
+
+    public JwtTokenVerifier(MeterRegistry meterRegistry,
+                            @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes()))
+                .build();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "jwt");
+    }
+
+    /** Returns the principal for a raw token, checking the signature only on a cache miss. */
+    public JwtPrincipal verify(String token) {
+        String cacheKey = sha256(token);
+        Instant now = Instant.now();
+        JwtPrincipal principal = principals.getIfPresent(cacheKey);
+        if (principal != null && !principal.isExpiredAt(now)) {
+            return principal;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        principal = new JwtPrincipal(String.valueOf(claims.get("email")),
+                AuthorityUtils.commaSeparatedStringToAuthorityList(String.valueOf(claims.get("authorities"))),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+        if (principal.expiresAt() != null) {
+            principals.put(cacheKey, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * Same as {@link #verify} but reuses the principal the filter already put on
+     * the current request when it was resolved from the same token.
+     */
+    public JwtPrincipal resolve(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && token.equals(attributes.getAttribute(TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))
+                && attributes.getAttribute(PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        return verify(token);
+    }
+
+    public static String stripBearer(String header) {
+        return header.startsWith("Bearer ") ? header.substring(7) : header;
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.config.CurrentUser;
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.CartItemException;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.UserException;
 import com.ramyastore.model.Cart;
 import com.ramyastore.model.CartItem;
 import com.ramyastore.model.Product;
-import com.ramyastore.model.User;
 import com.ramyastore.request.AddItemRequest;
 import com.ramyastore.response.ApiResponse;
 import com.ramyastore.service.CartItemService;
 import com.ramyastore.service.CartService;
 import com.ramyastore.service.ProductService;
-import com.ramyastore.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,32 +24,26 @@ import org.springframework.web.bind.annotation.*;
 public class CartController {
 	
 	private final CartService cartService;
-	private final UserService userService;
 	private final ProductService productService;
 	private final CartItemService cartItemService;
 
 
 	
 	@GetMapping
-	public ResponseEntity<Cart> findUserCartHandler(@RequestHeader("Authorization") String jwt) throws UserException{
+	public ResponseEntity<Cart> findUserCartHandler(@CurrentUser UserIdentity user) throws UserException{
 		
-		User user=userService.findUserProfileByJwt(jwt);
-		
-		Cart cart=cartService.findUserCart(user);
-		
-		System.out.println("cart - "+cart.getUser().getEmail());
+		Cart cart=cartService.findUserCart(user.getId());
 		
 		return new ResponseEntity<Cart>(cart,HttpStatus.OK);
 	}
 	
 	@PutMapping("/add")
 	public ResponseEntity<CartItem> addItemToCart(@RequestBody AddItemRequest req,
-												  @RequestHeader("Authorization") String jwt) throws UserException, ProductException{
+												  @CurrentUser UserIdentity user) throws UserException, ProductException{
 		
-		User user=userService.findUserProfileByJwt(jwt);
 		Product product=productService.findProductById(req.getProductId());
 		
-		CartItem item = cartService.addCartItem(user,
+		CartItem item = cartService.addCartItem(user.getId(),
 				product,
 				req.getSize(),
 				req.getQuantity());
@@ -62,10 +56,9 @@ public class CartController {
 	@DeleteMapping("/item/{cartItemId}")
 	public ResponseEntity<ApiResponse>deleteCartItemHandler(
 			@PathVariable Long cartItemId,
-			@RequestHeader("Authorization")String jwt)
+			@CurrentUser UserIdentity user)
 			throws CartItemException, UserException{
 
-		User user=userService.findUserProfileByJwt(jwt);
 		cartItemService.removeCartItem(user.getId(), cartItemId);
 
 		ApiResponse res=new ApiResponse("Item Remove From Cart",true);
@@ -77,11 +70,9 @@ public class CartController {
 	public ResponseEntity<CartItem>updateCartItemHandler(
 			@PathVariable Long cartItemId,
 			@RequestBody CartItem cartItem,
-			@RequestHeader("Authorization")String jwt)
+			@CurrentUser UserIdentity user)
 			throws CartItemException, UserException{
 
-		User user=userService.findUserProfileByJwt(jwt);
-
 		CartItem updatedCartItem = null;
 		if(cartItem.getQuantity()>0){
 			updatedCartItem=cartItemService.updateCartItem(user.getId(),
@@ -3,19 +3,26 @@ package com.ramyastore.controller;
 import com.razorpay.PaymentLink;
 import com.razorpay.RazorpayException;
 import com.stripe.exception.StripeException;
+import com.ramyastore.config.CurrentUser;
+import com.ramyastore.domain.OrderStatus;
 import com.ramyastore.domain.PaymentMethod;
+import com.ramyastore.dto.CheckoutResult;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.OrderException;
-import com.ramyastore.exception.SellerException;
 import com.ramyastore.exception.UserException;
 import com.ramyastore.model.*;
 import com.ramyastore.repository.PaymentOrderRepository;
+import com.ramyastore.response.CursorPage;
 import com.ramyastore.response.PaymentLinkResponse;
 import com.ramyastore.service.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -30,8 +37,6 @@ public class OrderController {
 	private final CartService cartService;
 	private final PaymentService paymentService;
 	private final PaymentOrderRepository paymentOrderRepository;
-	private final SellerReportService sellerReportService;
-	private final SellerService sellerService;
 
 	
 	@PostMapping()
@@ -39,11 +44,12 @@ public class OrderController {
 			@RequestBody Address spippingAddress,
 			@RequestParam PaymentMethod paymentMethod,
 			@RequestHeader("Authorization")String jwt)
-            throws UserException, RazorpayException, StripeException {
+            throws UserException, RazorpayException, StripeException, OrderException {
 		
 		User user=userService.findUserProfileByJwt(jwt);
-		Cart cart=cartService.findUserCart(user);
-		Set<Order> orders =orderService.createOrder(user, spippingAddress,cart);
+		Cart cart=cartService.findUserCart(user.getId());
+		CheckoutResult checkout=orderService.checkout(user, spippingAddress,cart);
+		Set<Order> orders =checkout.getOrders();
 
 		PaymentOrder paymentOrder=paymentService.createOrder(user,orders);
 
@@ -68,35 +74,46 @@ public class OrderController {
 					paymentOrder.getId());
 			res.setPayment_link_url(paymentUrl);
 		}
-		return new ResponseEntity<>(res,HttpStatus.OK);
+		return ResponseEntity.ok()
+				.header("Server-Timing", checkout.toServerTiming())
+				.body(res);
 
 	}
 	
 	@GetMapping("/user")
 	public ResponseEntity< List<Order>> usersOrderHistoryHandler(
-			@RequestHeader("Authorization")
-	String jwt) throws UserException{
+			@CurrentUser UserIdentity user) {
 		
-		User user=userService.findUserProfileByJwt(jwt);
 		List<Order> orders=orderService.usersOrderHistory(user.getId());
 		return new ResponseEntity<>(orders,HttpStatus.ACCEPTED);
 	}
 	
+	@GetMapping(value = "/user", params = "cursor")
+	public ResponseEntity<CursorPage<OrderSummaryDto>> usersOrderSummariesHandler(
+			@CurrentUser UserIdentity user,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) OrderStatus status,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(defaultValue = "10") Integer pageSize) throws OrderException {
+
+		return ResponseEntity.ok(orderService.getUserOrderSummaries(user.getId(),
+				status, from, to, cursor, pageSize));
+	}
+	
 	@GetMapping("/{orderId}")
-	public ResponseEntity< Order> getOrderById(@PathVariable Long orderId, @RequestHeader("Authorization")
-	String jwt) throws OrderException, UserException{
+	public ResponseEntity< Order> getOrderById(@PathVariable Long orderId,
+			@CurrentUser UserIdentity user) throws OrderException{
 		
-		User user = userService.findUserProfileByJwt(jwt);
 		Order orders=orderService.findOrderById(orderId);
 		return new ResponseEntity<>(orders,HttpStatus.ACCEPTED);
 	}
 
 	@GetMapping("/item/{orderItemId}")
 	public ResponseEntity<OrderItem> getOrderItemById(
-			@PathVariable Long orderItemId, @RequestHeader("Authorization")
-	String jwt) throws Exception {
+			@PathVariable Long orderItemId,
+			@CurrentUser UserIdentity user) throws Exception {
 		System.out.println("------- controller ");
-		User user = userService.findUserProfileByJwt(jwt);
 		OrderItem orderItem=orderItemService.getOrderItemById(orderItemId);
 		return new ResponseEntity<>(orderItem,HttpStatus.ACCEPTED);
 	}
@@ -105,17 +122,9 @@ public class OrderController {
 	public ResponseEntity<Order> cancelOrder(
 			@PathVariable Long orderId,
 			@RequestHeader("Authorization") String jwt
-	) throws UserException, OrderException, SellerException {
+	) throws UserException, OrderException {
 		User user=userService.findUserProfileByJwt(jwt);
 		Order order=orderService.cancelOrder(orderId,user);
-
-		Seller seller= sellerService.getSellerById(order.getSellerId());
-		SellerReport report=sellerReportService.getSellerReport(seller);
-
-		report.setCanceledOrders(report.getCanceledOrders()+1);
-		report.setTotalRefunds(report.getTotalRefunds()+order.getTotalSellingPrice());
-		sellerReportService.updateSellerReport(report);
-
 		return ResponseEntity.ok(order);
 	}
 
@@ -18,9 +18,6 @@ public class PaymentController {
 
     private final UserService userService;
     private final PaymentService paymentService;
-    private final TransactionService transactionService;
-    private final SellerReportService sellerReportService;
-    private final SellerService sellerService;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
 
@@ -71,16 +68,10 @@ public class PaymentController {
                 paymentLinkId
         );
         if(paymentSuccess){
-            for(Order order:paymentOrder.getOrders()){
-                transactionService.createTransaction(order);
-                Seller seller=sellerService.getSellerById(order.getSellerId());
-                SellerReport report=sellerReportService.getSellerReport(seller);
-                report.setTotalOrders(report.getTotalOrders()+1);
-                report.setTotalEarnings(report.getTotalEarnings()+order.getTotalSellingPrice());
-                report.setTotalSales(report.getTotalSales()+order.getOrderItems().size());
-                sellerReportService.updateSellerReport(report);
-            }
+            // transactions and seller reports are written by the outbox workers
             Cart cart=cartRepository.findByUserId(user.getId());
+            // totals are kept net of the coupon, so add it back when clearing it
+            cart.setTotalSellingPrice(cart.getTotalSellingPrice()+cart.getCouponPrice());
             cart.setCouponPrice(0);
             cart.setCouponCode(null);
 //        Set<CartItem> items=cart.getCartItems();
@@ -1,7 +1,11 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.dto.ProductCardDto;
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.dto.ProductFacets;
 import com.ramyastore.exception.*;
 import com.ramyastore.model.*;
+import com.ramyastore.response.CursorPage;
 import com.ramyastore.service.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -26,19 +30,60 @@ public class ProductController {
 
 
     @GetMapping("/{productId}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long productId) throws ProductException {
+    public ResponseEntity<ProductDetailDto> getProductById(@PathVariable Long productId) throws ProductException {
 
-            Product product = productService.findProductById(productId);
+            ProductDetailDto product = productService.getProductDetail(productId);
             return new ResponseEntity<>(product, HttpStatus.OK);
 
     }
 
+    // pageNumber is optional; without it every match is returned, as before paging existed
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProduct(@RequestParam(required = false) String query) {
-        List<Product> products = productService.searchProduct(query);
+    public ResponseEntity<List<Product>> searchProduct(@RequestParam(required = false) String query,
+                                                       @RequestParam(required = false) Integer pageNumber) {
+        List<Product> products = productService.searchProduct(query, pageNumber);
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
+    @GetMapping("/search/cards")
+    public ResponseEntity<Page<ProductCardDto>> searchProductCards(@RequestParam(required = false) String query,
+                                                                   @RequestParam(defaultValue = "0") Integer pageNumber) {
+        return new ResponseEntity<>(productService.searchProductCards(query, pageNumber), HttpStatus.OK);
+    }
+
+    @GetMapping("/cards")
+    public ResponseEntity<Page<ProductCardDto>> getAllProductCards(@RequestParam(required = false) String category,
+                                                                   @RequestParam(required = false) String brand,
+                                                                   @RequestParam(required = false) String color,
+                                                                   @RequestParam(required = false) String size,
+                                                                   @RequestParam(required = false) Integer minPrice,
+                                                                   @RequestParam(required = false) Integer maxPrice,
+                                                                   @RequestParam(required = false) Integer minDiscount,
+                                                                   @RequestParam(required = false) String sort,
+                                                                   @RequestParam(required = false) String stock,
+                                                                   @RequestParam(defaultValue = "0") Integer pageNumber) {
+        return new ResponseEntity<>(
+                productService.getAllProductCards(category, brand,
+                        color, size, minPrice,
+                        maxPrice, minDiscount, sort,
+                        stock, pageNumber), HttpStatus.OK);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacets> getProductFacets(@RequestParam(required = false) String category,
+                                                          @RequestParam(required = false) String brand,
+                                                          @RequestParam(required = false) String color,
+                                                          @RequestParam(required = false) String size,
+                                                          @RequestParam(required = false) Integer minPrice,
+                                                          @RequestParam(required = false) Integer maxPrice,
+                                                          @RequestParam(required = false) Integer minDiscount,
+                                                          @RequestParam(required = false) String stock) {
+        return new ResponseEntity<>(
+                productService.getProductFacets(category, brand,
+                        color, size, minPrice,
+                        maxPrice, minDiscount, stock), HttpStatus.OK);
+    }
+
     @GetMapping
     public ResponseEntity<Page<Product>> getAllProducts(@RequestParam(required = false) String category,
                                                         @RequestParam(required = false) String brand,
@@ -57,4 +102,25 @@ public class ProductController {
                         maxPrice, minDiscount, sort,
                         stock, pageNumber), HttpStatus.OK);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<Product>> getAllProductsByCursor(@RequestParam(required = false) String category,
+                                                                      @RequestParam(required = false) String brand,
+                                                                      @RequestParam(required = false) String color,
+                                                                      @RequestParam(required = false) String size,
+                                                                      @RequestParam(required = false) Integer minPrice,
+                                                                      @RequestParam(required = false) Integer maxPrice,
+                                                                      @RequestParam(required = false) Integer minDiscount,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam(required = false) String stock,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "10") Integer pageSize,
+                                                                      @RequestParam(defaultValue = "false") boolean includeTotal)
+            throws ProductException {
+        return new ResponseEntity<>(
+                productService.getAllProductByCursor(category, brand,
+                        color, size, minPrice,
+                        maxPrice, minDiscount, sort,
+                        stock, cursor, pageSize, includeTotal), HttpStatus.OK);
+    }
 }
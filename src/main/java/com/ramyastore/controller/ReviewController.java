@@ -1,5 +1,7 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.config.CurrentUser;
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.ReviewNotFoundException;
 import com.ramyastore.exception.UserException;
@@ -8,6 +10,7 @@ import com.ramyastore.model.Review;
 import com.ramyastore.model.User;
 import com.ramyastore.request.CreateReviewRequest;
 import com.ramyastore.response.ApiResponse;
+import com.ramyastore.response.ReviewPage;
 import com.ramyastore.service.ProductService;
 import com.ramyastore.service.ReviewService;
 import com.ramyastore.service.UserService;
@@ -36,12 +39,23 @@ public class ReviewController {
 
     }
 
+    @GetMapping(value = "/products/{productId}/reviews", params = "cursor")
+    public ResponseEntity<ReviewPage> getReviewPage(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(defaultValue = "10") Integer pageSize) throws ProductException {
+
+        return ResponseEntity.ok(reviewService.getReviewPage(productId, sort, cursor, pageSize));
+    }
+
     @PostMapping("/products/{productId}/reviews")
     public ResponseEntity<Review> writeReview(
             @RequestBody CreateReviewRequest req,
             @PathVariable Long productId,
             @RequestHeader("Authorization") String jwt) throws UserException, ProductException {
 
+        // the new review references the full user entity, which the response serializes
         User user = userService.findUserProfileByJwt(jwt);
         Product product = productService.findProductById(productId);
 
@@ -56,12 +70,10 @@ public class ReviewController {
     public ResponseEntity<Review> updateReview(
             @RequestBody CreateReviewRequest req,
             @PathVariable Long reviewId,
-            @RequestHeader("Authorization") String jwt)
+            @CurrentUser UserIdentity user)
             throws UserException,
             ReviewNotFoundException, AuthenticationException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         Review review = reviewService.updateReview(
                 reviewId,
                 req.getReviewText(),
@@ -75,11 +87,9 @@ public class ReviewController {
     @DeleteMapping("/reviews/{reviewId}")
     public ResponseEntity<ApiResponse> deleteReview(
             @PathVariable Long reviewId,
-            @RequestHeader("Authorization") String jwt) throws UserException,
+            @CurrentUser UserIdentity user) throws UserException,
             ReviewNotFoundException, AuthenticationException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         reviewService.deleteReview(reviewId, user.getId());
         ApiResponse res = new ApiResponse();
         res.setMessage("Review deleted successfully");
@@ -1,18 +1,23 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.config.CurrentSeller;
 import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.dto.OrderTransitionResult;
+import com.ramyastore.dto.SellerIdentity;
 import com.ramyastore.exception.OrderException;
-import com.ramyastore.exception.SellerException;
 import com.ramyastore.model.Order;
-import com.ramyastore.model.Seller;
+import com.ramyastore.request.BulkOrderStatusRequest;
 import com.ramyastore.response.ApiResponse;
+import com.ramyastore.response.CursorPage;
 import com.ramyastore.service.OrderService;
-import com.ramyastore.service.SellerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,28 +26,32 @@ public class SellerOrderController {
 
     private final OrderService orderService;
 
-    private final SellerService sellerService;
-
     @Autowired
-    public SellerOrderController(OrderService orderService,
-
-                                 SellerService sellerService) {
+    public SellerOrderController(OrderService orderService) {
         this.orderService=orderService;
-
-
-        this.sellerService = sellerService;
     }
 
     @GetMapping()
     public ResponseEntity<List<Order>> getAllOrdersHandler(
-            @RequestHeader("Authorization") String jwt
-    ) throws SellerException {
-        Seller seller=sellerService.getSellerProfile(jwt);
+            @CurrentSeller SellerIdentity seller
+    ) {
         List<Order> orders=orderService.getShopsOrders(seller.getId());
 
         return new ResponseEntity<>(orders, HttpStatus.ACCEPTED);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<OrderSummaryDto>> getOrderSummariesHandler(
+            @CurrentSeller SellerIdentity seller,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") Integer pageSize) throws OrderException {
+        return ResponseEntity.ok(orderService.getSellerOrderSummaries(seller.getId(),
+                status, from, to, cursor, pageSize));
+    }
+
     @PatchMapping("/{orderId}/status/{orderStatus}")
     public ResponseEntity<Order> updateOrderHandler(
             @RequestHeader("Authorization") String jwt,
@@ -55,6 +64,17 @@ public class SellerOrderController {
         return new ResponseEntity<>(orders,HttpStatus.ACCEPTED);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity<List<OrderTransitionResult>> bulkUpdateOrderStatusHandler(
+            @CurrentSeller SellerIdentity seller,
+            @RequestBody BulkOrderStatusRequest req
+    ) throws OrderException {
+        List<OrderTransitionResult> results=orderService.updateOrderStatuses(seller.getId(),
+                req.getOrderIds(), req.getStatus());
+
+        return new ResponseEntity<>(results,HttpStatus.ACCEPTED);
+    }
+
 
     @DeleteMapping("/{orderId}/delete")
     public ResponseEntity<ApiResponse> deleteOrderHandler(@PathVariable Long orderId,
@@ -1,5 +1,6 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.dto.ProductImportReport;
 import com.ramyastore.exception.CategoryNotFoundException;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.SellerException;
@@ -7,6 +8,7 @@ import com.ramyastore.exception.UserException;
 import com.ramyastore.model.Product;
 import com.ramyastore.model.Seller;
 import com.ramyastore.request.CreateProductRequest;
+import com.ramyastore.service.ProductImportService;
 import com.ramyastore.service.ProductService;
 import com.ramyastore.service.SellerService;
 import com.ramyastore.service.UserService;
@@ -15,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -25,6 +28,7 @@ public class SellerProductController {
     private final ProductService productService;
     private final SellerService sellerService;
     private final UserService userService;
+    private final ProductImportService productImportService;
 
 
     @GetMapping()
@@ -53,6 +57,29 @@ public class SellerProductController {
 
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<ProductImportReport> importProducts(
+            InputStream body,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String importId,
+            @RequestHeader("Authorization") String jwt) throws ProductException, SellerException {
+
+        Seller seller=sellerService.getSellerProfile(jwt);
+
+        ProductImportReport report = productImportService.importProducts(body, format, seller, importId);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ProductImportReport> getImport(
+            @PathVariable String importId,
+            @RequestHeader("Authorization") String jwt) throws ProductException, SellerException {
+
+        Seller seller=sellerService.getSellerProfile(jwt);
+
+        return new ResponseEntity<>(productImportService.getImport(importId, seller), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{productId}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long productId) {
         try {
@@ -1,5 +1,7 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.config.CurrentUser;
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.UserException;
 import com.ramyastore.exception.WishlistNotFoundException;
@@ -7,7 +9,6 @@ import com.ramyastore.model.Product;
 import com.ramyastore.model.User;
 import com.ramyastore.model.Wishlist;
 import com.ramyastore.service.ProductService;
-import com.ramyastore.service.UserService;
 import com.ramyastore.service.WishlistService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +21,6 @@ public class WishlistController {
 
     private final WishlistService wishlistService;
     private final ProductService productService;
-    private final UserService userService;
 
 
     @PostMapping("/create")
@@ -31,22 +31,20 @@ public class WishlistController {
 
     @GetMapping()
     public ResponseEntity<Wishlist> getWishlistByUserId(
-            @RequestHeader("Authorization") String jwt) throws UserException {
+            @CurrentUser UserIdentity user) throws UserException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-        Wishlist wishlist = wishlistService.getWishlistByUserId(user);
+        Wishlist wishlist = wishlistService.getWishlistByUserId(user.getId());
         return ResponseEntity.ok(wishlist);
     }
 
     @PostMapping("/add-product/{productId}")
     public ResponseEntity<Wishlist> addProductToWishlist(
             @PathVariable Long productId,
-            @RequestHeader("Authorization") String jwt) throws WishlistNotFoundException, ProductException, UserException {
+            @CurrentUser UserIdentity user) throws WishlistNotFoundException, ProductException, UserException {
 
         Product product = productService.findProductById(productId);
-        User user=userService.findUserProfileByJwt(jwt);
         Wishlist updatedWishlist = wishlistService.addProductToWishlist(
-                user,
+                user.getId(),
                 product
         );
         return ResponseEntity.ok(updatedWishlist);
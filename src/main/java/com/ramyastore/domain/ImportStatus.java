@@ -0,0 +1,8 @@
+package com.ramyastore.domain;
+
+public enum ImportStatus {
+
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -6,5 +6,13 @@ public enum OrderStatus {
     CONFIRMED,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    /** Orders move one step forward at a time and can be cancelled until they ship. */
+    public boolean canTransitionTo(OrderStatus next) {
+        if (next == CANCELLED) {
+            return this == PENDING || this == PLACED || this == CONFIRMED;
+        }
+        return this != CANCELLED && next != null && next.ordinal() == ordinal() + 1;
+    }
 }
@@ -0,0 +1,9 @@
+package com.ramyastore.domain;
+
+public enum OrderTransitionOutcome {
+    UPDATED,
+    UNCHANGED,
+    INVALID_TRANSITION,
+    NOT_FOUND,
+    CONFLICT
+}
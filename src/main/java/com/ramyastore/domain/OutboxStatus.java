@@ -0,0 +1,9 @@
+package com.ramyastore.domain;
+
+public enum OutboxStatus {
+
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
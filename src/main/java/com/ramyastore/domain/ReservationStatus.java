@@ -0,0 +1,9 @@
+package com.ramyastore.domain;
+
+public enum ReservationStatus {
+
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,30 @@
+package com.ramyastore.dto;
+
+import com.ramyastore.model.Order;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Data
+public class CheckoutResult {
+
+    private Set<Order> orders;
+
+    // phase name -> elapsed milliseconds, in execution order
+    private Map<String, Double> timings = new LinkedHashMap<>();
+
+    public void addTiming(String phase, long startNanos, long endNanos) {
+        timings.put(phase, (endNanos - startNanos) / 1_000_000.0);
+    }
+
+    /** Formats the timings as a Server-Timing header value, e.g. {@code build;dur=0.4, persist;dur=6.1}. */
+    public String toServerTiming() {
+        return timings.entrySet().stream()
+                .map(timing -> timing.getKey() + ";dur=" + String.format(Locale.ROOT, "%.1f", timing.getValue()))
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ramyastore.dto;
+
+import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order history row, selected column by column so listing orders never
+ * loads items, products, the customer or the shipping address.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+
+    private Long id;
+
+    private String orderId;
+
+    private Long sellerId;
+
+    private OrderStatus orderStatus;
+
+    private PaymentStatus paymentStatus;
+
+    private Integer totalSellingPrice;
+
+    private int totalItem;
+
+    private LocalDateTime orderDate;
+
+    private LocalDateTime deliverDate;
+}
@@ -0,0 +1,17 @@
+package com.ramyastore.dto;
+
+import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.OrderTransitionOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionResult {
+
+    private Long orderId;
+    private OrderStatus previousStatus;
+    private OrderTransitionOutcome outcome;
+}
@@ -0,0 +1,42 @@
+package com.ramyastore.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ProductCardDto {
+
+    private Long id;
+
+    private String title;
+
+    private Integer sellingPrice;
+
+    private Integer mrpPrice;
+
+    private Integer discountPercent;
+
+    private String image;
+
+    private Integer numRatings;
+
+    private Double averageRating;
+
+    // used by the criteria constructor expression in ProductRepositoryCustomImpl
+    public ProductCardDto(Long id,
+                          String title,
+                          Integer sellingPrice,
+                          Integer mrpPrice,
+                          Integer discountPercent,
+                          Integer numRatings,
+                          Double averageRating) {
+        this.id = id;
+        this.title = title;
+        this.sellingPrice = sellingPrice;
+        this.mrpPrice = mrpPrice;
+        this.discountPercent = discountPercent;
+        this.numRatings = numRatings;
+        this.averageRating = averageRating;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ramyastore.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable product page view. This is what the product cache holds, so it
+ * carries no entity references. The JSON keeps the shape of the Product
+ * entity, minus reviews (served by the paged review endpoint) and the
+ * seller's account, bank and credential fields.
+ */
+@Value
+@Builder
+public class ProductDetailDto {
+
+    Long id;
+
+    String title;
+
+    String description;
+
+    int mrpPrice;
+
+    int sellingPrice;
+
+    int discountPercent;
+
+    int quantity;
+
+    String color;
+
+    List<String> images;
+
+    int numRatings;
+
+    RatingSummaryView ratingSummary;
+
+    CategoryView category;
+
+    SellerView seller;
+
+    LocalDateTime createdAt;
+
+    String sizes;
+
+    @JsonProperty("in_stock")
+    boolean inStock;
+
+    @Value
+    @Builder
+    public static class RatingSummaryView {
+
+        int ratingCount;
+
+        double ratingSum;
+
+        double averageRating;
+
+        int oneStarCount;
+
+        int twoStarCount;
+
+        int threeStarCount;
+
+        int fourStarCount;
+
+        int fiveStarCount;
+    }
+
+    @Value
+    @Builder
+    public static class CategoryView {
+
+        Long id;
+
+        String name;
+
+        String categoryId;
+
+        CategoryView parentCategory;
+
+        Integer level;
+    }
+
+    @Value
+    @Builder
+    public static class SellerView {
+
+        Long id;
+
+        String sellerName;
+
+        BusinessDetailsView businessDetails;
+    }
+
+    @Value
+    @Builder
+    public static class BusinessDetailsView {
+
+        String businessName;
+
+        String businessEmail;
+
+        String businessMobile;
+
+        String businessAddress;
+
+        String logo;
+
+        String banner;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ramyastore.dto;
 
+import com.ramyastore.model.RatingSummary;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -29,6 +30,8 @@ public class ProductDto {
 
     private int numRatings;
 
+    private RatingSummary ratingSummary;
+
     private LocalDateTime createdAt;
 
     private String Sizes;
@@ -0,0 +1,18 @@
+package com.ramyastore.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductFacets {
+
+    private long total;
+
+    private List<FacetCount> colors = new ArrayList<>();
+
+    private List<FacetCount> priceRanges = new ArrayList<>();
+
+    private List<FacetCount> discounts = new ArrayList<>();
+}
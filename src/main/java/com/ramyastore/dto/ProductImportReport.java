@@ -0,0 +1,31 @@
+package com.ramyastore.dto;
+
+import com.ramyastore.domain.ImportStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportReport {
+
+    private String importId;
+
+    private ImportStatus status;
+
+    private long rowsRead;
+
+    private long imported;
+
+    private long failed;
+
+    // capped, see failed for the full count
+    private List<ProductImportError> errors = new ArrayList<>();
+
+    private String message;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,16 @@
+package com.ramyastore.dto;
+
+import com.ramyastore.domain.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerIdentity {
+
+    private Long id;
+    private String email;
+    private AccountStatus accountStatus;
+}
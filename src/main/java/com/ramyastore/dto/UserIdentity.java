@@ -0,0 +1,16 @@
+package com.ramyastore.dto;
+
+import com.ramyastore.domain.USER_ROLE;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentity {
+
+    private Long id;
+    private String email;
+    private USER_ROLE role;
+}
@@ -0,0 +1,9 @@
+package com.ramyastore.exception;
+
+public class AiServiceException extends Exception {
+
+	public AiServiceException(String message) {
+		super(message);
+	}
+
+}
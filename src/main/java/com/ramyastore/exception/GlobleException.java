@@ -98,6 +98,15 @@ public class GlobleException {
 
 
 
+	@ExceptionHandler(AiServiceException.class)
+	public ResponseEntity<ErrorDetails> aiServiceExceptionHandler(AiServiceException ex, WebRequest req) {
+		ErrorDetails err= new ErrorDetails(ex.getMessage(),
+				req.getDescription(false),
+				LocalDateTime.now());
+
+		return new ResponseEntity<ErrorDetails>(err,HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
 	@ExceptionHandler(RuntimeException.class)
 	public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
 		return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -1,7 +1,16 @@
 package com.ramyastore.mapper;
 
+import com.ramyastore.dto.ProductDetailDto;
 import com.ramyastore.dto.ProductDto;
+import com.ramyastore.model.BusinessDetails;
+import com.ramyastore.model.Category;
 import com.ramyastore.model.Product;
+import com.ramyastore.model.RatingSummary;
+import com.ramyastore.model.Seller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class ProductMapper {
 
@@ -17,11 +26,138 @@ public class ProductMapper {
         productDto.setColor(product.getColor());
         productDto.setImages(product.getImages());
         productDto.setNumRatings(product.getNumRatings());
+        productDto.setRatingSummary(product.getRatingSummary());
         productDto.setCreatedAt(product.getCreatedAt());
         productDto.setSizes(product.getSizes());
 
         return productDto;
     }
+    public static ProductDetailDto toProductDetailDto(Product product) {
+        RatingSummary ratingSummary = product.getRatingSummary();
+        return ProductDetailDto.builder()
+                .id(product.getId())
+                .title(product.getTitle())
+                .description(product.getDescription())
+                .mrpPrice(product.getMrpPrice())
+                .sellingPrice(product.getSellingPrice())
+                .discountPercent(product.getDiscountPercent())
+                .quantity(product.getQuantity())
+                .color(product.getColor())
+                .images(product.getImages() == null ? List.of()
+                        : Collections.unmodifiableList(new ArrayList<>(product.getImages())))
+                .numRatings(product.getNumRatings())
+                .ratingSummary(ratingSummary == null ? null : ProductDetailDto.RatingSummaryView.builder()
+                        .ratingCount(ratingSummary.getRatingCount())
+                        .ratingSum(ratingSummary.getRatingSum())
+                        .averageRating(ratingSummary.getAverageRating())
+                        .oneStarCount(ratingSummary.getOneStarCount())
+                        .twoStarCount(ratingSummary.getTwoStarCount())
+                        .threeStarCount(ratingSummary.getThreeStarCount())
+                        .fourStarCount(ratingSummary.getFourStarCount())
+                        .fiveStarCount(ratingSummary.getFiveStarCount())
+                        .build())
+                .category(toCategoryView(product.getCategory()))
+                .seller(toSellerView(product.getSeller()))
+                .createdAt(product.getCreatedAt())
+                .sizes(product.getSizes())
+                .inStock(product.isIn_stock())
+                .build();
+    }
+
+    private static ProductDetailDto.CategoryView toCategoryView(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return ProductDetailDto.CategoryView.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .categoryId(category.getCategoryId())
+                .parentCategory(toCategoryView(category.getParentCategory()))
+                .level(category.getLevel())
+                .build();
+    }
+
+    private static ProductDetailDto.SellerView toSellerView(Seller seller) {
+        if (seller == null) {
+            return null;
+        }
+        BusinessDetails details = seller.getBusinessDetails();
+        return ProductDetailDto.SellerView.builder()
+                .id(seller.getId())
+                .sellerName(seller.getSellerName())
+                .businessDetails(details == null ? null : ProductDetailDto.BusinessDetailsView.builder()
+                        .businessName(details.getBusinessName())
+                        .businessEmail(details.getBusinessEmail())
+                        .businessMobile(details.getBusinessMobile())
+                        .businessAddress(details.getBusinessAddress())
+                        .logo(details.getLogo())
+                        .banner(details.getBanner())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Builds a new detached Product from a cached view, for callers that only
+     * reference the product from another row (cart items, wishlists, reviews).
+     * Category and seller are detached stubs carrying the cached fields; the
+     * result must never be saved or merged.
+     */
+    public static Product toProduct(ProductDetailDto detail) {
+        Product product = new Product();
+        product.setId(detail.getId());
+        product.setTitle(detail.getTitle());
+        product.setDescription(detail.getDescription());
+        product.setMrpPrice(detail.getMrpPrice());
+        product.setSellingPrice(detail.getSellingPrice());
+        product.setDiscountPercent(detail.getDiscountPercent());
+        product.setQuantity(detail.getQuantity());
+        product.setColor(detail.getColor());
+        if (detail.getImages() != null) {
+            product.setImages(new ArrayList<>(detail.getImages()));
+        }
+        product.setNumRatings(detail.getNumRatings());
+        ProductDetailDto.RatingSummaryView rating = detail.getRatingSummary();
+        if (rating != null) {
+            product.setRatingSummary(new RatingSummary(rating.getRatingCount(), rating.getRatingSum(),
+                    rating.getAverageRating(), rating.getOneStarCount(), rating.getTwoStarCount(),
+                    rating.getThreeStarCount(), rating.getFourStarCount(), rating.getFiveStarCount()));
+        }
+        product.setCategory(toCategory(detail.getCategory()));
+        product.setSeller(toSeller(detail.getSeller()));
+        product.setCreatedAt(detail.getCreatedAt());
+        product.setSizes(detail.getSizes());
+        product.setIn_stock(detail.isInStock());
+        return product;
+    }
+
+    private static Category toCategory(ProductDetailDto.CategoryView view) {
+        if (view == null) {
+            return null;
+        }
+        Category category = new Category();
+        category.setId(view.getId());
+        category.setName(view.getName());
+        category.setCategoryId(view.getCategoryId());
+        category.setParentCategory(toCategory(view.getParentCategory()));
+        category.setLevel(view.getLevel());
+        return category;
+    }
+
+    private static Seller toSeller(ProductDetailDto.SellerView view) {
+        if (view == null) {
+            return null;
+        }
+        Seller seller = new Seller();
+        seller.setId(view.getId());
+        seller.setSellerName(view.getSellerName());
+        ProductDetailDto.BusinessDetailsView details = view.getBusinessDetails();
+        if (details != null) {
+            seller.setBusinessDetails(new BusinessDetails(details.getBusinessName(), details.getBusinessEmail(),
+                    details.getBusinessMobile(), details.getBusinessAddress(), details.getLogo(), details.getBanner()));
+        }
+        return seller;
+    }
+
     public Product mapToEntity(ProductDto productDto) {
         return null;
     }
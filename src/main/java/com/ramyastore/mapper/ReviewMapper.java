@@ -0,0 +1,25 @@
+package com.ramyastore.mapper;
+
+import com.ramyastore.dto.ReviewDto;
+import com.ramyastore.model.Review;
+
+import java.util.ArrayList;
+
+public class ReviewMapper {
+
+    public static ReviewDto toReviewDto(Review review) {
+        ReviewDto reviewDto = new ReviewDto();
+        reviewDto.setId(review.getId());
+        reviewDto.setReviewText(review.getReviewText());
+        reviewDto.setRating(review.getRating());
+        if (review.getProductImages() != null) {
+            reviewDto.setProductImages(new ArrayList<>(review.getProductImages()));
+        }
+        if (review.getUser() != null) {
+            reviewDto.setUserId(review.getUser().getId());
+            reviewDto.setUserFullName(review.getUser().getFullName());
+        }
+        reviewDto.setCreatedAt(review.getCreatedAt());
+        return reviewDto;
+    }
+}
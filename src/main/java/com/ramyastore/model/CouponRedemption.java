@@ -0,0 +1,36 @@
+package com.ramyastore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's use of one coupon. The unique key makes a second redemption of
+ * the same coupon a no-op insert, even when two requests race.
+ */
+@Entity
+@Table(name = "coupon_redemption",
+        uniqueConstraints = @UniqueConstraint(name = "uk_coupon_redemption_coupon_user",
+                columnNames = {"coupon_id", "user_id"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CouponRedemption {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Long couponId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private LocalDateTime redeemedAt;
+}
@@ -0,0 +1,48 @@
+package com.ramyastore.model;
+
+import com.ramyastore.domain.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock taken off a product for one order. The product quantity is already
+ * decremented while the reservation is HELD or COMMITTED; RELEASED and
+ * EXPIRED reservations have given their stock back.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_reservation_order", columnList = "order_id"),
+        @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_reservation_seq")
+    @SequenceGenerator(name = "inventory_reservation_seq", sequenceName = "inventory_reservation_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,29 @@
+package com.ramyastore.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a one-off data migration has run, so startup jobs that fix up
+ * existing rows run once per database rather than on every boot.
+ */
+@Entity
+@Table(name = "migration_marker")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class MigrationMarker {
+
+    @Id
+    private String name;
+
+    private LocalDateTime appliedAt;
+}
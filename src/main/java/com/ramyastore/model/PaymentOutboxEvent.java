@@ -0,0 +1,53 @@
+package com.ramyastore.model;
+
+import com.ramyastore.domain.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Post-payment work for one captured payment. The unique payment id turns a
+ * replayed payment callback into a no-op.
+ */
+@Entity
+@Table(name = "payment_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payment_outbox_payment", columnNames = "payment_id"),
+        indexes = @Index(name = "idx_payment_outbox_status", columnList = "status, id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PaymentOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private String paymentId;
+
+    @Column(nullable = false)
+    private Long paymentOrderId;
+
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    // identifies the worker claim that may finish the event
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime processedAt;
+}
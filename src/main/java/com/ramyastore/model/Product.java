@@ -7,6 +7,7 @@ import java.util.List;
 import jakarta.persistence.*;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Getter
@@ -14,7 +15,12 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode
-
+// only changed columns are written, so an entity save never overwrites the
+// rating aggregates or stock that are adjusted by atomic UPDATE statements
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_product_average_rating", columnList = "average_rating")
+})
 public class Product {
 
 	@Id
@@ -40,6 +46,9 @@ public class Product {
 
     private int numRatings;
 
+    @Embedded
+    private RatingSummary ratingSummary = new RatingSummary();
+
     @ManyToOne
     private Category category;
 
@@ -0,0 +1,65 @@
+package com.ramyastore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Running rating aggregates for a product, kept up to date by
+ * ReviewServiceImpl with atomic increments so reads never scan reviews.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class RatingSummary {
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int ratingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private double ratingSum;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private double averageRating;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int oneStarCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int twoStarCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int threeStarCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int fourStarCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int fiveStarCount;
+
+    // 1-5, half ratings round up
+    public static int starOf(double rating) {
+        if (rating < 1.5) {
+            return 1;
+        }
+        if (rating < 2.5) {
+            return 2;
+        }
+        if (rating < 3.5) {
+            return 3;
+        }
+        return rating < 4.5 ? 4 : 5;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,6 +17,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_review_product_created", columnList = "product_id, created_at"),
+        @Index(name = "idx_review_product_rating", columnList = "product_id, rating, created_at")
+})
 public class Review {
 
     @Id
@@ -29,6 +34,7 @@ public class Review {
     private double rating;
 
     @ElementCollection
+    @BatchSize(size = 50)
     private List<String> productImages;
 
     @JsonIgnore
@@ -0,0 +1,41 @@
+package com.ramyastore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Paid revenue per seller per hour, incremented as orders are paid so
+ * revenue charts read a handful of rows instead of every order.
+ */
+@Entity
+@Table(name = "seller_revenue_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_seller_revenue_bucket",
+                columnNames = {"seller_id", "bucket_start"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SellerRevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    // start of the hour the orders were placed in
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long revenue;
+
+    @Column(nullable = false)
+    private int orderCount;
+}
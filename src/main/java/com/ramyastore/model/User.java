@@ -10,6 +10,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_user_email", columnList = "email"))
 @Data
 public class User {
     @Id
@@ -33,6 +34,8 @@ public class User {
     @OneToMany
     private Set<Address> addresses=new HashSet<>();
 
+    // legacy: redemptions live in coupon_redemption now and nothing writes this
+    // set; the mapping is kept only so user_coupons exists for the one-off backfill
     @JsonIgnore
     @ManyToMany
     @JoinTable(
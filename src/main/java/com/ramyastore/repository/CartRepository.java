@@ -1,10 +1,44 @@
 package com.ramyastore.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ramyastore.model.Cart;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
 
 	 Cart findByUserId(Long userId);
+
+	 @Modifying
+	 @Transactional
+	 @Query(value = "UPDATE cart c LEFT JOIN (SELECT i.cart_id, SUM(i.mrp_price) AS mrp, " +
+			 "SUM(i.selling_price) AS selling, SUM(i.quantity) AS quantity " +
+			 "FROM cart_item i GROUP BY i.cart_id) t ON t.cart_id = c.id " +
+			 "SET c.total_mrp_price = COALESCE(t.mrp, 0), " +
+			 "c.total_selling_price = COALESCE(t.selling, 0) - c.coupon_price, " +
+			 "c.total_item = COALESCE(t.quantity, 0), " +
+			 "c.discount = CASE WHEN COALESCE(t.mrp, 0) > 0 " +
+			 "THEN FLOOR((t.mrp - t.selling) * 100 / t.mrp) ELSE 0 END",
+			 nativeQuery = true)
+	 int reconcileTotals();
+
+	 // shifts the stored totals in place, so concurrent item changes on one cart all land;
+	 // MySQL assigns left to right, so discount is computed from the updated totals
+	 @Modifying
+	 @Transactional
+	 @Query(value = "UPDATE cart SET total_mrp_price = total_mrp_price + :mrpDelta, " +
+			 "total_selling_price = total_selling_price + :sellingDelta, " +
+			 "total_item = total_item + :quantityDelta, " +
+			 "discount = CASE WHEN total_mrp_price > 0 " +
+			 "THEN FLOOR((total_mrp_price - total_selling_price - coupon_price) * 100 / total_mrp_price) " +
+			 "ELSE 0 END " +
+			 "WHERE id = :cartId",
+			 nativeQuery = true)
+	 int addItemDelta(@Param("cartId") Long cartId,
+					  @Param("mrpDelta") int mrpDelta,
+					  @Param("sellingDelta") int sellingDelta,
+					  @Param("quantityDelta") int quantityDelta);
 }
@@ -0,0 +1,36 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.model.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+
+    // 0 when the user already redeemed the coupon
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO coupon_redemption (coupon_id, user_id, redeemed_at) " +
+            "VALUES (:couponId, :userId, :redeemedAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("couponId") Long couponId,
+                       @Param("userId") Long userId,
+                       @Param("redeemedAt") LocalDateTime redeemedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CouponRedemption r WHERE r.couponId = :couponId AND r.userId = :userId")
+    int deleteRedemption(@Param("couponId") Long couponId, @Param("userId") Long userId);
+
+    // carries over redemptions recorded in the old user_coupons join table
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO coupon_redemption (coupon_id, user_id, redeemed_at) " +
+            "SELECT uc.coupon_id, uc.user_id, NOW() FROM user_coupons uc",
+            nativeQuery = true)
+    int backfillFromUserCoupons();
+}
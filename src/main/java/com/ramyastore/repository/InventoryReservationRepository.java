@@ -0,0 +1,28 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.domain.ReservationStatus;
+import com.ramyastore.model.InventoryReservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    List<InventoryReservation> findByOrderId(Long orderId);
+
+    List<InventoryReservation> findByStatusAndExpiresAtBefore(ReservationStatus status,
+                                                              LocalDateTime expiresAt,
+                                                              Limit limit);
+
+    // only one of commit, release and expiry can win a given reservation
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to);
+}
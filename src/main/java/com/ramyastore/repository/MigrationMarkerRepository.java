@@ -0,0 +1,21 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.model.MigrationMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface MigrationMarkerRepository extends JpaRepository<MigrationMarker, String> {
+
+    // 0 when the migration already ran; run it in the same transaction so a
+    // failed migration rolls its marker back and a concurrent instance waits on the key
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO migration_marker (name, applied_at) VALUES (:name, :appliedAt)",
+            nativeQuery = true)
+    int markApplied(@Param("name") String name, @Param("appliedAt") LocalDateTime appliedAt);
+}
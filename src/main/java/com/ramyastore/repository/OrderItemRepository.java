@@ -1,9 +1,25 @@
 package com.ramyastore.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ramyastore.model.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
+    @Query("SELECT i.order.id, p.title, i.quantity FROM OrderItem i JOIN i.product p " +
+            "WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<Object[]> findTitlesForOrders(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE order_item_seq SET next_val = GREATEST(next_val, " +
+            "(SELECT COALESCE(MAX(i.id), 0) + :allocationSize + 1 FROM order_item i))",
+            nativeQuery = true)
+    int alignIdSequence(@Param("allocationSize") int allocationSize);
 }
@@ -3,8 +3,17 @@ package com.ramyastore.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ramyastore.domain.OrderStatus;
+import jakarta.persistence.LockModeType;
+import com.ramyastore.dto.OrderSummaryDto;
 import com.ramyastore.model.Order;
 
 public interface OrderRepository extends JpaRepository<Order,Long> {
@@ -13,4 +22,68 @@ public interface OrderRepository extends JpaRepository<Order,Long> {
     List<Order> findBySellerIdOrderByOrderDateDesc(Long sellerId);
     List<Order> findBySellerIdAndOrderDateBetween(Long sellerId,LocalDateTime startDate, LocalDateTime endDate);
 
+    // keyset pages over (seller_id, order_date) and (user_id, order_date); the first
+    // page passes a cursor that sorts after every row and a null status for "any"
+
+    @Query("SELECT new com.ramyastore.dto.OrderSummaryDto(o.id, o.orderId, o.sellerId, o.orderStatus, " +
+            "o.paymentStatus, o.totalSellingPrice, o.totalItem, o.orderDate, o.deliverDate) " +
+            "FROM Order o WHERE o.sellerId = :sellerId " +
+            "AND (:status IS NULL OR o.orderStatus = :status) " +
+            "AND o.orderDate >= :from AND o.orderDate < :to " +
+            "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryDto> findSellerOrderSummaries(@Param("sellerId") Long sellerId,
+                                                   @Param("status") OrderStatus status,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("orderDate") LocalDateTime orderDate,
+                                                   @Param("id") Long id,
+                                                   Limit limit);
+
+    @Query("SELECT new com.ramyastore.dto.OrderSummaryDto(o.id, o.orderId, o.sellerId, o.orderStatus, " +
+            "o.paymentStatus, o.totalSellingPrice, o.totalItem, o.orderDate, o.deliverDate) " +
+            "FROM Order o WHERE o.user.id = :userId " +
+            "AND (:status IS NULL OR o.orderStatus = :status) " +
+            "AND o.orderDate >= :from AND o.orderDate < :to " +
+            "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryDto> findUserOrderSummaries(@Param("userId") Long userId,
+                                                 @Param("status") OrderStatus status,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("orderDate") LocalDateTime orderDate,
+                                                 @Param("id") Long id,
+                                                 Limit limit);
+
+    @Query("SELECT o.orderStatus, COUNT(o) FROM Order o WHERE o.user.id = :userId GROUP BY o.orderStatus")
+    List<Object[]> countStatusesForUser(@Param("userId") Long userId);
+
+    // bulk status transitions: lock the seller's rows, then move each status group in one UPDATE
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id, o.orderStatus, o.paymentStatus FROM Order o " +
+            "WHERE o.sellerId = :sellerId AND o.id IN :ids ORDER BY o.id")
+    List<Object[]> lockStatusesForSeller(@Param("sellerId") Long sellerId, @Param("ids") List<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :to " +
+            "WHERE o.sellerId = :sellerId AND o.id IN :ids AND o.orderStatus = :from")
+    int transitionStatus(@Param("sellerId") Long sellerId,
+                         @Param("ids") List<Long> ids,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to);
+
+    @Query("SELECT o.id FROM Order o WHERE o.sellerId = :sellerId AND o.id IN :ids AND o.orderStatus = :status")
+    List<Long> findIdsInStatus(@Param("sellerId") Long sellerId,
+                               @Param("ids") List<Long> ids,
+                               @Param("status") OrderStatus status);
+
+    // moves the pooled id sequence past ids handed out by the old auto-increment column
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE order_seq SET next_val = GREATEST(next_val, " +
+            "(SELECT COALESCE(MAX(o.id), 0) + :allocationSize + 1 FROM orders o))",
+            nativeQuery = true)
+    int alignIdSequence(@Param("allocationSize") int allocationSize);
+
 }
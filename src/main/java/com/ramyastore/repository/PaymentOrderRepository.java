@@ -1,9 +1,22 @@
 package com.ramyastore.repository;
 
+import com.ramyastore.domain.PaymentOrderStatus;
 import com.ramyastore.model.PaymentOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PaymentOrderRepository extends JpaRepository<PaymentOrder,Long> {
 
     PaymentOrder findByPaymentLinkId(String paymentId);
+
+    // 0 when another callback already moved the payment order out of the expected status
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentOrder p SET p.status = :status WHERE p.id = :id AND p.status = :expected")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("expected") PaymentOrderStatus expected,
+                         @Param("status") PaymentOrderStatus status);
 }
@@ -0,0 +1,58 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.domain.OutboxStatus;
+import com.ramyastore.model.PaymentOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutboxEvent, Long> {
+
+    // 0 when the payment was already enqueued
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO payment_outbox (payment_id, payment_order_id, status, attempts, created_at) " +
+            "VALUES (:paymentId, :paymentOrderId, :status, 0, :createdAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("paymentId") String paymentId,
+                       @Param("paymentOrderId") Long paymentOrderId,
+                       @Param("status") int status,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Query("SELECT e.id FROM PaymentOutboxEvent e WHERE e.status = :status ORDER BY e.id")
+    List<Long> findIdsByStatus(@Param("status") OutboxStatus status, Limit limit);
+
+    // a worker owns an event only if it moved it out of PENDING itself, and only
+    // for as long as the event still carries its claim token
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = com.ramyastore.domain.OutboxStatus.PROCESSING, " +
+            "e.claimToken = :token, e.claimedAt = :now, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id AND e.status = com.ramyastore.domain.OutboxStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // 0 when the claim was requeued and possibly taken by another worker
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = :status, e.processedAt = :now, e.lastError = :error " +
+            "WHERE e.id = :id AND e.claimToken = :token " +
+            "AND e.status = com.ramyastore.domain.OutboxStatus.PROCESSING")
+    int finish(@Param("id") Long id,
+               @Param("token") String token,
+               @Param("status") OutboxStatus status,
+               @Param("now") LocalDateTime now,
+               @Param("error") String error);
+
+    // hands events back when the worker that claimed them died mid-way
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = com.ramyastore.domain.OutboxStatus.PENDING " +
+            "WHERE e.status = com.ramyastore.domain.OutboxStatus.PROCESSING AND e.claimedAt < :cutoff")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,14 +1,16 @@
 package com.ramyastore.repository;
 
 import com.ramyastore.model.Product;
+import com.ramyastore.model.RatingSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface ProductRepository extends JpaRepository<Product,Long> , JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product,Long> , JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
 
     List<Product> findBySellerId(Long shopId);
 
@@ -22,6 +24,43 @@ public interface ProductRepository extends JpaRepository<Product,Long> , JpaSpec
     )
     List<Product> searchProduct(@Param("query") String query);
 
+    @Query("SELECT p.ratingSummary FROM Product p WHERE p.id = :productId")
+    RatingSummary findRatingSummaryById(@Param("productId") Long productId);
+
+    // averageRating is assigned first so it reads the old sum and count even on
+    // MySQL, which applies SET assignments left to right
+    @Modifying
+    @Query("UPDATE Product p SET " +
+            "p.ratingSummary.averageRating = COALESCE((p.ratingSummary.ratingSum + :sumDelta) " +
+            "/ NULLIF(p.ratingSummary.ratingCount + :countDelta, 0), 0), " +
+            "p.ratingSummary.ratingCount = p.ratingSummary.ratingCount + :countDelta, " +
+            "p.ratingSummary.ratingSum = p.ratingSummary.ratingSum + :sumDelta, " +
+            "p.ratingSummary.oneStarCount = p.ratingSummary.oneStarCount + :oneStar, " +
+            "p.ratingSummary.twoStarCount = p.ratingSummary.twoStarCount + :twoStar, " +
+            "p.ratingSummary.threeStarCount = p.ratingSummary.threeStarCount + :threeStar, " +
+            "p.ratingSummary.fourStarCount = p.ratingSummary.fourStarCount + :fourStar, " +
+            "p.ratingSummary.fiveStarCount = p.ratingSummary.fiveStarCount + :fiveStar, " +
+            "p.numRatings = p.numRatings + :countDelta " +
+            "WHERE p.id = :productId")
+    int adjustRatingSummary(@Param("productId") Long productId,
+                            @Param("countDelta") int countDelta,
+                            @Param("sumDelta") double sumDelta,
+                            @Param("oneStar") int oneStar,
+                            @Param("twoStar") int twoStar,
+                            @Param("threeStar") int threeStar,
+                            @Param("fourStar") int fourStar,
+                            @Param("fiveStar") int fiveStar);
+
+    // the WHERE guard makes check-and-decrement a single atomic statement
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity " +
+            "WHERE p.id = :productId AND p.quantity >= :quantity")
+    int reserveStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :productId")
+    int releaseStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
 
 
 }
@@ -0,0 +1,28 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.dto.ProductCardDto;
+import com.ramyastore.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // rows of (lower-cased color, price bucket, discount bucket, price filter match,
+    // discount filter match, count) for products matching spec; a bucket is the number
+    // of bounds/thresholds the value has reached and each match column is 1 or 0
+    List<Object[]> countFacetBuckets(Specification<Product> spec,
+                                     int[] priceBounds,
+                                     int[] discountThresholds,
+                                     Integer minPrice,
+                                     Integer maxPrice,
+                                     Integer minDiscount);
+
+    Page<ProductCardDto> findCards(Specification<Product> spec, Pageable pageable);
+
+    // in no particular order, missing ids are skipped
+    List<ProductCardDto> findCardsByIds(Collection<Long> ids);
+}
@@ -0,0 +1,176 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.dto.ProductCardDto;
+import com.ramyastore.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.*;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> countFacetBuckets(Specification<Product> spec,
+                                            int[] priceBounds,
+                                            int[] discountThresholds,
+                                            Integer minPrice,
+                                            Integer maxPrice,
+                                            Integer minDiscount) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<Product> root = query.from(Product.class);
+        Expression<Integer> price = root.get("sellingPrice");
+        Expression<Integer> discount = root.get("discountPercent");
+
+        List<Predicate> priceFilter = new ArrayList<>();
+        if (minPrice != null) {
+            priceFilter.add(criteriaBuilder.greaterThanOrEqualTo(price, criteriaBuilder.literal(minPrice)));
+        }
+        if (maxPrice != null) {
+            priceFilter.add(criteriaBuilder.lessThanOrEqualTo(price, criteriaBuilder.literal(maxPrice)));
+        }
+        List<Predicate> discountFilter = new ArrayList<>();
+        if (minDiscount != null) {
+            discountFilter.add(criteriaBuilder.greaterThanOrEqualTo(discount, criteriaBuilder.literal(minDiscount)));
+        }
+
+        List<Expression<?>> groups = List.of(
+                root.<String>get("color"),
+                bucketIndex(criteriaBuilder, price, priceBounds),
+                bucketIndex(criteriaBuilder, discount, discountThresholds),
+                flag(criteriaBuilder, priceFilter),
+                flag(criteriaBuilder, discountFilter));
+
+        List<Selection<?>> selections = new ArrayList<>(groups);
+        selections.add(criteriaBuilder.count(root));
+        query.multiselect(selections);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(groups);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // number of bounds the value has reached, i.e. the index of its bucket
+    private static Expression<Integer> bucketIndex(CriteriaBuilder criteriaBuilder,
+                                                   Expression<Integer> value,
+                                                   int[] bounds) {
+        CriteriaBuilder.Case<Integer> bucket = criteriaBuilder.selectCase();
+        for (int i = 0; i < bounds.length; i++) {
+            bucket.when(criteriaBuilder.lessThan(value, criteriaBuilder.literal(bounds[i])),
+                    criteriaBuilder.literal(i));
+        }
+        return bucket.otherwise(criteriaBuilder.literal(bounds.length));
+    }
+
+    // 1 when every predicate holds (or there are none), otherwise 0
+    private static Expression<Integer> flag(CriteriaBuilder criteriaBuilder, List<Predicate> predicates) {
+        return criteriaBuilder.<Integer>selectCase()
+                .when(criteriaBuilder.and(predicates.toArray(new Predicate[0])), criteriaBuilder.literal(1))
+                .otherwise(criteriaBuilder.literal(0));
+    }
+
+    @Override
+    public Page<ProductCardDto> findCards(Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductCardDto> query = criteriaBuilder.createQuery(ProductCardDto.class);
+        Root<Product> root = query.from(Product.class);
+
+        selectCard(criteriaBuilder, query, root);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        List<ProductCardDto> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        attachFirstImages(content);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ProductCardDto> findCardsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductCardDto> query = criteriaBuilder.createQuery(ProductCardDto.class);
+        Root<Product> root = query.from(Product.class);
+
+        selectCard(criteriaBuilder, query, root);
+        query.where(root.get("id").in(ids));
+
+        List<ProductCardDto> content = entityManager.createQuery(query).getResultList();
+        attachFirstImages(content);
+        return content;
+    }
+
+    private static void selectCard(CriteriaBuilder criteriaBuilder,
+                                   CriteriaQuery<ProductCardDto> query,
+                                   Root<Product> root) {
+        query.select(criteriaBuilder.construct(ProductCardDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("sellingPrice"),
+                root.get("mrpPrice"),
+                root.get("discountPercent"),
+                root.get("ratingSummary").get("ratingCount"),
+                root.get("ratingSummary").get("averageRating")));
+    }
+
+    // images is an unordered element collection; the first row per product is its first stored image
+    private void attachFirstImages(List<ProductCardDto> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductCardDto> cardsById = new HashMap<>();
+        cards.forEach(card -> cardsById.put(card.getId(), card));
+
+        List<Object[]> rows = entityManager.createQuery(
+                        "select p.id, i from Product p join p.images i where p.id in :ids", Object[].class)
+                .setParameter("ids", cardsById.keySet())
+                .getResultList();
+        for (Object[] row : rows) {
+            ProductCardDto card = cardsById.get((Long) row[0]);
+            if (card != null && card.getImage() == null) {
+                card.setImage((String) row[1]);
+            }
+        }
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(criteriaBuilder.count(root));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
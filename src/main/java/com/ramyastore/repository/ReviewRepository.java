@@ -1,11 +1,55 @@
 package com.ramyastore.repository;
 
 import com.ramyastore.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review,Long> {
     List<Review> findReviewsByUserId(Long userId);
     List<Review> findReviewsByProductId(Long productId);
+
+    // keyset pages; the first page passes sentinel values that sort before every row
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user WHERE r.product.id = :productId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestAfter(@Param("productId") Long productId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Limit limit);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user WHERE r.product.id = :productId " +
+            "AND (r.rating < :rating OR (r.rating = :rating AND (r.createdAt < :createdAt " +
+            "OR (r.createdAt = :createdAt AND r.id < :id)))) " +
+            "ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<Review> findHighestRatedAfter(@Param("productId") Long productId,
+                                       @Param("rating") double rating,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user WHERE r.product.id = :productId " +
+            "AND r.productImages IS NOT EMPTY " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findWithImagesAfter(@Param("productId") Long productId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    // rows of (productId, count, sum, one..five star counts) for products without a summary yet
+    @Query("SELECT r.product.id, COUNT(r), SUM(r.rating), " +
+            "SUM(CASE WHEN r.rating < 1.5 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating >= 1.5 AND r.rating < 2.5 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating >= 2.5 AND r.rating < 3.5 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating >= 3.5 AND r.rating < 4.5 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating >= 4.5 THEN 1 ELSE 0 END) " +
+            "FROM Review r WHERE r.product.ratingSummary.ratingCount = 0 " +
+            "GROUP BY r.product.id")
+    List<Object[]> summarizeRatingsForUnsummarizedProducts();
 }
@@ -2,7 +2,27 @@ package com.ramyastore.repository;
 
 import com.ramyastore.model.SellerReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface SellerReportRepository extends JpaRepository<SellerReport,Long> {
     SellerReport findBySellerId(Long sellerId);
+
+    // increments in SQL so concurrent writers for one seller never lose an update
+    @Modifying
+    @Transactional
+    @Query("UPDATE SellerReport r SET r.totalOrders = r.totalOrders + :orders, " +
+            "r.totalEarnings = r.totalEarnings + :earnings, " +
+            "r.totalSales = r.totalSales + :sales, " +
+            "r.canceledOrders = r.canceledOrders + :canceledOrders, " +
+            "r.totalRefunds = r.totalRefunds + :refunds " +
+            "WHERE r.seller.id = :sellerId")
+    int addCounters(@Param("sellerId") Long sellerId,
+                    @Param("orders") int orders,
+                    @Param("earnings") long earnings,
+                    @Param("sales") long sales,
+                    @Param("canceledOrders") int canceledOrders,
+                    @Param("refunds") long refunds);
 }
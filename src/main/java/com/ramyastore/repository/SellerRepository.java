@@ -1,8 +1,11 @@
 package com.ramyastore.repository;
 
 import com.ramyastore.domain.AccountStatus;
+import com.ramyastore.dto.SellerIdentity;
 import com.ramyastore.model.Seller;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -10,4 +13,7 @@ public interface SellerRepository extends JpaRepository<Seller,Long> {
 
     Seller findByEmail(String email);
     List<Seller> findByAccountStatus(AccountStatus status);
+
+    @Query("SELECT new com.ramyastore.dto.SellerIdentity(s.id, s.email, s.accountStatus) FROM Seller s WHERE s.email = :email")
+    SellerIdentity findIdentityByEmail(@Param("email") String email);
 }
@@ -0,0 +1,67 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.model.SellerRevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SellerRevenueRollupRepository extends JpaRepository<SellerRevenueRollup, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO seller_revenue_hourly (seller_id, bucket_start, revenue, order_count) " +
+            "VALUES (:sellerId, :bucketStart, :revenue, :orderCount) " +
+            "ON DUPLICATE KEY UPDATE revenue = revenue + :revenue, order_count = order_count + :orderCount",
+            nativeQuery = true)
+    int addRevenue(@Param("sellerId") Long sellerId,
+                   @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("revenue") long revenue,
+                   @Param("orderCount") int orderCount);
+
+    // one-off rebuild from orders that are paid and not cancelled
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO seller_revenue_hourly (seller_id, bucket_start, revenue, order_count) " +
+            "SELECT o.seller_id, DATE_FORMAT(o.order_date, '%Y-%m-%d %H:00:00'), " +
+            "COALESCE(SUM(o.total_selling_price), 0), COUNT(*) " +
+            "FROM orders o WHERE o.seller_id IS NOT NULL AND o.order_date IS NOT NULL " +
+            "AND o.payment_status = :paidStatus AND (o.order_status IS NULL OR o.order_status <> :cancelledStatus) " +
+            "GROUP BY o.seller_id, DATE_FORMAT(o.order_date, '%Y-%m-%d %H:00:00')",
+            nativeQuery = true)
+    int backfillFromOrders(@Param("paidStatus") int paidStatus,
+                           @Param("cancelledStatus") int cancelledStatus);
+
+    @Query("SELECT HOUR(r.bucketStart), SUM(r.revenue) FROM SellerRevenueRollup r " +
+            "WHERE r.sellerId = :sellerId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "GROUP BY HOUR(r.bucketStart)")
+    List<Object[]> sumRevenueByHour(@Param("sellerId") Long sellerId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    @Query("SELECT YEAR(r.bucketStart), MONTH(r.bucketStart), DAY(r.bucketStart), SUM(r.revenue) " +
+            "FROM SellerRevenueRollup r " +
+            "WHERE r.sellerId = :sellerId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "GROUP BY YEAR(r.bucketStart), MONTH(r.bucketStart), DAY(r.bucketStart)")
+    List<Object[]> sumRevenueByDay(@Param("sellerId") Long sellerId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Query("SELECT YEAR(r.bucketStart), MONTH(r.bucketStart), SUM(r.revenue) FROM SellerRevenueRollup r " +
+            "WHERE r.sellerId = :sellerId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "GROUP BY YEAR(r.bucketStart), MONTH(r.bucketStart)")
+    List<Object[]> sumRevenueByMonth(@Param("sellerId") Long sellerId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    @Query("SELECT YEAR(r.bucketStart), SUM(r.revenue) FROM SellerRevenueRollup r " +
+            "WHERE r.sellerId = :sellerId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "GROUP BY YEAR(r.bucketStart)")
+    List<Object[]> sumRevenueByYear(@Param("sellerId") Long sellerId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+}
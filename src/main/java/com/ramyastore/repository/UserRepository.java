@@ -1,12 +1,17 @@
 package com.ramyastore.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-
 	
 	public User findByEmail(String username);
 
+	@Query("SELECT new com.ramyastore.dto.UserIdentity(u.id, u.email, u.role) FROM User u WHERE u.email = :email")
+	UserIdentity findIdentityByEmail(@Param("email") String email);
+
 }
@@ -0,0 +1,18 @@
+package com.ramyastore.request;
+
+import com.ramyastore.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+
+	private List<Long> orderIds;
+	private OrderStatus status;
+
+}
@@ -0,0 +1,17 @@
+package com.ramyastore.response;
+
+import com.ramyastore.dto.ReviewDto;
+import com.ramyastore.model.RatingSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPage {
+
+    private RatingSummary ratingSummary;
+
+    private CursorPage<ReviewDto> reviews;
+}
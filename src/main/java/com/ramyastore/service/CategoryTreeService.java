@@ -0,0 +1,21 @@
+package com.ramyastore.service;
+
+import com.ramyastore.model.Category;
+
+import java.util.List;
+import java.util.Set;
+
+public interface CategoryTreeService {
+
+    Category findByCategoryId(String categoryId);
+
+    // ids of the category and everything below it, empty if unknown
+    Set<Long> findDescendantIds(String categoryId);
+
+    // root first, ending with the category itself
+    List<Category> findAncestorPath(String categoryId);
+
+    void register(Category category);
+
+    void reload();
+}
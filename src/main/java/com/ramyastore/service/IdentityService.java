@@ -0,0 +1,18 @@
+package com.ramyastore.service;
+
+import com.ramyastore.dto.SellerIdentity;
+import com.ramyastore.dto.UserIdentity;
+import com.ramyastore.exception.SellerException;
+import com.ramyastore.exception.UserException;
+
+/** Short-lived email -> id lookups for the authenticated caller. */
+public interface IdentityService {
+
+    UserIdentity findUser(String email) throws UserException;
+
+    SellerIdentity findSeller(String email) throws SellerException;
+
+    void evictUser(String email);
+
+    void evictSeller(String email);
+}
@@ -0,0 +1,21 @@
+package com.ramyastore.service;
+
+import com.ramyastore.exception.OrderException;
+import com.ramyastore.model.Order;
+
+import java.util.Collection;
+
+public interface InventoryService {
+
+    /** Takes stock for every item of the orders, or none of it if any product runs short. */
+    void reserve(Collection<Order> orders) throws OrderException;
+
+    /** Makes the order's held stock permanent once it is paid. */
+    void commit(Order order);
+
+    /** Gives the order's stock back after a failed payment or a cancellation. */
+    void release(Order order);
+
+    /** Returns stock held by unpaid orders past their reservation window; returns how many expired. */
+    int expireReservations();
+}
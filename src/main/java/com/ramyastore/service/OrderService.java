@@ -1,16 +1,25 @@
 package com.ramyastore.service;
 
 import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.dto.CheckoutResult;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.dto.OrderTransitionResult;
 import com.ramyastore.exception.OrderException;
 import com.ramyastore.model.*;
 import com.ramyastore.model.Order;
+import com.ramyastore.response.CursorPage;
+
+import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.Set;
 
 public interface OrderService {
 	
-	public Set<Order> createOrder(User user, Address shippingAddress, Cart cart);
+	public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) throws OrderException;
+
+	/** Persists one order per seller in a single transaction and reports how long each phase took. */
+	CheckoutResult checkout(User user, Address shippingAddress, Cart cart) throws OrderException;
 	
 	public Order findOrderById(Long orderId) throws OrderException;
 	
@@ -18,10 +27,24 @@ public interface OrderService {
 	
 	public List<Order>getShopsOrders(Long sellerId);
 
+	/** Newest-first page of a customer's orders; status and date range are optional filters. */
+	CursorPage<OrderSummaryDto> getUserOrderSummaries(Long userId, OrderStatus status,
+													  LocalDateTime from, LocalDateTime to,
+													  String cursor, Integer pageSize) throws OrderException;
+
+	/** Newest-first page of a seller's orders; status and date range are optional filters. */
+	CursorPage<OrderSummaryDto> getSellerOrderSummaries(Long sellerId, OrderStatus status,
+														LocalDateTime from, LocalDateTime to,
+														String cursor, Integer pageSize) throws OrderException;
+
 	public Order updateOrderStatus(Long orderId,
 								   OrderStatus orderStatus)
 			throws OrderException;
 	
+	/** Moves a batch of the seller's orders to {@code orderStatus}, reporting the outcome for each id. */
+	List<OrderTransitionResult> updateOrderStatuses(Long sellerId, List<Long> orderIds,
+													OrderStatus orderStatus) throws OrderException;
+	
 	public void deleteOrder(Long orderId) throws OrderException;
 
 	Order cancelOrder(Long orderId,User user) throws OrderException;
@@ -0,0 +1,12 @@
+package com.ramyastore.service;
+
+import com.ramyastore.model.PaymentOrder;
+
+public interface PaymentOutboxService {
+
+    /** Records post-payment work for a captured payment; false when the payment was already enqueued. */
+    boolean enqueue(String paymentId, PaymentOrder paymentOrder);
+
+    /** Claims a batch of pending events and runs them on the worker pool; returns how many were claimed. */
+    int processPending();
+}
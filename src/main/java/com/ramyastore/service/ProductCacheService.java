@@ -0,0 +1,19 @@
+package com.ramyastore.service;
+
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.exception.ProductException;
+
+public interface ProductCacheService {
+
+    @FunctionalInterface
+    interface Loader {
+        ProductDetailDto load(Long productId) throws ProductException;
+    }
+
+    // read-through; a value loaded while the product was being evicted is
+    // returned to the caller but not cached
+    ProductDetailDto get(Long productId, Loader loader) throws ProductException;
+
+    // drops the product now and again once the surrounding transaction commits
+    void evict(Long productId);
+}
@@ -0,0 +1,17 @@
+package com.ramyastore.service;
+
+import com.ramyastore.dto.ProductImportReport;
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.model.Seller;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ProductImportReport importProducts(InputStream input,
+                                       String format,
+                                       Seller seller,
+                                       String importId) throws ProductException;
+
+    ProductImportReport getImport(String importId, Seller seller) throws ProductException;
+}
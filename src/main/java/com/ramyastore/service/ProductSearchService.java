@@ -0,0 +1,18 @@
+package com.ramyastore.service;
+
+import com.ramyastore.model.Product;
+import org.springframework.data.domain.Page;
+
+public interface ProductSearchService {
+
+    void indexProduct(Product product);
+
+    void removeProduct(Long productId);
+
+    void rebuildIndex();
+
+    Page<Product> search(String query, int pageNumber, int pageSize);
+
+    // ranked ids only, for callers that load their own projection
+    Page<Long> searchIds(String query, int pageNumber, int pageSize);
+}
@@ -1,9 +1,13 @@
 package com.ramyastore.service;
 
+import com.ramyastore.dto.ProductCardDto;
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.dto.ProductFacets;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.model.Product;
 import com.ramyastore.model.Seller;
 import com.ramyastore.request.CreateProductRequest;
+import com.ramyastore.response.CursorPage;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -21,8 +25,12 @@ public interface ProductService {
 
     public Product findProductById(Long id) throws ProductException;
 
+    // cached, read-only view for the product page
+    public ProductDetailDto getProductDetail(Long id) throws ProductException;
 
-    public List<Product> searchProduct(String query);
+
+    // ranked matches; one page of 10 when pageNumber is given, otherwise all of them
+    public List<Product> searchProduct(String query, Integer pageNumber);
 
    public Page<Product> getAllProduct(String category,
                                       String brand,
@@ -35,6 +43,41 @@ public interface ProductService {
                                       String stock,
                                       Integer pageNumber);
 
+   public Page<ProductCardDto> getAllProductCards(String category,
+                                                  String brand,
+                                                  String colors,
+                                                  String sizes,
+                                                  Integer minPrice,
+                                                  Integer maxPrice,
+                                                  Integer minDiscount,
+                                                  String sort,
+                                                  String stock,
+                                                  Integer pageNumber);
+
+    public Page<ProductCardDto> searchProductCards(String query, Integer pageNumber);
+
+   public CursorPage<Product> getAllProductByCursor(String category,
+                                                    String brand,
+                                                    String colors,
+                                                    String sizes,
+                                                    Integer minPrice,
+                                                    Integer maxPrice,
+                                                    Integer minDiscount,
+                                                    String sort,
+                                                    String stock,
+                                                    String cursor,
+                                                    Integer pageSize,
+                                                    boolean includeTotal) throws ProductException;
+
+   public ProductFacets getProductFacets(String category,
+                                         String brand,
+                                         String colors,
+                                         String sizes,
+                                         Integer minPrice,
+                                         Integer maxPrice,
+                                         Integer minDiscount,
+                                         String stock);
+
     public List<Product> recentlyAddedProduct();
     List<Product> getProductBySellerId(Long sellerId);
 }
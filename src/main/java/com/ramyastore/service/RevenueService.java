@@ -1,6 +1,7 @@
 package com.ramyastore.service;
 
 import com.ramyastore.dto.RevenueChart;
+import com.ramyastore.model.Order;
 
 import java.util.List;
 
@@ -10,4 +11,10 @@ public interface RevenueService {
     List<RevenueChart> getYearlyRevenueForChart(int years,Long sellerId);
     List<RevenueChart> getHourlyRevenueForChart(Long sellerId);
     List<RevenueChart> getRevenueChartByType(String type,Long sellerId);
+
+    /** Adds a freshly paid order to its seller's hourly revenue bucket. */
+    void recordOrderPaid(Order order);
+
+    /** Takes a paid order back out of the rollup once it is cancelled or deleted. */
+    void recordPaidOrderCancelled(Order order);
 }
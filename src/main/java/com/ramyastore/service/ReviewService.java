@@ -1,10 +1,12 @@
 package com.ramyastore.service;
 
+import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.ReviewNotFoundException;
 import com.ramyastore.model.Product;
 import com.ramyastore.model.Review;
 import com.ramyastore.model.User;
 import com.ramyastore.request.CreateReviewRequest;
+import com.ramyastore.response.ReviewPage;
 
 import javax.naming.AuthenticationException;
 import java.util.List;
@@ -17,6 +19,11 @@ public interface ReviewService {
 
     List<Review> getReviewsByProductId(Long productId);
 
+    ReviewPage getReviewPage(Long productId,
+                             String sort,
+                             String cursor,
+                             Integer pageSize) throws ProductException;
+
     Review updateReview(Long reviewId,
                         String reviewText,
                         double rating,
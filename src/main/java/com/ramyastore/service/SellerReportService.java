@@ -7,4 +7,9 @@ public interface SellerReportService {
     SellerReport getSellerReport(Seller seller);
     SellerReport updateSellerReport( SellerReport sellerReport);
 
+    /** Counts a cancelled order and its refund; buffered in memory until the next flush. */
+    void recordOrderCancelled(Long sellerId, long refund);
+
+    /** Writes buffered counters to the seller reports; returns how many reports were updated. */
+    int flush();
 }
@@ -0,0 +1,22 @@
+package com.ramyastore.service;
+
+import com.ramyastore.dto.ProductDetailDto;
+
+import java.time.Duration;
+
+/**
+ * Optional second cache tier shared between instances. When no
+ * implementation is registered only the local tier is used.
+ */
+public interface SharedProductCache {
+
+    ProductDetailDto get(Long productId);
+
+    // read before loading the product from the database and pass it to put
+    long generation(Long productId);
+
+    // stores the product unless it was evicted after generation was read
+    void put(ProductDetailDto product, Duration ttl, long generation);
+
+    void evict(Long productId);
+}
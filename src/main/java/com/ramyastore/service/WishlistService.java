@@ -10,9 +10,9 @@ public interface WishlistService {
 
     Wishlist createWishlist(User user);
 
-    Wishlist getWishlistByUserId(User user);
+    Wishlist getWishlistByUserId(Long userId);
 
-    Wishlist addProductToWishlist(User user, Product product) throws WishlistNotFoundException;
+    Wishlist addProductToWishlist(Long userId, Product product) throws WishlistNotFoundException;
 
 }
 
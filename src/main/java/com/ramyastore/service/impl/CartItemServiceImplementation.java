@@ -3,12 +3,15 @@ package com.ramyastore.service.impl;
 import com.ramyastore.exception.CartItemException;
 import com.ramyastore.exception.UserException;
 
+import com.ramyastore.model.Cart;
 import com.ramyastore.model.CartItem;
 import com.ramyastore.model.User;
 import com.ramyastore.repository.CartItemRepository;
+import com.ramyastore.repository.CartRepository;
 import com.ramyastore.service.CartItemService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -16,17 +19,21 @@ import java.util.Optional;
 public class CartItemServiceImplementation implements CartItemService {
 	
 	private CartItemRepository cartItemRepository;
+	private CartRepository cartRepository;
 
 
 	@Autowired
-	public CartItemServiceImplementation(CartItemRepository cartItemRepository) {
+	public CartItemServiceImplementation(CartItemRepository cartItemRepository,
+										 CartRepository cartRepository) {
 		this.cartItemRepository=cartItemRepository;
+		this.cartRepository=cartRepository;
 
 	}
 
 
 
 	@Override
+	@Transactional
 	public CartItem updateCartItem(Long userId,
 								   Long id, CartItem cartItem)
 			throws CartItemException, UserException {
@@ -36,11 +43,21 @@ public class CartItemServiceImplementation implements CartItemService {
 		
 		if(cartItemUser.getId().equals(userId)) {
 			
+			int previousMrpPrice=item.getMrpPrice();
+			int previousSellingPrice=item.getSellingPrice();
+			int previousQuantity=item.getQuantity();
+
 			item.setQuantity(cartItem.getQuantity());
 			item.setMrpPrice(item.getQuantity()*item.getProduct().getMrpPrice());
 			item.setSellingPrice(item.getQuantity()*item.getProduct().getSellingPrice());
+
+			CartItem savedItem=cartItemRepository.save(item);
+			cartRepository.addItemDelta(item.getCart().getId(),
+					item.getMrpPrice()-previousMrpPrice,
+					item.getSellingPrice()-previousSellingPrice,
+					item.getQuantity()-previousQuantity);
 			
-			return cartItemRepository.save(item);
+			return savedItem;
 				
 			
 		}
@@ -52,6 +69,7 @@ public class CartItemServiceImplementation implements CartItemService {
 	
 
 	@Override
+	@Transactional
 	public void removeCartItem(Long userId,Long cartItemId)
 			throws CartItemException,
 			UserException {
@@ -60,10 +78,14 @@ public class CartItemServiceImplementation implements CartItemService {
 		
 		CartItem cartItem=findCartItemById(cartItemId);
 		
-		User cartItemUser=cartItem.getCart().getUser();
+		Cart cart=cartItem.getCart();
+		User cartItemUser=cart.getUser();
 
 		if(cartItemUser.getId().equals(userId)) {
-			cartItemRepository.deleteById(cartItem.getId());
+			// orphanRemoval deletes the row when the cart is flushed
+			cart.getCartItems().remove(cartItem);
+			cartRepository.addItemDelta(cart.getId(),
+					-cartItem.getMrpPrice(), -cartItem.getSellingPrice(), -cartItem.getQuantity());
 		}
 		else {
 			throw new UserException("you can't remove anothor users item");
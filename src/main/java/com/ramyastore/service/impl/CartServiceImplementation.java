@@ -5,13 +5,18 @@ import com.ramyastore.exception.ProductException;
 import com.ramyastore.model.Cart;
 import com.ramyastore.model.CartItem;
 import com.ramyastore.model.Product;
-import com.ramyastore.model.User;
 import com.ramyastore.repository.CartItemRepository;
 import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.MigrationMarkerRepository;
 import com.ramyastore.service.CartService;
 import com.ramyastore.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -20,28 +25,24 @@ public class CartServiceImplementation implements CartService {
 	private final CartRepository cartRepository;
 	private final CartItemRepository cartItemRepository;
 	private final ProductService productService;
+	private final MigrationMarkerRepository migrationMarkerRepository;
+
+	private static final String RECONCILE_CART_TOTALS = "reconcile_cart_totals";
 	
 
-	public Cart findUserCart(User user) {
-		Cart cart =	cartRepository.findByUserId(user.getId());
+	@Override
+	@Transactional(readOnly = true)
+	public Cart findUserCart(Long userId) {
+		return cartRepository.findByUserId(userId);
+	}
 
-		int totalPrice=0;
-		int totalDiscountedPrice=0;
-		int totalItem=0;
-		for(CartItem cartsItem : cart.getCartItems()) {
-			totalPrice+=cartsItem.getMrpPrice();
-			totalDiscountedPrice+=cartsItem.getSellingPrice();
-			totalItem+=cartsItem.getQuantity();
+	// totals used to be recomputed on every read; fix up carts left stale by that scheme once
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public void reconcileTotals() {
+		if(migrationMarkerRepository.markApplied(RECONCILE_CART_TOTALS, LocalDateTime.now())==1){
+			cartRepository.reconcileTotals();
 		}
-
-		cart.setTotalMrpPrice(totalPrice);
-		cart.setTotalItem(cart.getCartItems().size());
-		cart.setTotalSellingPrice(totalDiscountedPrice-cart.getCouponPrice());
-		cart.setDiscount(calculateDiscountPercentage(totalPrice,totalDiscountedPrice));
-		cart.setTotalItem(totalItem);
-		
-		return cartRepository.save(cart);
-		
 	}
 
 	public static int calculateDiscountPercentage(double mrpPrice, double sellingPrice) {
@@ -54,12 +55,13 @@ public class CartServiceImplementation implements CartService {
 	}
 
 	@Override
-	public CartItem addCartItem(User user,
+	@Transactional
+	public CartItem addCartItem(Long userId,
 								Product product,
 								String size,
 								int quantity
 								) throws ProductException {
-		Cart cart=findUserCart(user);
+		Cart cart=cartRepository.findByUserId(userId);
 		
 		CartItem isPresent=cartItemRepository.findByCartAndProductAndSize(
 				cart, product, size);
@@ -69,7 +71,7 @@ public class CartServiceImplementation implements CartService {
 			cartItem.setProduct(product);
 
 			cartItem.setQuantity(quantity);
-			cartItem.setUserId(user.getId());
+			cartItem.setUserId(userId);
 			
 			int totalPrice=quantity*product.getSellingPrice();
 			cartItem.setSellingPrice(totalPrice);
@@ -78,8 +80,11 @@ public class CartServiceImplementation implements CartService {
 
 			cart.getCartItems().add(cartItem);
 			cartItem.setCart(cart);
-
-            return cartItemRepository.save(cartItem);
+			CartItem savedItem=cartItemRepository.save(cartItem);
+			// totals are shifted in the database only; writing them on the loaded cart
+			// would overwrite a concurrent change when the session flushes
+			cartRepository.addItemDelta(cart.getId(), cartItem.getMrpPrice(), cartItem.getSellingPrice(), quantity);
+            return savedItem;
 		}
 
 		return isPresent;
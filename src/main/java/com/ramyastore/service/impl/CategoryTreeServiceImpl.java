@@ -0,0 +1,118 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.model.Category;
+import com.ramyastore.repository.CategoryRepository;
+import com.ramyastore.service.CategoryTreeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Read-only snapshot of the category hierarchy. Lookups never touch the
+ * database; every change builds a new snapshot and swaps it in, so readers
+ * always see a consistent tree without locking.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryTreeServiceImpl implements CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Override
+    public Category findByCategoryId(String categoryId) {
+        return categoryId == null ? null : snapshot().byCategoryId.get(categoryId);
+    }
+
+    @Override
+    public Set<Long> findDescendantIds(String categoryId) {
+        return categoryId == null ? Set.of() : snapshot().descendantIds.getOrDefault(categoryId, Set.of());
+    }
+
+    @Override
+    public List<Category> findAncestorPath(String categoryId) {
+        return categoryId == null ? List.of() : snapshot().ancestorPaths.getOrDefault(categoryId, List.of());
+    }
+
+    @Override
+    public synchronized void register(Category category) {
+        if (category == null || category.getId() == null) {
+            return;
+        }
+        Map<String, Category> categories = new HashMap<>(snapshot().byCategoryId);
+        categories.put(category.getCategoryId(), category);
+        tree = new CategoryTree(categories.values());
+    }
+
+    @Override
+    public synchronized void reload() {
+        tree = new CategoryTree(categoryRepository.findAll());
+    }
+
+    private CategoryTree snapshot() {
+        CategoryTree current = tree;
+        if (current == null) {
+            synchronized (this) {
+                if (tree == null) {
+                    reload();
+                }
+                current = tree;
+            }
+        }
+        return current;
+    }
+
+    private static final class CategoryTree {
+
+        private static final int MAX_DEPTH = 10;
+
+        private final Map<String, Category> byCategoryId;
+        private final Map<String, Set<Long>> descendantIds;
+        private final Map<String, List<Category>> ancestorPaths;
+
+        private CategoryTree(Collection<Category> categories) {
+            Map<String, Category> byCategoryId = new HashMap<>();
+            Map<Long, String> categoryIdById = new HashMap<>();
+            for (Category category : categories) {
+                if (category.getId() != null && category.getCategoryId() != null) {
+                    byCategoryId.put(category.getCategoryId(), category);
+                    categoryIdById.put(category.getId(), category.getCategoryId());
+                }
+            }
+
+            Map<String, Set<Long>> descendantIds = new HashMap<>();
+            Map<String, List<Category>> ancestorPaths = new HashMap<>();
+            for (Category category : byCategoryId.values()) {
+                LinkedList<Category> path = new LinkedList<>();
+                Category current = category;
+                for (int depth = 0; current != null && depth < MAX_DEPTH; depth++) {
+                    // prefer the registered instance so paths reflect the latest snapshot
+                    String key = categoryIdById.get(current.getId());
+                    Category node = key != null ? byCategoryId.get(key) : current;
+                    path.addFirst(node);
+                    if (key != null) {
+                        descendantIds.computeIfAbsent(key, k -> new HashSet<>()).add(category.getId());
+                    }
+                    current = node.getParentCategory();
+                }
+                ancestorPaths.put(category.getCategoryId(), List.copyOf(path));
+            }
+
+            Map<String, Set<Long>> frozenDescendants = new HashMap<>();
+            descendantIds.forEach((key, ids) -> frozenDescendants.put(key, Set.copyOf(ids)));
+
+            this.byCategoryId = Map.copyOf(byCategoryId);
+            this.descendantIds = Map.copyOf(frozenDescendants);
+            this.ancestorPaths = Map.copyOf(ancestorPaths);
+        }
+    }
+}
@@ -5,77 +5,114 @@ import com.ramyastore.model.Cart;
 import com.ramyastore.model.Coupon;
 import com.ramyastore.model.User;
 import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.CouponRedemptionRepository;
 import com.ramyastore.repository.CouponRepository;
-import com.ramyastore.repository.UserRepository;
+import com.ramyastore.repository.MigrationMarkerRepository;
 import com.ramyastore.service.CouponService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Validates coupons against an in-memory code index that is rebuilt on admin
+ * writes, and records each redemption as a single guarded insert. Codes are
+ * matched case-insensitively.
+ */
 @Service
 @RequiredArgsConstructor
 public class CouponServiceImpl implements CouponService {
 
     private final CouponRepository couponRepository;
-    private final UserRepository userRepository;
+    private final CouponRedemptionRepository redemptionRepository;
     private final CartRepository cartRepository;
+    private final MigrationMarkerRepository migrationMarkerRepository;
+
+    private static final String USER_COUPONS_BACKFILL = "coupon_redemption_from_user_coupons";
+
+    private volatile Map<String, CouponRule> rules = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        if (migrationMarkerRepository.markApplied(USER_COUPONS_BACKFILL, LocalDateTime.now()) == 1) {
+            redemptionRepository.backfillFromUserCoupons();
+        }
+        refreshIndex();
+    }
+
+    // picks up coupons written by other instances
+    @Scheduled(fixedDelayString = "${coupon.index.refresh-interval-ms:60000}")
+    public void refreshIndex() {
+        Map<String, CouponRule> index = new HashMap<>();
+        for (Coupon coupon : couponRepository.findAll()) {
+            if (coupon.getCode() != null) {
+                index.put(normalize(coupon.getCode()), CouponRule.of(coupon));
+            }
+        }
+        rules = Map.copyOf(index);
+    }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Cart applyCoupon(String code,
                                  double orderValue,
                                  User user)
             throws Exception {
-        Coupon coupon = couponRepository.findByCode(code);
-        Cart cart = cartRepository.findByUserId(user.getId());
-
+        CouponRule rule = code == null ? null : rules.get(normalize(code));
 
-        if (coupon==null) {
+        if (rule == null) {
             throw new CouponNotValidException("coupon not found");
         }
-        if(user.getUsedCoupons().contains(coupon)){
-            throw new CouponNotValidException("coupon already used");
-        }
-        if(orderValue <= coupon.getMinimumOrderValue()){
-            throw new CouponNotValidException("valid for minimum order value "+coupon.getMinimumOrderValue() );
+        if (orderValue <= rule.minimumOrderValue()) {
+            throw new CouponNotValidException("valid for minimum order value " + rule.minimumOrderValue());
         }
-
-            if (
-                    coupon.isActive() &&
-                    LocalDate.now().isAfter(coupon.getValidityStartDate()) &&
-                    LocalDate.now().isBefore(coupon.getValidityEndDate())
-
-
-            ) {
-
-                user.getUsedCoupons().add(coupon);
-                userRepository.save(user);
-
-                double discountedPrice = Math.round((cart.getTotalSellingPrice() * coupon.getDiscountPercentage()) / 100);
-                cart.setTotalSellingPrice(cart.getTotalSellingPrice() - discountedPrice);
-                cart.setCouponCode(code);
-                cart.setCouponPrice((int) discountedPrice);
-                return cartRepository.save(cart);
-//                return cart;
-            }
+        if (!rule.isValidOn(LocalDate.now())) {
             throw new CouponNotValidException("coupon not valid...");
+        }
+        Cart cart = cartRepository.findByUserId(user.getId());
+        // a second discount would be computed from the already discounted total
+        // and replace couponPrice, so removeCoupon could not restore the price
+        if (cart.getCouponCode() != null) {
+            throw new CouponNotValidException("coupon " + cart.getCouponCode()
+                    + " is already applied, remove it first");
+        }
+        // the unique (coupon, user) key decides a race between two tabs
+        if (redemptionRepository.insertIfAbsent(rule.id(), user.getId(), LocalDateTime.now()) == 0) {
+            throw new CouponNotValidException("coupon already used");
+        }
 
+        double discountedPrice = Math.round((cart.getTotalSellingPrice() * rule.discountPercentage()) / 100);
+        cart.setTotalSellingPrice(cart.getTotalSellingPrice() - discountedPrice);
+        cart.setCouponCode(rule.code());
+        cart.setCouponPrice((int) discountedPrice);
+        return cartRepository.save(cart);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Cart removeCoupon(String code, User user) throws Exception {
-        Coupon coupon = couponRepository.findByCode(code);
+        CouponRule rule = code == null ? null : rules.get(normalize(code));
 
-        if(coupon==null){
+        if (rule == null) {
             throw new Exception("coupon not found...");
         }
-        user.getUsedCoupons().remove(coupon);
 
         Cart cart = cartRepository.findByUserId(user.getId());
-//        double discountedPrice = (cart.getTotalSellingPrice() * coupon.getDiscountPercentage()) / 100;
-//        cart.setTotalSellingPrice(cart.getTotalSellingPrice() + discountedPrice);
+        // a coupon already spent on an order is no longer on the cart and stays redeemed
+        if (rule.code().equalsIgnoreCase(cart.getCouponCode())) {
+            redemptionRepository.deleteRedemption(rule.id(), user.getId());
+        }
         cart.setTotalSellingPrice(cart.getTotalSellingPrice()+cart.getCouponPrice());
         cart.setCouponCode(null);
         cart.setCouponPrice(0);
@@ -86,13 +123,19 @@ public class CouponServiceImpl implements CouponService {
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public Coupon createCoupon(Coupon coupon) {
-        return couponRepository.save(coupon);
+        if (coupon.getCode() != null) {
+            coupon.setCode(normalize(coupon.getCode()));
+        }
+        Coupon savedCoupon = couponRepository.save(coupon);
+        refreshIndex();
+        return savedCoupon;
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteCoupon(Long couponId) {
         couponRepository.deleteById(couponId);
+        refreshIndex();
     }
 
     @Override
@@ -106,4 +149,29 @@ public class CouponServiceImpl implements CouponService {
 //        return couponRepository.findById(couponId).orElseThrow(new Exception("coupon not found"));
     return null;
     }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record CouponRule(Long id,
+                              String code,
+                              double discountPercentage,
+                              LocalDate validityStartDate,
+                              LocalDate validityEndDate,
+                              double minimumOrderValue,
+                              boolean active) {
+
+        static CouponRule of(Coupon coupon) {
+            return new CouponRule(coupon.getId(), coupon.getCode(), coupon.getDiscountPercentage(),
+                    coupon.getValidityStartDate(), coupon.getValidityEndDate(),
+                    coupon.getMinimumOrderValue(), coupon.isActive());
+        }
+
+        boolean isValidOn(LocalDate date) {
+            return active
+                    && validityStartDate != null && date.isAfter(validityStartDate)
+                    && validityEndDate != null && date.isBefore(validityEndDate);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.ramyastore.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ramyastore.dto.SellerIdentity;
+import com.ramyastore.dto.UserIdentity;
+import com.ramyastore.exception.SellerException;
+import com.ramyastore.exception.UserException;
+import com.ramyastore.repository.SellerRepository;
+import com.ramyastore.repository.UserRepository;
+import com.ramyastore.service.IdentityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Caches the id behind each authenticated email for a short TTL so most
+ * requests resolve their caller without a query. Unknown emails are not
+ * cached; profile changes evict explicitly.
+ */
+@Service
+public class IdentityServiceImpl implements IdentityService {
+
+    private final UserRepository userRepository;
+    private final SellerRepository sellerRepository;
+    private final Cache<String, UserIdentity> users;
+    private final Cache<String, SellerIdentity> sellers;
+
+    public IdentityServiceImpl(UserRepository userRepository,
+                               SellerRepository sellerRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${identity.cache.max-size:10000}") long maxSize,
+                               @Value("${identity.cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.sellerRepository = sellerRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.sellers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user_identities");
+        CaffeineCacheMetrics.monitor(meterRegistry, sellers, "seller_identities");
+    }
+
+    @Override
+    public UserIdentity findUser(String email) throws UserException {
+        UserIdentity identity = email == null ? null : users.get(email, userRepository::findIdentityByEmail);
+        if (identity == null) {
+            throw new UserException("user not exist with email " + email);
+        }
+        return identity;
+    }
+
+    @Override
+    public SellerIdentity findSeller(String email) throws SellerException {
+        SellerIdentity identity = email == null ? null : sellers.get(email, sellerRepository::findIdentityByEmail);
+        if (identity == null) {
+            throw new SellerException("Seller not found");
+        }
+        return identity;
+    }
+
+    @Override
+    public void evictUser(String email) {
+        if (email != null) {
+            users.invalidate(email);
+        }
+    }
+
+    @Override
+    public void evictSeller(String email) {
+        if (email != null) {
+            sellers.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ramyastore.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.service.SharedProductCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Single-node stand-in for a shared cache such as Redis, enabled with
+ * product.cache.shared.enabled=true. Bounded by product.cache.shared.max-size;
+ * expired entries are purged by Caffeine's scheduler rather than on read.
+ */
+@Service
+@ConditionalOnProperty(name = "product.cache.shared.enabled", havingValue = "true")
+public class InMemorySharedProductCache implements SharedProductCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, Entry> entries;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public InMemorySharedProductCache(@Value("${product.cache.shared.max-size:100000}") long maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Long productId, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long productId, Entry entry,
+                                                  long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long productId, Entry entry,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    @Override
+    public ProductDetailDto get(Long productId) {
+        Entry entry = entries.getIfPresent(productId);
+        return entry != null ? entry.product() : null;
+    }
+
+    @Override
+    public long generation(Long productId) {
+        return generations.get(stripe(productId));
+    }
+
+    @Override
+    public void put(ProductDetailDto product, Duration ttl, long generation) {
+        int stripe = stripe(product.getId());
+        Entry entry = new Entry(product, Math.max(0, ttl.toNanos()));
+        entries.asMap().compute(product.getId(), (id, current) ->
+                generations.get(stripe) == generation ? entry : current);
+    }
+
+    @Override
+    public void evict(Long productId) {
+        int stripe = stripe(productId);
+        entries.asMap().compute(productId, (id, current) -> {
+            generations.incrementAndGet(stripe);
+            return null;
+        });
+    }
+
+    private static int stripe(Long productId) {
+        return Long.hashCode(productId) & (GENERATION_STRIPES - 1);
+    }
+
+    private record Entry(ProductDetailDto product, long ttlNanos) {
+    }
+}
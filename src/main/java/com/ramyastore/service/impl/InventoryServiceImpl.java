@@ -0,0 +1,172 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.ReservationStatus;
+import com.ramyastore.exception.OrderException;
+import com.ramyastore.model.InventoryReservation;
+import com.ramyastore.model.Order;
+import com.ramyastore.model.OrderItem;
+import com.ramyastore.repository.InventoryReservationRepository;
+import com.ramyastore.repository.ProductRepository;
+import com.ramyastore.service.InventoryService;
+import com.ramyastore.service.ProductCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock is decremented with a guarded UPDATE, so the database row is the only
+ * arbiter and no JVM-wide lock is needed. Products are reserved in ascending
+ * id order so concurrent multi-item checkouts take row locks in the same order.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final int EXPIRY_BATCH_SIZE = 500;
+
+    private final InventoryReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductCacheService productCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Counter shortfalls;
+    private final Counter lateCommitShortfalls;
+
+    public InventoryServiceImpl(InventoryReservationRepository reservationRepository,
+                                ProductRepository productRepository,
+                                ProductCacheService productCacheService,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.reservation.enabled:false}") boolean enabled,
+                                @Value("${inventory.reservation.ttl:15m}") Duration ttl) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.productCacheService = productCacheService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.shortfalls = Counter.builder("inventory.reservation.shortfall")
+                .description("Checkouts rejected because a product ran out of stock")
+                .register(meterRegistry);
+        this.lateCommitShortfalls = Counter.builder("inventory.reservation.late_commit_shortfall")
+                .description("Payments that arrived after expiry when the stock had already been resold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(rollbackFor = OrderException.class)
+    public void reserve(Collection<Order> orders) throws OrderException {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // one reservation per (order, product) so each order releases exactly its own stock;
+        // the stock itself is taken once per product, in ascending id order
+        Map<OrderLine, InventoryReservation> byLine = new LinkedHashMap<>();
+        Map<Long, Integer> byProduct = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                Long productId = item.getProduct().getId();
+                InventoryReservation reservation = byLine.computeIfAbsent(new OrderLine(order.getId(), productId),
+                        line -> newReservation(line.orderId(), line.productId(), now));
+                reservation.setQuantity(reservation.getQuantity() + item.getQuantity());
+                byProduct.merge(productId, item.getQuantity(), Integer::sum);
+            }
+        }
+
+        for (Map.Entry<Long, Integer> product : byProduct.entrySet()) {
+            if (productRepository.reserveStock(product.getKey(), product.getValue()) == 0) {
+                shortfalls.increment();
+                throw new OrderException("not enough stock for product " + product.getKey());
+            }
+        }
+        reservationRepository.saveAll(byLine.values());
+        byProduct.keySet().forEach(productCacheService::evict);
+    }
+
+    @Override
+    @Transactional
+    public void commit(Order order) {
+        for (InventoryReservation reservation : reservationRepository.findByOrderId(order.getId())) {
+            if (reservationRepository.transition(reservation.getId(),
+                    ReservationStatus.HELD, ReservationStatus.COMMITTED) == 1) {
+                continue;
+            }
+            // paid after the window closed: take the stock again if it is still there
+            if (reservation.getStatus() == ReservationStatus.EXPIRED
+                    && reservationRepository.transition(reservation.getId(),
+                    ReservationStatus.EXPIRED, ReservationStatus.COMMITTED) == 1) {
+                if (productRepository.reserveStock(reservation.getProductId(), reservation.getQuantity()) == 0) {
+                    lateCommitShortfalls.increment();
+                }
+                productCacheService.evict(reservation.getProductId());
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(Order order) {
+        for (InventoryReservation reservation : reservationRepository.findByOrderId(order.getId())) {
+            if (reservationRepository.transition(reservation.getId(),
+                    ReservationStatus.HELD, ReservationStatus.RELEASED) == 1
+                    || reservationRepository.transition(reservation.getId(),
+                    ReservationStatus.COMMITTED, ReservationStatus.RELEASED) == 1) {
+                productRepository.releaseStock(reservation.getProductId(), reservation.getQuantity());
+                productCacheService.evict(reservation.getProductId());
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:60000}")
+    public int expireReservations() {
+        int expired = 0;
+        List<InventoryReservation> batch;
+        do {
+            batch = reservationRepository.findByStatusAndExpiresAtBefore(ReservationStatus.HELD,
+                    LocalDateTime.now(), Limit.of(EXPIRY_BATCH_SIZE));
+            for (InventoryReservation reservation : batch) {
+                Boolean released = transactionTemplate.execute(status -> {
+                    if (reservationRepository.transition(reservation.getId(),
+                            ReservationStatus.HELD, ReservationStatus.EXPIRED) == 0) {
+                        return false;
+                    }
+                    productRepository.releaseStock(reservation.getProductId(), reservation.getQuantity());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(released)) {
+                    productCacheService.evict(reservation.getProductId());
+                    expired++;
+                }
+            }
+        } while (batch.size() == EXPIRY_BATCH_SIZE);
+        return expired;
+    }
+
+    private InventoryReservation newReservation(Long orderId, Long productId, LocalDateTime now) {
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setOrderId(orderId);
+        reservation.setProductId(productId);
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plus(ttl));
+        return reservation;
+    }
+
+    private record OrderLine(Long orderId, Long productId) {
+    }
+}
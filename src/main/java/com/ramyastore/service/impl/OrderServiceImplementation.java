@@ -1,26 +1,39 @@
 package com.ramyastore.service.impl;
 
 import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.OrderTransitionOutcome;
 import com.ramyastore.domain.PaymentStatus;
+import com.ramyastore.dto.CheckoutResult;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.dto.OrderTransitionResult;
 import com.ramyastore.exception.OrderException;
 import com.ramyastore.model.*;
 import com.ramyastore.repository.AddressRepository;
 import com.ramyastore.repository.OrderItemRepository;
 import com.ramyastore.repository.OrderRepository;
 import com.ramyastore.repository.UserRepository;
+import com.ramyastore.response.CursorPage;
 
 import com.ramyastore.service.CartService;
+import com.ramyastore.service.InventoryService;
 import com.ramyastore.service.OrderItemService;
 import com.ramyastore.service.OrderService;
+import com.ramyastore.service.RevenueService;
+import com.ramyastore.service.SellerReportService;
+import com.ramyastore.utils.CursorUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class OrderServiceImplementation implements OrderService {
+public class OrderServiceImplementation implements OrderService, SmartInitializingSingleton {
 	
 	private final OrderRepository orderRepository;
 	private final CartService cartService;
@@ -28,55 +41,61 @@ public class OrderServiceImplementation implements OrderService {
 	private final UserRepository userRepository;
 	private final OrderItemService orderItemService;
 	private final OrderItemRepository orderItemRepository;
+	private final RevenueService revenueService;
+	private final InventoryService inventoryService;
+	private final SellerReportService sellerReportService;
+
+	private static final int MAX_ORDER_PAGE_SIZE = 50;
+	private static final LocalDateTime FIRST_ORDER_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final LocalDateTime LAST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+	private static final int MAX_BULK_TRANSITIONS = 1000;
+	private static final int TRANSITION_CHUNK_SIZE = 500;
 	
 
 
 	@Override
-	public Set<Order> createOrder(User user, Address shippAddress, Cart cart) {
-		
+	@Transactional(rollbackFor = OrderException.class)
+	public Set<Order> createOrder(User user, Address shippAddress, Cart cart) throws OrderException {
+		return checkout(user, shippAddress, cart).getOrders();
+	}
+
+	@Override
+	@Transactional(rollbackFor = OrderException.class)
+	public CheckoutResult checkout(User user, Address shippAddress, Cart cart) throws OrderException {
+		CheckoutResult result=new CheckoutResult();
+		long start=System.nanoTime();
+
 //		shippAddress.setUser(user);
 		if(!user.getAddresses().contains(shippAddress)){
 			user.getAddresses().add(shippAddress);
 		}
-
-
 		Address address= addressRepository.save(shippAddress);
-
-
+		long addressSaved=System.nanoTime();
+		result.addTiming("address", start, addressSaved);
 
 		Map<Long, List<CartItem>> itemsBySeller = cart.getCartItems().stream()
 				.collect(Collectors.groupingBy(item -> item.getProduct().getSeller().getId()));
 
-		Set<Order> orders=new HashSet<>();
+		List<Order> orders=new ArrayList<>(itemsBySeller.size());
 
 		for(Map.Entry<Long, List<CartItem>> entry:itemsBySeller.entrySet()){
 			Long sellerId=entry.getKey();
 			List<CartItem> cartItems=entry.getValue();
 
-			int totalOrderPrice = cartItems.stream()
-					.mapToInt(CartItem::getSellingPrice).sum();
-			int totalItem=cartItems.stream().mapToInt(CartItem::getQuantity).sum();
+			int totalOrderPrice=0;
+			int totalItem=0;
 
 			Order createdOrder=new Order();
 			createdOrder.setUser(user);
 			createdOrder.setSellerId(sellerId);
-			createdOrder.setTotalMrpPrice(totalOrderPrice);
-			createdOrder.setTotalSellingPrice(totalOrderPrice);
-			createdOrder.setTotalItem(totalItem);
 			createdOrder.setShippingAddress(address);
 			createdOrder.setOrderStatus(OrderStatus.PENDING);
 			createdOrder.getPaymentDetails().setStatus(PaymentStatus.PENDING);
 
-			Order savedOrder=orderRepository.save(createdOrder);
-			orders.add(savedOrder);
-
-
-			List<OrderItem> orderItems=new ArrayList<>();
-
 			for(CartItem item: cartItems) {
 				OrderItem orderItem=new OrderItem();
 
-				orderItem.setOrder(savedOrder);
+				orderItem.setOrder(createdOrder);
 				orderItem.setMrpPrice(item.getMrpPrice());
 				orderItem.setProduct(item.getProduct());
 				orderItem.setQuantity(item.getQuantity());
@@ -84,17 +103,46 @@ public class OrderServiceImplementation implements OrderService {
 				orderItem.setUserId(item.getUserId());
 				orderItem.setSellingPrice(item.getSellingPrice());
 
-				savedOrder.getOrderItems().add(orderItem);
+				createdOrder.getOrderItems().add(orderItem);
 
-				OrderItem createdOrderItem=orderItemRepository.save(orderItem);
-
-				orderItems.add(createdOrderItem);
+				totalOrderPrice+=item.getSellingPrice();
+				totalItem+=item.getQuantity();
 			}
 
+			createdOrder.setTotalMrpPrice(totalOrderPrice);
+			createdOrder.setTotalSellingPrice(totalOrderPrice);
+			createdOrder.setTotalItem(totalItem);
+			orders.add(createdOrder);
 		}
-		
-		return orders;
-		
+		long built=System.nanoTime();
+		result.addTiming("build", addressSaved, built);
+
+		// order items cascade from their order; pooled ids keep both inserts batched
+		List<Order> savedOrders=orderRepository.saveAll(orders);
+		orderRepository.flush();
+		long persisted=System.nanoTime();
+		result.addTiming("persist", built, persisted);
+
+		// a shortfall throws and rolls back the orders together with any stock already taken
+		inventoryService.reserve(savedOrders);
+		long reserved=System.nanoTime();
+		result.addTiming("reserve", persisted, reserved);
+		result.addTiming("total", start, reserved);
+
+		result.setOrders(new HashSet<>(savedOrders));
+		return result;
+	}
+
+	// runs before the web server starts, so no request can draw an id from an unaligned sequence
+	@Override
+	public void afterSingletonsInstantiated() {
+		alignIdSequences();
+	}
+
+	// ids were IDENTITY before the pooled sequences; never hand out one that is already taken
+	void alignIdSequences() {
+		orderRepository.alignIdSequence(Order.ID_ALLOCATION_SIZE);
+		orderItemRepository.alignIdSequence(Order.ID_ALLOCATION_SIZE);
 	}
 
 	@Override
@@ -120,17 +168,159 @@ public class OrderServiceImplementation implements OrderService {
 	}
 
 	@Override
+	public CursorPage<OrderSummaryDto> getUserOrderSummaries(Long userId, OrderStatus status,
+															 LocalDateTime from, LocalDateTime to,
+															 String cursor, Integer pageSize) throws OrderException {
+		return summaryPage(cursor, pageSize, (orderDate, id, limit) -> orderRepository.findUserOrderSummaries(
+				userId, status, from == null ? FIRST_ORDER_DATE : from, to == null ? LAST_ORDER_DATE : to,
+				orderDate, id, limit));
+	}
+
+	@Override
+	public CursorPage<OrderSummaryDto> getSellerOrderSummaries(Long sellerId, OrderStatus status,
+															   LocalDateTime from, LocalDateTime to,
+															   String cursor, Integer pageSize) throws OrderException {
+		return summaryPage(cursor, pageSize, (orderDate, id, limit) -> orderRepository.findSellerOrderSummaries(
+				sellerId, status, from == null ? FIRST_ORDER_DATE : from, to == null ? LAST_ORDER_DATE : to,
+				orderDate, id, limit));
+	}
+
+	private interface SummaryQuery {
+		List<OrderSummaryDto> fetch(LocalDateTime orderDate, Long id, Limit limit);
+	}
+
+	private CursorPage<OrderSummaryDto> summaryPage(String cursor, Integer pageSize, SummaryQuery query)
+			throws OrderException {
+		int limit = pageSize == null || pageSize <= 0 ? 10 : Math.min(pageSize, MAX_ORDER_PAGE_SIZE);
+
+		LocalDateTime orderDate = LAST_ORDER_DATE;
+		Long id = Long.MAX_VALUE;
+		if (cursor != null && !cursor.isEmpty()) {
+			String[] parts = CursorUtils.decode(cursor, 2);
+			if (parts == null) {
+				throw new OrderException("invalid cursor");
+			}
+			try {
+				orderDate = LocalDateTime.parse(parts[0]);
+				id = Long.valueOf(parts[1]);
+			} catch (RuntimeException e) {
+				throw new OrderException("invalid cursor");
+			}
+		}
+
+		List<OrderSummaryDto> rows = query.fetch(orderDate, id, Limit.of(limit + 1));
+		boolean hasNext = rows.size() > limit;
+		List<OrderSummaryDto> content = hasNext ? rows.subList(0, limit) : rows;
+		String nextCursor = null;
+		if (hasNext) {
+			OrderSummaryDto last = content.get(content.size() - 1);
+			nextCursor = CursorUtils.encode(last.getOrderDate().toString(), String.valueOf(last.getId()));
+		}
+		return new CursorPage<>(content, nextCursor, hasNext, null);
+	}
+
+	@Override
+	@Transactional(rollbackFor = OrderException.class)
 	public Order updateOrderStatus(Long orderId, OrderStatus orderStatus)
 			throws OrderException {
 		Order order=findOrderById(orderId);
-		order.setOrderStatus(orderStatus);
-		return orderRepository.save(order);
+		// same locked, state-machine checked path as the bulk endpoint, so both
+		// release stock and record revenue and report changes the same way
+		OrderTransitionResult result=updateOrderStatuses(order.getSellerId(), List.of(orderId), orderStatus).get(0);
+		OrderTransitionOutcome outcome=result.getOutcome();
+		if(outcome==OrderTransitionOutcome.INVALID_TRANSITION){
+			throw new OrderException("order "+orderId+" can't move from "
+					+result.getPreviousStatus()+" to "+orderStatus);
+		}
+		if(outcome!=OrderTransitionOutcome.UPDATED && outcome!=OrderTransitionOutcome.UNCHANGED){
+			throw new OrderException("order "+orderId+" could not be updated, try again");
+		}
+		return findOrderById(orderId);
 	}
 
+	@Override
+	@Transactional(rollbackFor = OrderException.class)
+	public List<OrderTransitionResult> updateOrderStatuses(Long sellerId, List<Long> orderIds,
+														   OrderStatus orderStatus) throws OrderException {
+		if(orderStatus==null){
+			throw new OrderException("order status is required");
+		}
+		if(orderIds==null || orderIds.isEmpty()){
+			return List.of();
+		}
+		List<Long> ids=new ArrayList<>(new LinkedHashSet<>(orderIds));
+		if(ids.size()>MAX_BULK_TRANSITIONS){
+			throw new OrderException("at most "+MAX_BULK_TRANSITIONS+" orders can be updated at once");
+		}
+
+		// ids the seller does not own stay NOT_FOUND
+		Map<Long, OrderTransitionResult> results=new LinkedHashMap<>();
+		for(Long id: ids){
+			results.put(id, new OrderTransitionResult(id, null, OrderTransitionOutcome.NOT_FOUND));
+		}
+		for(int from=0; from<ids.size(); from+=TRANSITION_CHUNK_SIZE){
+			transitionChunk(sellerId, ids.subList(from, Math.min(from+TRANSITION_CHUNK_SIZE, ids.size())),
+					orderStatus, results);
+		}
+		return new ArrayList<>(results.values());
+	}
+
+	private void transitionChunk(Long sellerId, List<Long> ids, OrderStatus target,
+								 Map<Long, OrderTransitionResult> results) {
+		Map<OrderStatus, List<Long>> idsByStatus=new EnumMap<>(OrderStatus.class);
+		Set<Long> paid=new HashSet<>();
+		for(Object[] row: orderRepository.lockStatusesForSeller(sellerId, ids)){
+			Long id=(Long) row[0];
+			OrderStatus current=(OrderStatus) row[1];
+			OrderTransitionResult result=results.get(id);
+			result.setPreviousStatus(current);
+			if(current==target){
+				result.setOutcome(OrderTransitionOutcome.UNCHANGED);
+			} else if(current==null || !current.canTransitionTo(target)){
+				result.setOutcome(OrderTransitionOutcome.INVALID_TRANSITION);
+			} else {
+				idsByStatus.computeIfAbsent(current, status -> new ArrayList<>()).add(id);
+				if(row[2]==PaymentStatus.COMPLETED){
+					paid.add(id);
+				}
+			}
+		}
+
+		List<Long> moved=new ArrayList<>();
+		for(Map.Entry<OrderStatus, List<Long>> group: idsByStatus.entrySet()){
+			List<Long> groupIds=group.getValue();
+			int updated=orderRepository.transitionStatus(sellerId, groupIds, group.getKey(), target);
+			// rows are locked, so a short count only happens if something bypassed the lock
+			Collection<Long> groupMoved=updated==groupIds.size()
+					? groupIds : new HashSet<>(orderRepository.findIdsInStatus(sellerId, groupIds, target));
+			for(Long id: groupIds){
+				boolean ok=groupMoved.contains(id);
+				results.get(id).setOutcome(ok ? OrderTransitionOutcome.UPDATED : OrderTransitionOutcome.CONFLICT);
+				if(ok){
+					moved.add(id);
+				}
+			}
+		}
+
+		if(target==OrderStatus.CANCELLED && !moved.isEmpty()){
+			for(Order order: orderRepository.findAllById(moved)){
+				if(paid.contains(order.getId())){
+					revenueService.recordPaidOrderCancelled(order);
+				}
+				sellerReportService.recordOrderCancelled(order.getSellerId(),
+						order.getTotalSellingPrice()==null ? 0 : order.getTotalSellingPrice());
+				inventoryService.release(order);
+			}
+		}
+	}
 
 	@Override
 	public void deleteOrder(Long orderId) throws OrderException {
 		Order order = findOrderById(orderId);
+		if(countsAsRevenue(order)){
+			revenueService.recordPaidOrderCancelled(order);
+		}
+		inventoryService.release(order);
 		
 		orderRepository.deleteById(orderId);
 		
@@ -142,9 +332,26 @@ public class OrderServiceImplementation implements OrderService {
 		if(user.getId()!=order.getUser().getId()){
 			throw new OrderException("you can't perform this action "+orderId);
 		}
+		// a repeated cancel must not count the order or its refund twice
+		if(order.getOrderStatus()==OrderStatus.CANCELLED){
+			return order;
+		}
+		boolean counted=countsAsRevenue(order);
 		order.setOrderStatus(OrderStatus.CANCELLED);
 
-		return orderRepository.save(order);
+		Order savedOrder=orderRepository.save(order);
+		if(counted){
+			revenueService.recordPaidOrderCancelled(savedOrder);
+		}
+		sellerReportService.recordOrderCancelled(savedOrder.getSellerId(),
+				savedOrder.getTotalSellingPrice()==null ? 0 : savedOrder.getTotalSellingPrice());
+		inventoryService.release(savedOrder);
+		return savedOrder;
+	}
+
+	private static boolean countsAsRevenue(Order order){
+		return order.getPaymentStatus()==PaymentStatus.COMPLETED
+				&& order.getOrderStatus()!=OrderStatus.CANCELLED;
 	}
 
 }
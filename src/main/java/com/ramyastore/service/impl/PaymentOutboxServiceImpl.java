@@ -0,0 +1,175 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.OutboxStatus;
+import com.ramyastore.model.*;
+import com.ramyastore.repository.*;
+import com.ramyastore.service.PaymentOutboxService;
+import com.ramyastore.service.SellerReportService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactions and seller report totals for a paid order are written by a
+ * worker pool from the payment outbox instead of on the payment callback.
+ * An event's DONE mark is written first, guarded by the worker's claim token,
+ * and its side effects commit in the same transaction. A worker whose claim
+ * was requeued and taken over fails that guard and rolls back, so each
+ * payment is applied exactly once even when a slow worker is retried.
+ */
+@Service
+public class PaymentOutboxServiceImpl implements PaymentOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final TransactionRepository transactionRepository;
+    private final SellerRepository sellerRepository;
+    private final SellerReportRepository sellerReportRepository;
+    private final SellerReportService sellerReportService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+
+    public PaymentOutboxServiceImpl(PaymentOutboxRepository outboxRepository,
+                                    PaymentOrderRepository paymentOrderRepository,
+                                    TransactionRepository transactionRepository,
+                                    SellerRepository sellerRepository,
+                                    SellerReportRepository sellerReportRepository,
+                                    SellerReportService sellerReportService,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${payment.outbox.workers:4}") int workers,
+                                    @Value("${payment.outbox.batch-size:50}") int batchSize,
+                                    @Value("${payment.outbox.max-attempts:5}") int maxAttempts,
+                                    @Value("${payment.outbox.claim-timeout:5m}") Duration claimTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.transactionRepository = transactionRepository;
+        this.sellerRepository = sellerRepository;
+        this.sellerReportRepository = sellerReportRepository;
+        this.sellerReportService = sellerReportService;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Override
+    public boolean enqueue(String paymentId, PaymentOrder paymentOrder) {
+        return outboxRepository.insertIfAbsent(paymentId, paymentOrder.getId(),
+                OutboxStatus.PENDING.ordinal(), LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval-ms:1000}")
+    public int processPending() {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.requeueStale(now.minus(claimTimeout));
+
+        List<Future<?>> running = new ArrayList<>();
+        for (Long eventId : outboxRepository.findIdsByStatus(OutboxStatus.PENDING, Limit.of(batchSize))) {
+            String token = UUID.randomUUID().toString();
+            if (outboxRepository.claim(eventId, token, now) == 1) {
+                running.add(workers.submit(() -> process(eventId, token)));
+            }
+        }
+        // wait for the batch so a slow database cannot pile up an unbounded queue
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // process() records its own failures
+            }
+        }
+        return running.size();
+    }
+
+    void process(Long eventId, String token) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // the guarded update locks the event row until commit, so a requeued copy
+                // of this event cannot finish (and apply) while this one is in flight
+                if (outboxRepository.finish(eventId, token, OutboxStatus.DONE, LocalDateTime.now(), null) == 0) {
+                    throw new ClaimLostException(eventId);
+                }
+                PaymentOutboxEvent event = outboxRepository.findById(eventId).orElseThrow();
+                PaymentOrder paymentOrder = paymentOrderRepository.findById(event.getPaymentOrderId())
+                        .orElseThrow(() -> new IllegalStateException(
+                                "payment order not found with id " + event.getPaymentOrderId()));
+                applyPayment(paymentOrder);
+            });
+        } catch (ClaimLostException e) {
+            // another worker owns the event now
+        } catch (RuntimeException e) {
+            int attempts = outboxRepository.findById(eventId).map(PaymentOutboxEvent::getAttempts).orElse(maxAttempts);
+            String error = String.valueOf(e.getMessage());
+            outboxRepository.finish(eventId, token,
+                    attempts >= maxAttempts ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                    LocalDateTime.now(),
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+    }
+
+    private void applyPayment(PaymentOrder paymentOrder) {
+        Set<Order> orders = paymentOrder.getOrders();
+        Set<Long> sellerIds = orders.stream().map(Order::getSellerId).collect(Collectors.toSet());
+        Map<Long, Seller> sellers = sellerRepository.findAllById(sellerIds).stream()
+                .collect(Collectors.toMap(Seller::getId, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(orders.size());
+        Map<Long, long[]> totalsBySeller = new HashMap<>();
+        for (Order order : orders) {
+            Transaction transaction = new Transaction();
+            transaction.setCustomer(order.getUser());
+            transaction.setOrder(order);
+            transaction.setSeller(sellers.get(order.getSellerId()));
+            transactions.add(transaction);
+
+            // orders, earnings, sales
+            long[] totals = totalsBySeller.computeIfAbsent(order.getSellerId(), id -> new long[3]);
+            totals[0]++;
+            totals[1] += order.getTotalSellingPrice();
+            totals[2] += order.getOrderItems().size();
+        }
+        transactionRepository.saveAll(transactions);
+
+        for (Map.Entry<Long, long[]> entry : totalsBySeller.entrySet()) {
+            long[] totals = entry.getValue();
+            if (sellerReportRepository.addCounters(entry.getKey(), (int) totals[0], totals[1], totals[2], 0, 0) == 0) {
+                sellerReportService.getSellerReport(sellers.get(entry.getKey()));
+                sellerReportRepository.addCounters(entry.getKey(), (int) totals[0], totals[1], totals[2], 0, 0);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private static final class ClaimLostException extends RuntimeException {
+        ClaimLostException(Long eventId) {
+            super("claim on payment outbox event " + eventId + " was lost");
+        }
+    }
+}
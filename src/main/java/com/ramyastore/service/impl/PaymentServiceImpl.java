@@ -8,6 +8,7 @@ import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
+import com.ramyastore.domain.OrderStatus;
 import com.ramyastore.domain.PaymentOrderStatus;
 import com.ramyastore.domain.PaymentStatus;
 import com.ramyastore.model.Order;
@@ -16,11 +17,15 @@ import com.ramyastore.model.User;
 import com.ramyastore.repository.CartRepository;
 import com.ramyastore.repository.OrderRepository;
 import com.ramyastore.repository.PaymentOrderRepository;
+import com.ramyastore.service.InventoryService;
+import com.ramyastore.service.PaymentOutboxService;
 import com.ramyastore.service.PaymentService;
+import com.ramyastore.service.RevenueService;
 import lombok.RequiredArgsConstructor;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 import java.util.Set;
@@ -42,6 +47,10 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentOrderRepository paymentOrderRepository;
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
+    private final RevenueService revenueService;
+    private final InventoryService inventoryService;
+    private final PaymentOutboxService paymentOutboxService;
+    private final TransactionTemplate transactionTemplate;
 
 
 
@@ -85,7 +94,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         if(paymentOrder.getStatus().equals(PaymentOrderStatus.PENDING)){
 
-
+                // fetched before the transaction so no connection is held while Razorpay answers
                 RazorpayClient razorpay = new RazorpayClient(apiKey, apiSecret);
                 Payment payment = razorpay.payments.fetch(paymentId);
 
@@ -94,19 +103,41 @@ public class PaymentServiceImpl implements PaymentService {
 
                 if(status.equals("captured")){
 //                    System.out.println("payment ===== captured");
-                    Set<Order> orders=paymentOrder.getOrders();
-                    for(Order order:orders){
-                        order.setPaymentStatus(PaymentStatus.COMPLETED);
-                        orderRepository.save(order);
-                    }
-                    paymentOrder.setStatus(PaymentOrderStatus.SUCCESS);
-                    paymentOrderRepository.save(paymentOrder);
-
-
-                    return true;
+                    // the SUCCESS claim and the outbox event commit together, so a crash
+                    // between them cannot lose the seller transactions and report totals;
+                    // a duplicate callback loses the claim and applies nothing
+                    Boolean claimed = transactionTemplate.execute(tx -> {
+                        if (paymentOrderRepository.transitionStatus(paymentOrder.getId(),
+                                PaymentOrderStatus.PENDING, PaymentOrderStatus.SUCCESS) == 0) {
+                            return false;
+                        }
+                        paymentOrder.setStatus(PaymentOrderStatus.SUCCESS);
+                        Set<Order> orders=paymentOrder.getOrders();
+                        for(Order order:orders){
+                            boolean alreadyPaid = order.getPaymentStatus() == PaymentStatus.COMPLETED;
+                            order.setPaymentStatus(PaymentStatus.COMPLETED);
+                            orderRepository.save(order);
+                            if (!alreadyPaid && order.getOrderStatus() != OrderStatus.CANCELLED) {
+                                revenueService.recordOrderPaid(order);
+                                inventoryService.commit(order);
+                            }
+                        }
+                        paymentOutboxService.enqueue(paymentId, paymentOrder);
+                        return true;
+                    });
+
+                    return Boolean.TRUE.equals(claimed);
                 }
-                paymentOrder.setStatus(PaymentOrderStatus.FAILED);
-                paymentOrderRepository.save(paymentOrder);
+                transactionTemplate.executeWithoutResult(tx -> {
+                    if (paymentOrderRepository.transitionStatus(paymentOrder.getId(),
+                            PaymentOrderStatus.PENDING, PaymentOrderStatus.FAILED) == 0) {
+                        return;
+                    }
+                    paymentOrder.setStatus(PaymentOrderStatus.FAILED);
+                    for(Order order:paymentOrder.getOrders()){
+                        inventoryService.release(order);
+                    }
+                });
                 return false;
             }
 
@@ -0,0 +1,130 @@
+package com.ramyastore.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.service.ProductCacheService;
+import com.ramyastore.service.SharedProductCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through product cache: a bounded local Caffeine tier in front of an
+ * optional shared tier. Every eviction bumps a generation counter and a
+ * load only fills the cache if the generation it started from is still
+ * current. Local hit/miss/eviction metrics are published as cache.* meters
+ * tagged cache=products.
+ */
+@Service
+public class ProductCacheServiceImpl implements ProductCacheService {
+
+    // products share a stripe by id hash; a collision only skips a cache fill
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, ProductDetailDto> localCache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final SharedProductCache sharedCache;
+    private final Duration sharedTtl;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public ProductCacheServiceImpl(ObjectProvider<SharedProductCache> sharedCache,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${product.cache.max-size:10000}") long maxSize,
+                                   @Value("${product.cache.ttl:5m}") Duration localTtl,
+                                   @Value("${product.cache.shared.ttl:30m}") Duration sharedTtl) {
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        this.sharedCache = sharedCache.getIfAvailable();
+        this.sharedTtl = sharedTtl;
+        this.sharedHits = Counter.builder("product.cache.shared")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.sharedMisses = Counter.builder("product.cache.shared")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "products");
+    }
+
+    @Override
+    public ProductDetailDto get(Long productId, Loader loader) throws ProductException {
+        ProductDetailDto product = localCache.getIfPresent(productId);
+        if (product != null) {
+            return product;
+        }
+        // generations are read before the lookup so an eviction that lands
+        // while the product is being loaded keeps the loaded value out
+        long generation = generations.get(stripe(productId));
+        long sharedGeneration = 0;
+        if (sharedCache != null) {
+            sharedGeneration = sharedCache.generation(productId);
+            product = sharedCache.get(productId);
+            if (product != null) {
+                sharedHits.increment();
+                fillLocal(productId, product, generation);
+                return product;
+            }
+            sharedMisses.increment();
+        }
+        product = loader.load(productId);
+        fillLocal(productId, product, generation);
+        if (sharedCache != null) {
+            sharedCache.put(product, sharedTtl, sharedGeneration);
+        }
+        return product;
+    }
+
+    @Override
+    public void evict(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        invalidate(productId);
+        // a reader may reload the old row before the writer commits, so drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(productId);
+                }
+            });
+        }
+    }
+
+    // shared tier first, so a reader that still sees the old shared entry has
+    // read the local generation before it is bumped
+    private void invalidate(Long productId) {
+        if (sharedCache != null) {
+            sharedCache.evict(productId);
+        }
+        int stripe = stripe(productId);
+        localCache.asMap().compute(productId, (id, current) -> {
+            generations.incrementAndGet(stripe);
+            return null;
+        });
+    }
+
+    // the generation check and the write happen under the entry's lock, which invalidate also takes
+    private void fillLocal(Long productId, ProductDetailDto product, long generation) {
+        int stripe = stripe(productId);
+        localCache.asMap().compute(productId, (id, current) ->
+                generations.get(stripe) == generation ? product : current);
+    }
+
+    private static int stripe(Long productId) {
+        return Long.hashCode(productId) & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,415 @@
+package com.ramyastore.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ramyastore.domain.ImportStatus;
+import com.ramyastore.dto.ProductImportError;
+import com.ramyastore.dto.ProductImportReport;
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.model.Category;
+import com.ramyastore.model.Product;
+import com.ramyastore.model.Seller;
+import com.ramyastore.repository.CategoryRepository;
+import com.ramyastore.request.CreateProductRequest;
+import com.ramyastore.service.CategoryTreeService;
+import com.ramyastore.service.ProductImportService;
+import com.ramyastore.service.ProductSearchService;
+import com.ramyastore.utils.CsvReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a CSV or NDJSON upload row by row and persists products in
+ * chunks, one transaction and one JDBC batch per chunk. A chunk that fails
+ * as a whole is retried row by row so only the offending rows are reported.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TRACKED_IMPORTS = 100;
+    private static final int MAX_IMPORT_ID_LENGTH = 64;
+
+    private static final List<String> REQUIRED_CSV_COLUMNS =
+            List.of("title", "mrpprice", "sellingprice", "category", "category2", "category3");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final ProductSearchService productSearchService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    private final Map<String, ImportProgress> imports = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ImportProgress> eldest) {
+                    return size() > MAX_TRACKED_IMPORTS;
+                }
+            });
+
+    public ProductImportServiceImpl(TransactionTemplate transactionTemplate,
+                                    CategoryRepository categoryRepository,
+                                    CategoryTreeService categoryTreeService,
+                                    ProductSearchService productSearchService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${product.import.batch-size:500}") int batchSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.categoryRepository = categoryRepository;
+        this.categoryTreeService = categoryTreeService;
+        this.productSearchService = productSearchService;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public ProductImportReport importProducts(InputStream input,
+                                              String format,
+                                              Seller seller,
+                                              String importId) throws ProductException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowReader rows = switch (format == null ? "csv" : format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> csvRows(new CsvReader(reader));
+            case "ndjson", "jsonl" -> ndjsonRows(reader);
+            default -> throw new ProductException("unsupported import format: " + format);
+        };
+
+        ImportProgress progress = start(importId, seller);
+        Map<String, Category> categoryCache = new HashMap<>();
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+        try {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                progress.rowsRead.incrementAndGet();
+                if (row.error() != null) {
+                    progress.fail(row.number(), row.error());
+                    continue;
+                }
+                try {
+                    chunk.add(new PendingRow(row.number(), toProduct(row.request(), seller, categoryCache)));
+                } catch (ProductException | RuntimeException e) {
+                    progress.fail(row.number(), e.getMessage());
+                }
+                if (chunk.size() >= batchSize) {
+                    persistChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            persistChunk(chunk, progress);
+            progress.finish(ImportStatus.COMPLETED, null);
+        } catch (IOException e) {
+            progress.finish(ImportStatus.FAILED, e.getMessage());
+        }
+        return progress.toReport();
+    }
+
+    @Override
+    public ProductImportReport getImport(String importId, Seller seller) throws ProductException {
+        ImportProgress progress = imports.get(importId);
+        if (progress == null || !progress.sellerId.equals(seller.getId())) {
+            throw new ProductException("import not found");
+        }
+        return progress.toReport();
+    }
+
+    private ImportProgress start(String importId, Seller seller) throws ProductException {
+        String id = importId == null || importId.isBlank() ? UUID.randomUUID().toString() : importId;
+        if (id.length() > MAX_IMPORT_ID_LENGTH) {
+            throw new ProductException("importId is too long");
+        }
+        ImportProgress progress = new ImportProgress(id, seller.getId());
+        if (imports.putIfAbsent(id, progress) != null) {
+            throw new ProductException("import " + id + " already exists");
+        }
+        return progress;
+    }
+
+    private void persistChunk(List<PendingRow> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persist(chunk);
+            chunk.forEach(row -> imported(row, progress));
+        } catch (RuntimeException chunkError) {
+            for (PendingRow row : chunk) {
+                // ids handed out before the rollback are not reused
+                row.product().setId(null);
+                row.product().setImages(new ArrayList<>(row.product().getImages()));
+                try {
+                    persist(List.of(row));
+                    imported(row, progress);
+                } catch (RuntimeException rowError) {
+                    progress.fail(row.number(), rootCauseMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private void persist(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rows.forEach(row -> entityManager.persist(row.product()));
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void imported(PendingRow row, ImportProgress progress) {
+        progress.imported.incrementAndGet();
+        productSearchService.indexProduct(row.product());
+    }
+
+    private Product toProduct(CreateProductRequest req,
+                              Seller seller,
+                              Map<String, Category> categoryCache) throws ProductException {
+        validate(req);
+
+        Category category1 = resolveCategory(req.getCategory(), 1, null, categoryCache);
+        Category category2 = resolveCategory(req.getCategory2(), 2, category1, categoryCache);
+        Category category3 = resolveCategory(req.getCategory3(), 3, category2, categoryCache);
+
+        Product product = new Product();
+        product.setSeller(seller);
+        product.setCategory(category3);
+        product.setTitle(req.getTitle());
+        product.setColor(req.getColor());
+        product.setDescription(req.getDescription());
+        product.setDiscountPercent(ProductServiceImpl.calculateDiscountPercentage(
+                req.getMrpPrice(), req.getSellingPrice()));
+        product.setSellingPrice(req.getSellingPrice());
+        product.setMrpPrice(req.getMrpPrice());
+        product.setImages(req.getImages() != null ? new ArrayList<>(req.getImages()) : new ArrayList<>());
+        product.setSizes(req.getSizes());
+        product.setQuantity(req.getQuantity());
+        product.setCreatedAt(LocalDateTime.now());
+        return product;
+    }
+
+    private static void validate(CreateProductRequest req) throws ProductException {
+        if (req.getTitle() == null || req.getTitle().isBlank()) {
+            throw new ProductException("title is required");
+        }
+        if (req.getMrpPrice() <= 0) {
+            throw new ProductException("mrpPrice must be greater than zero");
+        }
+        if (req.getSellingPrice() < 0 || req.getSellingPrice() > req.getMrpPrice()) {
+            throw new ProductException("sellingPrice must be between 0 and mrpPrice");
+        }
+        if (req.getQuantity() < 0) {
+            throw new ProductException("quantity must not be negative");
+        }
+        if (isBlank(req.getCategory()) || isBlank(req.getCategory2()) || isBlank(req.getCategory3())) {
+            throw new ProductException("category, category2 and category3 are required");
+        }
+    }
+
+    private Category resolveCategory(String categoryId,
+                                     int level,
+                                     Category parentCategory,
+                                     Map<String, Category> categoryCache) {
+        Category cached = categoryCache.get(categoryId);
+        if (cached != null) {
+            return cached;
+        }
+        Category category = categoryTreeService.findByCategoryId(categoryId);
+        if (category == null) {
+            category = categoryRepository.findByCategoryId(categoryId);
+        }
+        if (category == null) {
+            Category created = new Category();
+            created.setCategoryId(categoryId);
+            created.setLevel(level);
+            created.setParentCategory(parentCategory);
+            created.setName(categoryId.replace("_", " "));
+            try {
+                category = categoryRepository.save(created);
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently by another import
+                category = categoryRepository.findByCategoryId(categoryId);
+                if (category == null) {
+                    throw e;
+                }
+            }
+        }
+        categoryTreeService.register(category);
+        categoryCache.put(categoryId, category);
+        return category;
+    }
+
+    private RowReader csvRows(CsvReader csv) throws ProductException {
+        Map<String, Integer> columns = new HashMap<>();
+        try {
+            List<String> header = csv.readRecord();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+        } catch (IOException e) {
+            throw new ProductException("could not read csv header: " + e.getMessage());
+        }
+        for (String column : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new ProductException("csv header is missing column " + column);
+            }
+        }
+
+        long[] rowNumber = {1};
+        return () -> {
+            List<String> record;
+            do {
+                record = csv.readRecord();
+                rowNumber[0]++;
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            if (record == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(rowNumber[0], fromCsv(record, columns), null);
+            } catch (NumberFormatException e) {
+                return new ImportRow(rowNumber[0], null, "invalid number: " + e.getMessage());
+            }
+        };
+    }
+
+    private static CreateProductRequest fromCsv(List<String> record, Map<String, Integer> columns) {
+        CreateProductRequest req = new CreateProductRequest();
+        req.setTitle(column(record, columns, "title"));
+        req.setDescription(column(record, columns, "description"));
+        req.setMrpPrice(intColumn(record, columns, "mrpprice"));
+        req.setSellingPrice(intColumn(record, columns, "sellingprice"));
+        req.setQuantity(intColumn(record, columns, "quantity"));
+        req.setBrand(column(record, columns, "brand"));
+        req.setColor(column(record, columns, "color"));
+        req.setCategory(column(record, columns, "category"));
+        req.setCategory2(column(record, columns, "category2"));
+        req.setCategory3(column(record, columns, "category3"));
+        req.setSizes(column(record, columns, "sizes"));
+
+        String images = column(record, columns, "images");
+        req.setImages(images == null ? List.of() : Arrays.stream(images.split("\\|"))
+                .map(String::trim)
+                .filter(image -> !image.isEmpty())
+                .toList());
+        return req;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int intColumn(List<String> record, Map<String, Integer> columns, String name) {
+        String value = column(record, columns, name);
+        return value == null ? 0 : Integer.parseInt(value);
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(lineNumber[0], objectMapper.readValue(line, CreateProductRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber[0], null, "invalid json: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String rootCauseMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private interface RowReader {
+        ImportRow next() throws IOException;
+    }
+
+    private record ImportRow(long number, CreateProductRequest request, String error) {
+    }
+
+    private record PendingRow(long number, Product product) {
+    }
+
+    private static final class ImportProgress {
+
+        private final String id;
+        private final Long sellerId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ProductImportError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile ImportStatus status = ImportStatus.RUNNING;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportProgress(String id, Long sellerId) {
+            this.id = id;
+            this.sellerId = sellerId;
+        }
+
+        private void fail(long row, String error) {
+            failed.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportError(row, error));
+            }
+        }
+
+        private void finish(ImportStatus finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private ProductImportReport toReport() {
+            ProductImportReport report = new ProductImportReport();
+            report.setImportId(id);
+            report.setStatus(status);
+            report.setRowsRead(rowsRead.get());
+            report.setImported(imported.get());
+            report.setFailed(failed.get());
+            synchronized (errors) {
+                report.setErrors(new ArrayList<>(errors));
+            }
+            report.setMessage(message);
+            report.setStartedAt(startedAt);
+            report.setFinishedAt(finishedAt);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.model.Category;
+import com.ramyastore.model.Product;
+import com.ramyastore.repository.ProductRepository;
+import com.ramyastore.service.ProductSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over product title, description, color and the
+ * category hierarchy. Terms are kept in a sorted map so a query term also
+ * matches every indexed term it is a prefix of. Writers are serialized,
+ * readers never block.
+ */
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float PARENT_CATEGORY_WEIGHT = 1.0f;
+    private static final float COLOR_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 0.5f;
+    private static final float PREFIX_MATCH_FACTOR = 0.6f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_CATEGORY_DEPTH = 5;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final Timer searchTimer;
+
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> termsByProduct = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public ProductSearchServiceImpl(ProductRepository productRepository,
+                                    MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.searchTimer = Timer.builder("product.search.latency")
+                .description("Time taken to answer a product search query")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildIndex();
+    }
+
+    @Override
+    public synchronized void rebuildIndex() {
+        ready = false;
+        postings.clear();
+        termsByProduct.clear();
+
+        int pageNumber = 0;
+        Page<Product> batch;
+        do {
+            batch = productRepository.findAll(
+                    PageRequest.of(pageNumber++, REBUILD_BATCH_SIZE, Sort.by("id")));
+            batch.forEach(this::addToIndex);
+        } while (batch.hasNext());
+
+        ready = true;
+    }
+
+    @Override
+    public void indexProduct(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        afterCommit(() -> reindex(product));
+    }
+
+    @Override
+    public void removeProduct(Long productId) {
+        afterCommit(() -> unindex(productId));
+    }
+
+    private synchronized void reindex(Product product) {
+        removeFromIndex(product.getId());
+        addToIndex(product);
+    }
+
+    private synchronized void unindex(Long productId) {
+        removeFromIndex(productId);
+    }
+
+    // inside a transaction the index only changes once the write has committed,
+    // so a rollback never leaves it pointing at rows that do not exist
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    @Override
+    public Page<Product> search(String query, int pageNumber, int pageSize) {
+        Pageable pageable = pageRequest(pageNumber, pageSize);
+        return searchTimer.record(() -> ready
+                ? searchIndex(query, pageable)
+                : searchDatabase(query, pageable));
+    }
+
+    @Override
+    public Page<Long> searchIds(String query, int pageNumber, int pageSize) {
+        Pageable pageable = pageRequest(pageNumber, pageSize);
+        return searchTimer.record(() -> ready
+                ? rankedPage(query, pageable)
+                : searchDatabase(query, pageable).map(Product::getId));
+    }
+
+    // page numbers come straight from the query string; a negative one is read as the first page
+    private static Pageable pageRequest(int pageNumber, int pageSize) {
+        return PageRequest.of(Math.max(pageNumber, 0), Math.max(pageSize, 1));
+    }
+
+    private Page<Long> rankedPage(String query, Pageable pageable) {
+        List<Long> ranked = rank(query);
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size());
+    }
+
+    private Page<Product> searchIndex(String query, Pageable pageable) {
+        Page<Long> page = rankedPage(query, pageable);
+        List<Long> pageIds = page.getContent();
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, page.getTotalElements());
+        }
+
+        Map<Long, Product> productsById = productRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> content = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(content, pageable, page.getTotalElements());
+    }
+
+    // used only until the index has been built after startup
+    private Page<Product> searchDatabase(String query, Pageable pageable) {
+        List<Product> products = productRepository.searchProduct(query);
+
+        int from = (int) Math.min(pageable.getOffset(), products.size());
+        int to = Math.min(from + pageable.getPageSize(), products.size());
+        return new PageImpl<>(products.subList(from, to), pageable, products.size());
+    }
+
+    List<Long> rank(String query) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = null;
+        for (String term : queryTerms) {
+            Map<Long, Float> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((productId, score) -> score + termScores.get(productId));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted((a, b) -> {
+                    int byScore = Float.compare(b.getValue(), a.getValue());
+                    return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+                })
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<Long, Float> scoreTerm(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(term);
+        if (exact != null) {
+            exact.forEach((productId, weight) -> scores.merge(productId, weight, Math::max));
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Map<Long, Float>> entry : postings
+                    .subMap(term, false, term + Character.MAX_VALUE, true).entrySet()) {
+                float factor = PREFIX_MATCH_FACTOR * term.length() / entry.getKey().length();
+                entry.getValue().forEach((productId, weight) ->
+                        scores.merge(productId, weight * factor, Math::max));
+            }
+        }
+        return scores;
+    }
+
+    private void addToIndex(Product product) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.getTitle(), TITLE_WEIGHT);
+        addField(weights, product.getColor(), COLOR_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        Category category = product.getCategory();
+        float categoryWeight = CATEGORY_WEIGHT;
+        for (int depth = 0; category != null && depth < MAX_CATEGORY_DEPTH; depth++) {
+            addField(weights, category.getName(), categoryWeight);
+            addField(weights, category.getCategoryId(), categoryWeight);
+            categoryWeight = PARENT_CATEGORY_WEIGHT;
+            category = category.getParentCategory();
+        }
+
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new ConcurrentHashMap<>())
+                    .put(product.getId(), entry.getValue());
+        }
+        termsByProduct.put(product.getId(), weights.keySet());
+    }
+
+    private void removeFromIndex(Long productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> products = postings.get(term);
+            if (products != null) {
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : new HashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
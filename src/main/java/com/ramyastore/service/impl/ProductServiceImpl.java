@@ -1,26 +1,43 @@
 package com.ramyastore.service.impl;
 
+import com.ramyastore.dto.FacetCount;
+import com.ramyastore.dto.ProductCardDto;
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.dto.ProductFacets;
 import com.ramyastore.exception.ProductException;
+import com.ramyastore.mapper.ProductMapper;
 import com.ramyastore.model.Category;
 import com.ramyastore.model.Product;
 import com.ramyastore.model.Seller;
 import com.ramyastore.repository.CategoryRepository;
 import com.ramyastore.repository.ProductRepository;
 import com.ramyastore.request.CreateProductRequest;
+import com.ramyastore.response.CursorPage;
+import com.ramyastore.service.CategoryTreeService;
+import com.ramyastore.service.ProductCacheService;
+import com.ramyastore.service.ProductSearchService;
 import com.ramyastore.service.ProductService;
-import jakarta.persistence.criteria.Join;
+import com.ramyastore.utils.CursorUtils;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -31,8 +48,21 @@ public class ProductServiceImpl implements ProductService {
     
     private final CategoryRepository categoryRepository;
 
+    private final ProductSearchService productSearchService;
+
+    private final CategoryTreeService categoryTreeService;
+
+    private final ProductCacheService productCacheService;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final int[] PRICE_RANGE_BOUNDS = {500, 1000, 2000, 5000};
+
+    private static final int[] DISCOUNT_THRESHOLDS = {10, 20, 30, 40, 50, 60, 70, 80};
+
 
     @Override
+    @Transactional
     public Product createProduct(CreateProductRequest req,
 
                                  Seller seller
@@ -41,34 +71,10 @@ public class ProductServiceImpl implements ProductService {
 
         int discountPercentage = calculateDiscountPercentage(req.getMrpPrice(), req.getSellingPrice());
 
-        Category category1=categoryRepository.findByCategoryId(req.getCategory());
-        if(category1==null){
-            Category category=new Category();
-            category.setCategoryId(req.getCategory());
-            category.setLevel(1);
-            category.setName(req.getCategory().replace("_"," "));
-            category1=categoryRepository.save(category);
-        }
+        Category category1=resolveCategory(req.getCategory(), 1, null);
+        Category category2=resolveCategory(req.getCategory2(), 2, category1);
+        Category category3=resolveCategory(req.getCategory3(), 3, category2);
 
-        Category category2=categoryRepository.findByCategoryId(req.getCategory2());
-        if(category2==null){
-            Category category=new Category();
-            category.setCategoryId(req.getCategory2());
-            category.setLevel(2);
-            category.setParentCategory(category1);
-            category.setName(req.getCategory2().replace("_"," "));
-            category2=categoryRepository.save(category);
-        }
-        Category category3=categoryRepository.findByCategoryId(req.getCategory3());
-        if(category3==null){
-            Category category=new Category();
-            category.setCategoryId(req.getCategory3());
-            category.setLevel(3);
-            category.setParentCategory(category2);
-            category.setName(req.getCategory3().replace("_"," "));
-            category3=categoryRepository.save(category);
-        }
-        
         Product product=new Product();
 
         product.setSeller(seller);
@@ -81,9 +87,31 @@ public class ProductServiceImpl implements ProductService {
         product.setImages(req.getImages());
         product.setMrpPrice(req.getMrpPrice());
         product.setSizes(req.getSizes());
+        product.setQuantity(req.getQuantity());
         product.setCreatedAt(LocalDateTime.now());
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productSearchService.indexProduct(savedProduct);
+        return savedProduct;
+    }
+
+    private Category resolveCategory(String categoryId, int level, Category parentCategory) {
+        Category existing = categoryTreeService.findByCategoryId(categoryId);
+        if (existing != null) {
+            return existing;
+        }
+        // the tree may be stale if another instance created the category
+        existing = categoryRepository.findByCategoryId(categoryId);
+        if (existing == null) {
+            Category category = new Category();
+            category.setCategoryId(categoryId);
+            category.setLevel(level);
+            category.setParentCategory(parentCategory);
+            category.setName(categoryId.replace("_", " "));
+            existing = categoryRepository.save(category);
+        }
+        categoryTreeService.register(existing);
+        return existing;
     }
 
     public static int calculateDiscountPercentage(double mrpPrice, double sellingPrice) {
@@ -96,36 +124,75 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long productId) throws ProductException {
-        Product product=findProductById(productId);
+        Product product=loadProduct(productId);
         productRepository.delete(product);
+        productCacheService.evict(productId);
+        productSearchService.removeProduct(productId);
 
     }
 
     @Override
+    @Transactional
     public Product updateProduct(Long productId, Product product) throws ProductException {
-        productRepository.findById(productId);
-        product.setId(productId);
-        return productRepository.save(product);
+        // only seller-editable fields are copied; rating aggregates, stock, seller,
+        // reviews and createdAt are maintained elsewhere and must not be overwritten
+        Product existing = loadProduct(productId);
+        existing.setTitle(product.getTitle());
+        existing.setDescription(product.getDescription());
+        existing.setMrpPrice(product.getMrpPrice());
+        existing.setSellingPrice(product.getSellingPrice());
+        existing.setDiscountPercent(product.getDiscountPercent());
+        existing.setColor(product.getColor());
+        existing.setImages(product.getImages() != null ? product.getImages() : new ArrayList<>());
+        existing.setSizes(product.getSizes());
+        existing.setIn_stock(product.isIn_stock());
+        if (product.getCategory() != null) {
+            existing.setCategory(product.getCategory());
+        }
+        Product updatedProduct = productRepository.save(existing);
+        productCacheService.evict(productId);
+        productSearchService.indexProduct(updatedProduct);
+        return updatedProduct;
 
     }
 
     @Override
+    @Transactional
     public Product updateProductStock(Long productId) throws ProductException {
-        Product product = this.findProductById(productId);
+        Product product = loadProduct(productId);
         product.setIn_stock(!product.isIn_stock());
-        return productRepository.save(product);
+        Product updatedProduct = productRepository.save(product);
+        productCacheService.evict(productId);
+        return updatedProduct;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product findProductById(Long id) throws ProductException {
+        // a fresh detached copy per call, so no two sessions share an instance
+        return ProductMapper.toProduct(getProductDetail(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductDetailDto getProductDetail(Long id) throws ProductException {
+        return productCacheService.get(id, productId -> ProductMapper.toProductDetailDto(loadProduct(productId)));
+    }
+
+    // writes always start from the database, never from a shared cached instance
+    private Product loadProduct(Long id) throws ProductException {
         return productRepository.findById(id)
                 .orElseThrow(()-> new ProductException("product not found"));
     }
 
     @Override
-    public List<Product> searchProduct(String query) {
-        return productRepository.searchProduct(query);
+    public List<Product> searchProduct(String query, Integer pageNumber) {
+        if (pageNumber == null) {
+            return productSearchService.search(query, 0, Integer.MAX_VALUE).getContent();
+        }
+        return productSearchService.search(query, pageNumber, 10).getContent();
     }
 
     @Override
@@ -139,32 +206,268 @@ public class ProductServiceImpl implements ProductService {
                                        String sort,
                                        String stock,
                                        Integer pageNumber) {
-        Specification<Product> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Specification<Product> spec = buildSpecification(category, color, size,
+                minPrice, maxPrice, minDiscount, stock);
+        return productRepository.findAll(spec, listingPageable(sort, pageNumber));
+    }
+
+    @Override
+    public Page<ProductCardDto> getAllProductCards(String category,
+                                                   String brand,
+                                                   String color,
+                                                   String size,
+                                                   Integer minPrice,
+                                                   Integer maxPrice,
+                                                   Integer minDiscount,
+                                                   String sort,
+                                                   String stock,
+                                                   Integer pageNumber) {
+        Specification<Product> spec = buildSpecification(category, color, size,
+                minPrice, maxPrice, minDiscount, stock);
+        return productRepository.findCards(spec, listingPageable(sort, pageNumber));
+    }
+
+    @Override
+    public Page<ProductCardDto> searchProductCards(String query, Integer pageNumber) {
+        Page<Long> ids = productSearchService.searchIds(query, pageNumber != null ? pageNumber : 0, 10);
+        Map<Long, ProductCardDto> cardsById = new HashMap<>();
+        productRepository.findCardsByIds(ids.getContent())
+                .forEach(card -> cardsById.put(card.getId(), card));
+        List<ProductCardDto> content = ids.getContent().stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private static Pageable listingPageable(String sort, Integer pageNumber) {
+        int page = pageNumber != null ? Math.max(pageNumber, 0) : 0;
+        if (sort == null || sort.isEmpty()) {
+            return PageRequest.of(page, 10, Sort.unsorted());
+        }
+        return switch (sort) {
+            case "price_low" -> PageRequest.of(page, 10, Sort.by("sellingPrice").ascending());
+            case "price_high" -> PageRequest.of(page, 10, Sort.by("sellingPrice").descending());
+            case "rating" -> PageRequest.of(page, 10, Sort.by(Sort.Direction.DESC,
+                    "ratingSummary.averageRating", "ratingSummary.ratingCount"));
+            default -> PageRequest.of(page, 10, Sort.unsorted());
+        };
+    }
+
+    @Override
+    public CursorPage<Product> getAllProductByCursor(String category,
+                                                     String brand,
+                                                     String color,
+                                                     String size,
+                                                     Integer minPrice,
+                                                     Integer maxPrice,
+                                                     Integer minDiscount,
+                                                     String sort,
+                                                     String stock,
+                                                     String cursor,
+                                                     Integer pageSize,
+                                                     boolean includeTotal) throws ProductException {
+        int limit = pageSize == null || pageSize <= 0 ? 10 : Math.min(pageSize, MAX_CURSOR_PAGE_SIZE);
+        String sortKey = cursorSortKey(sort);
+
+        Specification<Product> filter = buildSpecification(category, color, size,
+                minPrice, maxPrice, minDiscount, stock);
+        Specification<Product> spec = filter;
+        if (sortKey.equals("newest")) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.isNotNull(root.get("createdAt")));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            spec = spec.and(seekAfter(sortKey, cursor));
+        }
 
+        Sort order = cursorSort(sortKey);
+        List<Product> rows = productRepository.findBy(spec,
+                query -> query.sortBy(order).limit(limit + 1).all());
 
-            if (category != null) {
-                Join<Product, Category> categoryJoin = root.join("category");
-//                predicates.add(criteriaBuilder.equal(categoryJoin.get("categoryId"), category));
-//                predicates.add(criteriaBuilder.equal(categoryJoin.get("parentCategory").get("categoryId"), category));
-                Predicate categoryPredicate = criteriaBuilder.or(
-                        criteriaBuilder.equal(categoryJoin.get("categoryId"), category),  // Match categoryId
-                        criteriaBuilder.equal(categoryJoin.get("parentCategory").get("categoryId"), category)  // Match parentCategory.categoryId
-                );
+        boolean hasNext = rows.size() > limit;
+        List<Product> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encodeCursor(sortKey, content.get(content.size() - 1)) : null;
+        Long totalElements = includeTotal ? productRepository.count(filter) : null;
 
+        return new CursorPage<>(content, nextCursor, hasNext, totalElements);
+    }
 
-                predicates.add(categoryPredicate);
+    @Override
+    public ProductFacets getProductFacets(String category,
+                                          String brand,
+                                          String color,
+                                          String size,
+                                          Integer minPrice,
+                                          Integer maxPrice,
+                                          Integer minDiscount,
+                                          String stock) {
+        // color, price and discount filters are folded into the buckets rather than
+        // the where clause, so each facet is counted with every filter except its own
+        Specification<Product> spec = buildSpecification(category, null, size,
+                null, null, null, stock);
+        List<Object[]> rows = productRepository.countFacetBuckets(spec, PRICE_RANGE_BOUNDS,
+                DISCOUNT_THRESHOLDS, minPrice, maxPrice, minDiscount);
+
+        Map<String, Long> colorCounts = new HashMap<>();
+        long[] priceCounts = new long[PRICE_RANGE_BOUNDS.length + 1];
+        long[] discountCounts = new long[DISCOUNT_THRESHOLDS.length];
+        long total = 0;
+
+        for (Object[] row : rows) {
+            String rowColor = (String) row[0];
+            int priceIndex = ((Number) row[1]).intValue();
+            int discountIndex = ((Number) row[2]).intValue();
+            boolean priceMatch = ((Number) row[3]).intValue() == 1;
+            boolean discountMatch = ((Number) row[4]).intValue() == 1;
+            long count = ((Number) row[5]).longValue();
+
+            // same comparison as the listing's color = ? under the column's case-insensitive collation
+            boolean colorMatch = color == null || color.isEmpty() || color.equalsIgnoreCase(rowColor);
+
+            if (priceMatch && discountMatch && rowColor != null) {
+                colorCounts.merge(rowColor, count, Long::sum);
+            }
+            if (colorMatch && discountMatch) {
+                priceCounts[priceIndex] += count;
+            }
+            if (colorMatch && priceMatch) {
+                for (int i = 0; i < discountIndex; i++) {
+                    discountCounts[i] += count;
+                }
             }
+            if (colorMatch && priceMatch && discountMatch) {
+                total += count;
+            }
+        }
+
+        ProductFacets facets = new ProductFacets();
+        facets.setTotal(total);
+        colorCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> facets.getColors().add(new FacetCount(entry.getKey(), entry.getValue())));
+        for (int i = 0; i < priceCounts.length; i++) {
+            facets.getPriceRanges().add(new FacetCount(priceRangeLabel(i), priceCounts[i]));
+        }
+        for (int i = 0; i < discountCounts.length; i++) {
+            facets.getDiscounts().add(new FacetCount(String.valueOf(DISCOUNT_THRESHOLDS[i]), discountCounts[i]));
+        }
+        return facets;
+    }
+
+    private static String priceRangeLabel(int index) {
+        int from = index == 0 ? 0 : PRICE_RANGE_BOUNDS[index - 1];
+        return index == PRICE_RANGE_BOUNDS.length
+                ? from + "+"
+                : from + "-" + (PRICE_RANGE_BOUNDS[index] - 1);
+    }
+
+    private static String cursorSortKey(String sort) {
+        if (sort == null) {
+            return "id";
+        }
+        return switch (sort) {
+            case "price_low", "price_high", "newest" -> sort;
+            default -> "id";
+        };
+    }
+
+    private static Sort cursorSort(String sortKey) {
+        return switch (sortKey) {
+            case "price_low" -> Sort.by(Sort.Direction.ASC, "sellingPrice", "id");
+            case "price_high" -> Sort.by(Sort.Direction.DESC, "sellingPrice", "id");
+            case "newest" -> Sort.by(Sort.Direction.DESC, "createdAt", "id");
+            default -> Sort.by(Sort.Direction.ASC, "id");
+        };
+    }
 
+    private static String encodeCursor(String sortKey, Product last) {
+        String value = switch (sortKey) {
+            case "price_low", "price_high" -> String.valueOf(last.getSellingPrice());
+            case "newest" -> last.getCreatedAt().toString();
+            default -> "";
+        };
+        return CursorUtils.encode(sortKey, value, String.valueOf(last.getId()));
+    }
+
+    private static Specification<Product> seekAfter(String sortKey, String cursor) throws ProductException {
+        String[] parts = CursorUtils.decode(cursor, 3);
+        if (parts == null || !parts[0].equals(sortKey)) {
+            throw new ProductException("invalid cursor");
+        }
+        try {
+            Long id = Long.valueOf(parts[2]);
+            return switch (sortKey) {
+                case "price_low" -> seek("sellingPrice", Integer.valueOf(parts[1]), id, true);
+                case "price_high" -> seek("sellingPrice", Integer.valueOf(parts[1]), id, false);
+                case "newest" -> seek("createdAt", LocalDateTime.parse(parts[1]), id, false);
+                default -> (root, query, criteriaBuilder) ->
+                        criteriaBuilder.greaterThan(root.<Long>get("id"), id);
+            };
+        } catch (RuntimeException e) {
+            throw new ProductException("invalid cursor");
+        }
+    }
+
+    // rows strictly after (value, id) in the given direction
+    private static <Y extends Comparable<? super Y>> Specification<Product> seek(String attribute,
+                                                                                  Y value,
+                                                                                  Long id,
+                                                                                  boolean ascending) {
+        return (root, query, criteriaBuilder) -> {
+            Predicate sameValue = criteriaBuilder.equal(root.get(attribute), value);
+            if (ascending) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(root.<Y>get(attribute), value),
+                        criteriaBuilder.and(sameValue, criteriaBuilder.greaterThan(root.<Long>get("id"), id)));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.<Y>get(attribute), value),
+                    criteriaBuilder.and(sameValue, criteriaBuilder.lessThan(root.<Long>get("id"), id)));
+        };
+    }
+
+    // "in_stock"/"true" or "out_of_stock"/"false"; anything else leaves stock unfiltered
+    private static Boolean parseStockFilter(String stock) {
+        if (stock == null) {
+            return null;
+        }
+        return switch (stock.trim().toLowerCase(Locale.ROOT)) {
+            case "in_stock", "true" -> Boolean.TRUE;
+            case "out_of_stock", "false" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    private Specification<Product> buildSpecification(String category,
+                                                      String color,
+                                                      String size,
+                                                      Integer minPrice,
+                                                      Integer maxPrice,
+                                                      Integer minDiscount,
+                                                      String stock) {
+        Set<Long> categoryIds = category != null ? categoryTreeService.findDescendantIds(category) : null;
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+
+            if (categoryIds != null) {
+                predicates.add(categoryIds.isEmpty()
+                        ? criteriaBuilder.disjunction()
+                        : root.get("category").get("id").in(categoryIds));
+            }
 
             if (color != null && !color.isEmpty()) {
                 System.out.println("color "+color);
                 predicates.add(criteriaBuilder.equal(root.get("color"), color));
             }
 
-            // Filter by size (single value)
+            // Sizes holds a comma separated list such as "S,M,L"; match one entry of it
             if (size != null && !size.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("size"), size));
+                Expression<String> sizes = criteriaBuilder.concat(
+                        criteriaBuilder.concat(",", root.<String>get("Sizes")), ",");
+                predicates.add(criteriaBuilder.like(sizes, "%," + size.trim() + ",%"));
             }
 
             if (minPrice != null) {
@@ -182,27 +485,13 @@ public class ProductServiceImpl implements ProductService {
                         minDiscount));
             }
 
-            if (stock != null) {
-                predicates.add(criteriaBuilder.equal(root.get("stock"), stock));
+            Boolean inStock = parseStockFilter(stock);
+            if (inStock != null) {
+                predicates.add(criteriaBuilder.equal(root.get("in_stock"), inStock));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-        Pageable pageable;
-        if (sort != null && !sort.isEmpty()) {
-            pageable = switch (sort) {
-                case "price_low" ->
-                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.by("sellingPrice").ascending());
-                case "price_high" ->
-                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.by("sellingPrice").descending());
-                default -> PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.unsorted());
-            };
-        } else {
-            pageable = PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.unsorted());
-        }
-
-
-        return productRepository.findAll(spec, pageable);
     }
 
     @Override
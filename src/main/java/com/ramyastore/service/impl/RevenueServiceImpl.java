@@ -1,127 +1,112 @@
 package com.ramyastore.service.impl;
 
+import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.PaymentStatus;
 import com.ramyastore.dto.RevenueChart;
 import com.ramyastore.model.Order;
-import com.ramyastore.repository.OrderRepository;
+import com.ramyastore.repository.MigrationMarkerRepository;
+import com.ramyastore.repository.SellerRevenueRollupRepository;
 import com.ramyastore.service.RevenueService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Charts are read from the hourly seller revenue rollup with one grouped
+ * query per chart; buckets without paid orders are filled with zero.
+ */
 @Service
 @RequiredArgsConstructor
 public class RevenueServiceImpl implements RevenueService {
 
-    private final OrderRepository orderRepository;
+    private final SellerRevenueRollupRepository rollupRepository;
+
+    private final MigrationMarkerRepository migrationMarkerRepository;
+
+    private static final String ROLLUP_BACKFILL = "seller_revenue_hourly_from_orders";
 
     // Get daily revenue data for the past X days
     public List<RevenueChart> getDailyRevenueForChart(int days,Long sellerId) {
-        List<RevenueChart> revenueData = new ArrayList<>();
         LocalDate currentDate = LocalDate.now();
+        LocalDate firstDay = currentDate.minusDays(days - 1);
 
+        Map<LocalDate, Double> revenueByDay = new HashMap<>();
+        for (Object[] row : rollupRepository.sumRevenueByDay(sellerId,
+                firstDay.atStartOfDay(), currentDate.plusDays(1).atStartOfDay())) {
+            LocalDate day = LocalDate.of(intValue(row[0]), intValue(row[1]), intValue(row[2]));
+            revenueByDay.put(day, doubleValue(row[3]));
+        }
+
+        List<RevenueChart> revenueData = new ArrayList<>();
         for (int i = days - 1; i >= 0; i--) {
             LocalDate date = currentDate.minusDays(i);
-            double dailyRevenue = orderRepository
-                    .findBySellerIdAndOrderDateBetween(sellerId,date.atStartOfDay(), date.plusDays(1).atStartOfDay())
-                    .stream()
-                    .mapToDouble(Order::getTotalSellingPrice)
-                    .sum();
-
-            RevenueChart revenueChart=new RevenueChart();
-            revenueChart.setRevenue(dailyRevenue);
-            revenueChart.setDate(date.toString());
-
-            revenueData.add(revenueChart);
+            revenueData.add(chart(date.toString(), revenueByDay.getOrDefault(date, 0.0)));
         }
-
         return revenueData;
     }
 
     // Get monthly revenue data for the past X months
     public List<RevenueChart> getMonthlyRevenueForChart(int months,Long sellerId) {
-        List<RevenueChart> revenueData = new ArrayList<>();
-        LocalDate currentDate = LocalDate.now();
-
-        for (int i = months - 1; i >= 0; i--) {
-            LocalDate date = currentDate.minusMonths(i);
-            LocalDate startOfMonth = date.withDayOfMonth(1);
-            LocalDate startOfNextMonth = startOfMonth.plusMonths(1);
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth firstMonth = currentMonth.minusMonths(months - 1);
 
-            double monthlyRevenue = orderRepository
-                    .findBySellerIdAndOrderDateBetween(sellerId,startOfMonth.atStartOfDay(), startOfNextMonth.atStartOfDay())
-                    .stream()
-                    .mapToDouble(Order::getTotalSellingPrice)
-                    .sum();
-
-            RevenueChart revenueChart=new RevenueChart();
-            revenueChart.setRevenue(monthlyRevenue);
-            revenueChart.setDate( date.getYear() + "-" + String.format("%02d", date.getMonthValue()));
-
-            revenueData.add(revenueChart);
+        Map<YearMonth, Double> revenueByMonth = new HashMap<>();
+        for (Object[] row : rollupRepository.sumRevenueByMonth(sellerId,
+                firstMonth.atDay(1).atStartOfDay(), currentMonth.plusMonths(1).atDay(1).atStartOfDay())) {
+            revenueByMonth.put(YearMonth.of(intValue(row[0]), intValue(row[1])), doubleValue(row[2]));
         }
 
+        List<RevenueChart> revenueData = new ArrayList<>();
+        for (int i = months - 1; i >= 0; i--) {
+            YearMonth month = currentMonth.minusMonths(i);
+            revenueData.add(chart(month.getYear() + "-" + String.format("%02d", month.getMonthValue()),
+                    revenueByMonth.getOrDefault(month, 0.0)));
+        }
         return revenueData;
     }
 
     // Get yearly revenue data for the past X years
     public List<RevenueChart> getYearlyRevenueForChart(int years,Long sellerId) {
-        List<RevenueChart> revenueData = new ArrayList<>();
-        LocalDate currentDate = LocalDate.now();
-
-        for (int i = years - 1; i >= 0; i--) {
-            LocalDate startOfYear = currentDate.minusYears(i).withDayOfYear(1);
-            LocalDate startOfNextYear = startOfYear.plusYears(1);
-
-            double yearlyRevenue = orderRepository
-                    .findBySellerIdAndOrderDateBetween(sellerId,startOfYear.atStartOfDay(), startOfNextYear.atStartOfDay())
-                    .stream()
-                    .mapToDouble(Order::getTotalSellingPrice)
-                    .sum();
+        int currentYear = LocalDate.now().getYear();
+        int firstYear = currentYear - years + 1;
 
-            RevenueChart revenueChart=new RevenueChart();
-            revenueChart.setRevenue(yearlyRevenue);
-            revenueChart.setDate(String.valueOf(startOfYear.getYear()));
-            revenueData.add(revenueChart);
+        Map<Integer, Double> revenueByYear = new HashMap<>();
+        for (Object[] row : rollupRepository.sumRevenueByYear(sellerId,
+                LocalDate.of(firstYear, 1, 1).atStartOfDay(), LocalDate.of(currentYear + 1, 1, 1).atStartOfDay())) {
+            revenueByYear.put(intValue(row[0]), doubleValue(row[1]));
         }
 
+        List<RevenueChart> revenueData = new ArrayList<>();
+        for (int year = firstYear; year <= currentYear; year++) {
+            revenueData.add(chart(String.valueOf(year), revenueByYear.getOrDefault(year, 0.0)));
+        }
         return revenueData;
     }
 
     @Override
     public List<RevenueChart> getHourlyRevenueForChart(Long sellerId) {
-        List<RevenueChart> revenueData = new ArrayList<>();
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
 
-        // Get the current date
-        LocalDate currentDate = LocalDate.now();
-
-        // Define the start of the day (12 AM, or 00:00) and loop through 24 hours
-        LocalDateTime startOfDay = currentDate.atStartOfDay(); // 12 AM (00:00) of the current day
-
-        // Loop through each hour of the day from 12 AM to 11:59 PM
-        for (int i = 0; i < 24; i++) {
-            LocalDateTime startOfHour = startOfDay.plusHours(i);
-            LocalDateTime startOfNextHour = startOfHour.plusHours(1); // Next hour boundary
-
-            // Calculate revenue for this hour (from startOfHour to startOfNextHour)
-            double hourlyRevenue = orderRepository
-                    .findBySellerIdAndOrderDateBetween(sellerId, startOfHour, startOfNextHour)
-                    .stream()
-                    .mapToDouble(Order::getTotalSellingPrice)
-                    .sum();
-
-            // Prepare the data for this hour
-            RevenueChart revenueChart = new RevenueChart();
-            revenueChart.setRevenue(hourlyRevenue);
-            revenueChart.setDate(startOfHour.getHour() + ":00");  // Format as "HH:00" (e.g., "00:00", "01:00")
-
-            // Add the hourly revenue data to the list
-            revenueData.add(revenueChart);
+        double[] revenueByHour = new double[24];
+        for (Object[] row : rollupRepository.sumRevenueByHour(sellerId, startOfDay, startOfDay.plusDays(1))) {
+            revenueByHour[intValue(row[0])] = doubleValue(row[1]);
         }
 
+        List<RevenueChart> revenueData = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            revenueData.add(chart(hour + ":00", revenueByHour[hour]));
+        }
         return revenueData;
     }
 
@@ -136,4 +121,51 @@ public class RevenueServiceImpl implements RevenueService {
         else return this.getHourlyRevenueForChart(sellerId);
     }
 
+    @Override
+    public void recordOrderPaid(Order order) {
+        addToRollup(order, 1);
+    }
+
+    @Override
+    public void recordPaidOrderCancelled(Order order) {
+        addToRollup(order, -1);
+    }
+
+    // build the rollup once from existing paid orders; rows written before the
+    // marker existed are replaced, since the backfill recomputes every bucket
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillRollup() {
+        if (migrationMarkerRepository.markApplied(ROLLUP_BACKFILL, LocalDateTime.now()) == 1) {
+            rollupRepository.deleteAllInBatch();
+            rollupRepository.backfillFromOrders(PaymentStatus.COMPLETED.ordinal(),
+                    OrderStatus.CANCELLED.ordinal());
+        }
+    }
+
+    private void addToRollup(Order order, int sign) {
+        if (order.getSellerId() == null || order.getOrderDate() == null) {
+            return;
+        }
+        long revenue = order.getTotalSellingPrice() != null ? order.getTotalSellingPrice() : 0;
+        rollupRepository.addRevenue(order.getSellerId(),
+                order.getOrderDate().truncatedTo(ChronoUnit.HOURS),
+                sign * revenue,
+                sign);
+    }
+
+    private static RevenueChart chart(String date, double revenue) {
+        RevenueChart revenueChart = new RevenueChart();
+        revenueChart.setDate(date);
+        revenueChart.setRevenue(revenue);
+        return revenueChart;
+    }
+
+    private static int intValue(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    private static double doubleValue(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
 }
@@ -1,26 +1,50 @@
 package com.ramyastore.service.impl;
 
+import com.ramyastore.dto.ReviewDto;
+import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.ReviewNotFoundException;
+import com.ramyastore.mapper.ReviewMapper;
 import com.ramyastore.model.Product;
+import com.ramyastore.model.RatingSummary;
 import com.ramyastore.model.Review;
 import com.ramyastore.model.User;
+import com.ramyastore.repository.ProductRepository;
 import com.ramyastore.repository.ReviewRepository;
 import com.ramyastore.request.CreateReviewRequest;
+import com.ramyastore.response.CursorPage;
+import com.ramyastore.response.ReviewPage;
+import com.ramyastore.service.ProductCacheService;
 import com.ramyastore.service.ReviewService;
+import com.ramyastore.utils.CursorUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.naming.AuthenticationException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
 
+    private static final int MAX_REVIEW_PAGE_SIZE = 50;
+
+    // latest value a MySQL DATETIME can hold, used as the first-page cursor
+    private static final LocalDateTime LAST_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final ReviewRepository reviewRepository;
 
+    private final ProductRepository productRepository;
+
+    private final ProductCacheService productCacheService;
+
 
     @Override
+    @Transactional
     public Review createReview(CreateReviewRequest req,
                                User user,
                                Product product) {
@@ -32,9 +56,10 @@ public class ReviewServiceImpl implements ReviewService {
         newReview.setUser(user);
         newReview.setProduct(product);
 
-        product.getReviews().add(newReview);
-
-        return reviewRepository.save(newReview);
+        Review savedReview = reviewRepository.save(newReview);
+        adjustRatingSummary(product.getId(), null, savedReview.getRating());
+        productCacheService.evict(product.getId());
+        return savedReview;
     }
 
     @Override
@@ -42,8 +67,61 @@ public class ReviewServiceImpl implements ReviewService {
         return reviewRepository.findReviewsByProductId(productId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewPage getReviewPage(Long productId,
+                                    String sort,
+                                    String cursor,
+                                    Integer pageSize) throws ProductException {
+        int limit = pageSize == null || pageSize <= 0 ? 10 : Math.min(pageSize, MAX_REVIEW_PAGE_SIZE);
+        String sortKey = sort == null ? "newest" : switch (sort) {
+            case "rating", "with_images" -> sort;
+            default -> "newest";
+        };
+
+        double rating = Double.MAX_VALUE;
+        LocalDateTime createdAt = LAST_CREATED_AT;
+        Long id = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = CursorUtils.decode(cursor, 4);
+            if (parts == null || !parts[0].equals(sortKey)) {
+                throw new ProductException("invalid cursor");
+            }
+            try {
+                rating = sortKey.equals("rating") ? Double.parseDouble(parts[1]) : rating;
+                createdAt = LocalDateTime.parse(parts[2]);
+                id = Long.valueOf(parts[3]);
+            } catch (RuntimeException e) {
+                throw new ProductException("invalid cursor");
+            }
+        }
+
+        Limit fetch = Limit.of(limit + 1);
+        List<Review> rows = switch (sortKey) {
+            case "rating" -> reviewRepository.findHighestRatedAfter(productId, rating, createdAt, id, fetch);
+            case "with_images" -> reviewRepository.findWithImagesAfter(productId, createdAt, id, fetch);
+            default -> reviewRepository.findNewestAfter(productId, createdAt, id, fetch);
+        };
+
+        boolean hasNext = rows.size() > limit;
+        List<Review> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Review last = pageRows.get(pageRows.size() - 1);
+            nextCursor = CursorUtils.encode(sortKey,
+                    sortKey.equals("rating") ? String.valueOf(last.getRating()) : "",
+                    last.getCreatedAt().toString(),
+                    String.valueOf(last.getId()));
+        }
+
+        List<ReviewDto> content = pageRows.stream().map(ReviewMapper::toReviewDto).toList();
+        return new ReviewPage(productRepository.findRatingSummaryById(productId),
+                new CursorPage<>(content, nextCursor, hasNext, null));
+    }
+
 
     @Override
+    @Transactional
     public Review updateReview(Long reviewId,
                                String reviewText,
                                double rating,
@@ -55,12 +133,17 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AuthenticationException("You do not have permission to delete this review");
         }
 
+        double previousRating = review.getRating();
         review.setReviewText(reviewText);
         review.setRating(rating);
-        return reviewRepository.save(review);
+        Review updatedReview = reviewRepository.save(review);
+        adjustRatingSummary(review.getProduct().getId(), previousRating, rating);
+        productCacheService.evict(review.getProduct().getId());
+        return updatedReview;
     }
 
     @Override
+    @Transactional
     public void deleteReview(Long reviewId,Long userId) throws ReviewNotFoundException,
             AuthenticationException {
         Review review=reviewRepository.findById(reviewId)
@@ -69,6 +152,46 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AuthenticationException("You do not have permission to delete this review");
         }
         reviewRepository.delete(review);
+        adjustRatingSummary(review.getProduct().getId(), review.getRating(), null);
+        productCacheService.evict(review.getProduct().getId());
+    }
+
+    // a null side means the review did not exist before / does not exist after
+    private void adjustRatingSummary(Long productId, Double removedRating, Double addedRating) {
+        int countDelta = 0;
+        double sumDelta = 0;
+        int[] starDelta = new int[6];
+        if (removedRating != null) {
+            countDelta--;
+            sumDelta -= removedRating;
+            starDelta[RatingSummary.starOf(removedRating)]--;
+        }
+        if (addedRating != null) {
+            countDelta++;
+            sumDelta += addedRating;
+            starDelta[RatingSummary.starOf(addedRating)]++;
+        }
+        productRepository.adjustRatingSummary(productId, countDelta, sumDelta,
+                starDelta[1], starDelta[2], starDelta[3], starDelta[4], starDelta[5]);
+    }
+
+    // products reviewed before rating summaries existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillRatingSummaries() {
+        for (Object[] row : reviewRepository.summarizeRatingsForUnsummarizedProducts()) {
+            int count = ((Number) row[1]).intValue();
+            double sum = ((Number) row[2]).doubleValue();
+            RatingSummary summary = new RatingSummary(count, sum, count > 0 ? sum / count : 0,
+                    ((Number) row[3]).intValue(), ((Number) row[4]).intValue(),
+                    ((Number) row[5]).intValue(), ((Number) row[6]).intValue(),
+                    ((Number) row[7]).intValue());
+            productRepository.findById((Long) row[0]).ifPresent(product -> {
+                product.setRatingSummary(summary);
+                product.setNumRatings(count);
+                productCacheService.evict(product.getId());
+            });
+        }
     }
 
 }
@@ -3,16 +3,44 @@ package com.ramyastore.service.impl;
 import com.ramyastore.model.Seller;
 import com.ramyastore.model.SellerReport;
 import com.ramyastore.repository.SellerReportRepository;
+import com.ramyastore.repository.SellerRepository;
 import com.ramyastore.service.SellerReportService;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cancellations are added to per-seller LongAdders and written with one
+ * {@code x = x + ?} update per seller on a schedule, or sooner once enough
+ * events are pending. Reads add the unflushed deltas to the stored report.
+ * Paid orders are applied by the payment outbox in the same transaction that
+ * marks their event done, so they are never buffered here.
+ */
 @Service
-@RequiredArgsConstructor
 public class SellerReportServiceImpl implements SellerReportService {
 
     private final SellerReportRepository sellerReportRepository;
+    private final SellerRepository sellerRepository;
+    private final long flushThreshold;
+
+    private final Map<Long, PendingCounters> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
 
+    public SellerReportServiceImpl(SellerReportRepository sellerReportRepository,
+                                   SellerRepository sellerRepository,
+                                   @Value("${seller.report.flush-threshold:1000}") long flushThreshold) {
+        this.sellerReportRepository = sellerReportRepository;
+        this.sellerRepository = sellerRepository;
+        this.flushThreshold = flushThreshold;
+    }
 
     @Override
     public SellerReport getSellerReport(Seller seller) {
@@ -20,9 +48,10 @@ public class SellerReportServiceImpl implements SellerReportService {
         if(report == null){
             SellerReport newReport = new SellerReport();
             newReport.setSeller(seller);
-            return sellerReportRepository.save(newReport);
+            report = sellerReportRepository.save(newReport);
         }
-        return report;
+        PendingCounters counters = pending.get(seller.getId());
+        return counters == null ? report : counters.mergeInto(report);
     }
 
 
@@ -32,4 +61,112 @@ public class SellerReportServiceImpl implements SellerReportService {
         return sellerReportRepository.save(sellerReport);
     }
 
+    @Override
+    public void recordOrderCancelled(Long sellerId, long refund) {
+        PendingCounters counters = countersFor(sellerId);
+        counters.canceledOrders.increment();
+        counters.totalRefunds.add(refund);
+        afterRecord();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${seller.report.flush-interval-ms:5000}")
+    public int flush() {
+        // one flusher at a time; a caller that loses the race leaves the work to it
+        if (!flushLock.tryLock()) {
+            return 0;
+        }
+        try {
+            pendingEvents.set(0);
+            int flushed = 0;
+            for (Map.Entry<Long, PendingCounters> entry : pending.entrySet()) {
+                long[] deltas = entry.getValue().drain();
+                if (isZero(deltas)) {
+                    continue;
+                }
+                try {
+                    write(entry.getKey(), deltas);
+                    flushed++;
+                } catch (RuntimeException e) {
+                    // keep the deltas for the next flush rather than dropping them
+                    entry.getValue().restore(deltas);
+                }
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(Long sellerId, long[] deltas) {
+        if (addCounters(sellerId, deltas) == 0) {
+            SellerReport report = new SellerReport();
+            report.setSeller(sellerRepository.getReferenceById(sellerId));
+            sellerReportRepository.save(report);
+            addCounters(sellerId, deltas);
+        }
+    }
+
+    private int addCounters(Long sellerId, long[] deltas) {
+        return sellerReportRepository.addCounters(sellerId, 0, 0, 0, (int) deltas[0], deltas[1]);
+    }
+
+    private PendingCounters countersFor(Long sellerId) {
+        return pending.computeIfAbsent(sellerId, id -> new PendingCounters());
+    }
+
+    private void afterRecord() {
+        if (pendingEvents.incrementAndGet() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    private static boolean isZero(long[] deltas) {
+        for (long delta : deltas) {
+            if (delta != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class PendingCounters {
+
+        private final LongAdder canceledOrders = new LongAdder();
+        private final LongAdder totalRefunds = new LongAdder();
+
+        // sumThenReset swaps each cell to zero, so concurrent adds land in this drain or the next
+        long[] drain() {
+            return new long[]{
+                    canceledOrders.sumThenReset(),
+                    totalRefunds.sumThenReset()
+            };
+        }
+
+        void restore(long[] deltas) {
+            canceledOrders.add(deltas[0]);
+            totalRefunds.add(deltas[1]);
+        }
+
+        // a detached copy, so a later flush of the open session cannot persist the deltas
+        SellerReport mergeInto(SellerReport stored) {
+            SellerReport merged = new SellerReport();
+            merged.setId(stored.getId());
+            merged.setSeller(stored.getSeller());
+            merged.setTotalEarnings(stored.getTotalEarnings());
+            merged.setTotalSales(stored.getTotalSales());
+            merged.setTotalRefunds(stored.getTotalRefunds() + totalRefunds.sum());
+            merged.setTotalTax(stored.getTotalTax());
+            merged.setNetEarnings(stored.getNetEarnings());
+            merged.setTotalOrders(stored.getTotalOrders());
+            merged.setCanceledOrders(stored.getCanceledOrders() + (int) canceledOrders.sum());
+            merged.setTotalTransactions(stored.getTotalTransactions());
+            return merged;
+        }
+    }
 }
@@ -8,6 +8,7 @@ import com.ramyastore.model.Address;
 import com.ramyastore.model.Seller;
 import com.ramyastore.repository.AddressRepository;
 import com.ramyastore.repository.SellerRepository;
+import com.ramyastore.service.IdentityService;
 import com.ramyastore.service.SellerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,6 +25,7 @@ public class SellerServiceImpl implements SellerService {
     private final AddressRepository addressRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
+    private final IdentityService identityService;
 
 
     @Override
@@ -86,7 +88,7 @@ public class SellerServiceImpl implements SellerService {
         Seller existingSeller = sellerRepository.findById(id)
                 .orElseThrow(() ->
                         new SellerException("Seller not found with id " + id));
-
+        String previousEmail = existingSeller.getEmail();
 
         if (seller.getSellerName() != null) {
             existingSeller.setSellerName(seller.getSellerName());
@@ -141,14 +143,19 @@ public class SellerServiceImpl implements SellerService {
         }
 
 
-        return sellerRepository.save(existingSeller);
+        Seller savedSeller = sellerRepository.save(existingSeller);
+        identityService.evictSeller(previousEmail);
+        identityService.evictSeller(savedSeller.getEmail());
+        return savedSeller;
 
     }
 
     @Override
     public void deleteSeller(Long id) throws SellerException {
-        if (sellerRepository.existsById(id)) {
+        Optional<Seller> seller = sellerRepository.findById(id);
+        if (seller.isPresent()) {
             sellerRepository.deleteById(id);
+            identityService.evictSeller(seller.get().getEmail());
         } else {
             throw new SellerException("Seller not found with id " + id);
         }
@@ -165,6 +172,8 @@ public class SellerServiceImpl implements SellerService {
     public Seller updateSellerAccountStatus(Long sellerId, AccountStatus status) throws SellerException {
         Seller seller = this.getSellerById(sellerId);
         seller.setAccountStatus(status);
-        return sellerRepository.save(seller);
+        Seller savedSeller = sellerRepository.save(seller);
+        identityService.evictSeller(savedSeller.getEmail());
+        return savedSeller;
     }
 }
@@ -4,6 +4,7 @@ import com.ramyastore.exception.WishlistNotFoundException;
 import com.ramyastore.model.Product;
 import com.ramyastore.model.User;
 import com.ramyastore.model.Wishlist;
+import com.ramyastore.repository.UserRepository;
 import com.ramyastore.repository.WishlistRepository;
 import com.ramyastore.service.WishlistService;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 public class WishlistServiceImpl implements WishlistService {
 
     private final WishlistRepository wishlistRepository;
+    private final UserRepository userRepository;
 
 
     @Override
@@ -24,21 +26,25 @@ public class WishlistServiceImpl implements WishlistService {
     }
 
     @Override
-    public Wishlist getWishlistByUserId(User user) {
-        Wishlist wishlist = wishlistRepository.findByUserId(user.getId());
+    public Wishlist getWishlistByUserId(Long userId) {
+        Wishlist wishlist = wishlistRepository.findByUserId(userId);
         if (wishlist == null) {
-            wishlist = this.createWishlist(user);
+            // only a first visit needs the user row
+            wishlist = this.createWishlist(userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalStateException("user not found with id " + userId)));
         }
         return wishlist;
     }
 
     @Override
-    public Wishlist addProductToWishlist(User user, Product product) throws WishlistNotFoundException {
-        Wishlist wishlist = this.getWishlistByUserId(user);
-        if(wishlist.getProducts().contains(product)){
-            wishlist.getProducts().remove(product);
+    public Wishlist addProductToWishlist(Long userId, Product product) throws WishlistNotFoundException {
+        Wishlist wishlist = this.getWishlistByUserId(userId);
+        // compare by id, findProductById hands out a detached copy rather than the managed entity
+        boolean removed = wishlist.getProducts()
+                .removeIf(existing -> existing.getId().equals(product.getId()));
+        if (!removed) {
+            wishlist.getProducts().add(product);
         }
-        else wishlist.getProducts().add(product);
 
         return wishlistRepository.save(wishlist);
     }
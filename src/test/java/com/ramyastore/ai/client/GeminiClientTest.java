@@ -0,0 +1,120 @@
+package com.ramyastore.ai.client;
+
+import com.ramyastore.exception.AiServiceException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiClientTest {
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private GeminiClient geminiClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/models/gemini-pro:generateContent", exchange -> {
+            if (exchange.getRequestURI().getQuery().contains("key=slow")) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{\"candidates\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/v1/models/gemini-pro:streamGenerateContent", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String word : List.of("Hello ", "from ", "Gemini")) {
+                    out.write(("data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + word
+                            + "\"}]}}]}\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // client closed the stream early
+            }
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        geminiClient.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void generateContent_shouldReturnParsedBodyAndRecordLatency() throws Exception {
+        geminiClient = client("fast", Duration.ofSeconds(5));
+
+        JSONObject response = geminiClient.generateContent(new JSONObject().put("contents", "hi"));
+
+        assertTrue(response.has("candidates"));
+        assertEquals(1, meterRegistry.get("gemini.request").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void generateContent_shouldGiveUpAtTheDeadline() {
+        geminiClient = client("slow", Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        AiServiceException e = assertThrows(AiServiceException.class,
+                () -> geminiClient.generateContent(new JSONObject()));
+
+        assertEquals("assistant timed out", e.getMessage());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_500);
+        assertEquals(1, meterRegistry.get("gemini.request").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void streamGenerateContent_shouldRelayChunksInOrder() throws Exception {
+        geminiClient = client("fast", Duration.ofSeconds(5));
+        List<String> chunks = new ArrayList<>();
+
+        geminiClient.streamGenerateContent(new JSONObject(), chunks::add);
+
+        assertEquals(List.of("Hello ", "from ", "Gemini"), chunks);
+        assertEquals(1, meterRegistry.get("gemini.stream").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("gemini.stream.first-token").timer().count());
+    }
+
+    @Test
+    void streamGenerateContent_shouldStopReadingWhenTheListenerFails() {
+        geminiClient = client("fast", Duration.ofSeconds(5));
+        List<String> chunks = new ArrayList<>();
+
+        assertThrows(IOException.class, () -> geminiClient.streamGenerateContent(new JSONObject(), text -> {
+            chunks.add(text);
+            throw new IOException("client went away");
+        }));
+
+        assertEquals(List.of("Hello "), chunks);
+        assertEquals(1, meterRegistry.get("gemini.stream").tag("outcome", "cancelled").timer().count());
+    }
+
+    private GeminiClient client(String apiKey, Duration requestTimeout) {
+        return new GeminiClient(meterRegistry, apiKey,
+                "http://localhost:" + server.getAddress().getPort() + "/v1", "gemini-pro",
+                Duration.ofSeconds(1), requestTimeout);
+    }
+}
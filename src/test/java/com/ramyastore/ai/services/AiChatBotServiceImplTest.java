@@ -0,0 +1,232 @@
+package com.ramyastore.ai.services;
+
+import com.ramyastore.ai.client.GeminiClient;
+import com.ramyastore.exception.AiServiceException;
+import com.ramyastore.model.Product;
+import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.OrderItemRepository;
+import com.ramyastore.repository.OrderRepository;
+import com.ramyastore.repository.ProductRepository;
+import com.ramyastore.response.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AiChatBotServiceImplTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private GeminiClient geminiClient;
+
+    @Mock
+    private ChatIntentRouter intentRouter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AiChatBotServiceImpl chatBotService;
+
+    private final CountDownLatch upstream = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ChatContextBuilder contextBuilder = new ChatContextBuilder(cartRepository, orderRepository,
+                orderItemRepository, productRepository, new SimpleMeterRegistry(), 1000, 5, Duration.ZERO, 100);
+        chatBotService = new AiChatBotServiceImpl(contextBuilder, geminiClient, intentRouter,
+                new ChatAnswerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)),
+                transactionTemplate, new SimpleMeterRegistry(),
+                1, 1, Duration.ofMillis(200));
+
+        when(intentRouter.route(any(), any())).thenReturn(Optional.empty());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(geminiClient.generateContent(any())).thenAnswer(invocation -> {
+            upstream.await(5, TimeUnit.SECONDS);
+            JSONObject body = invocation.getArgument(0);
+            boolean followUp = body.getJSONArray("contents").length() > 1;
+            JSONObject part = followUp
+                    ? new JSONObject().put("text", "hello")
+                    : new JSONObject().put("functionCall", new JSONObject()
+                            .put("name", "getUserCart").put("args", new JSONObject()));
+            return new JSONObject().put("candidates", new JSONArray().put(new JSONObject()
+                    .put("content", new JSONObject().put("parts", new JSONArray().put(part)))));
+        });
+    }
+
+    @Test
+    void aiChatBot_shouldSkipFunctionSelectionCallWhenRoutedLocally() throws Exception {
+        upstream.countDown();
+        when(intentRouter.route("where is my order", null)).thenReturn(Optional.of("getUsersOrder"));
+
+        assertEquals("hello", chatBotService.aiChatBot("where is my order", null, 1L).getMessage());
+
+        verify(geminiClient, times(1)).generateContent(any());
+        verify(orderRepository).countStatusesForUser(1L);
+    }
+
+    @Test
+    void aiChatBot_shouldServeRepeatedProductQuestionsFromCache() throws Exception {
+        upstream.countDown();
+        Product product = new Product();
+        product.setId(12L);
+        product.setTitle("Linen shirt");
+        when(productRepository.findById(12L)).thenReturn(Optional.of(product));
+        when(intentRouter.route(any(), eq(12L))).thenReturn(Optional.of("getProductDetails"));
+
+        chatBotService.aiChatBot("What's the price?", 12L, 1L);
+        chatBotService.aiChatBot("what's the price", 12L, 2L);
+        product.setTitle("Linen shirt, new season");
+        chatBotService.aiChatBot("what's the price", 12L, 2L);
+
+        verify(geminiClient, times(2)).generateContent(any());
+    }
+
+    @Test
+    void aiChatBotStream_shouldRelayTokensAndCacheTheFinishedAnswer() throws Exception {
+        upstream.countDown();
+        doAnswer(invocation -> {
+            GeminiClient.TextListener listener = invocation.getArgument(1);
+            listener.onText("Two ");
+            listener.onText("shirts.");
+            return null;
+        }).when(geminiClient).streamGenerateContent(any(), any());
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+
+        chatBotService.aiChatBotStream("what is in my cart", null, 1L, first::add).get(5, TimeUnit.SECONDS);
+        chatBotService.aiChatBotStream("what is in my cart", null, 1L, second::add).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Two ", "shirts."), first);
+        assertEquals(List.of("Two shirts."), second);
+        verify(geminiClient, times(1)).streamGenerateContent(any(), any());
+    }
+
+    @Test
+    void aiChatBotStream_shouldInterruptUpstreamWhenCancelled() throws Exception {
+        upstream.countDown();
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new AiServiceException("assistant call interrupted");
+            }
+            return null;
+        }).when(geminiClient).streamGenerateContent(any(), any());
+
+        CompletableFuture<Void> chat = chatBotService.aiChatBotStream("what is in my cart", null, 1L, text -> {
+        });
+        assertTrue(streaming.await(5, TimeUnit.SECONDS));
+        chat.cancel(true);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.countDown();
+        chatBotService.shutdown();
+    }
+
+    @Test
+    void aiChatBotAsync_shouldAnswerOffTheCallingThread() throws Exception {
+        upstream.countDown();
+
+        ApiResponse response = chatBotService.aiChatBotAsync("what is in my cart", null, 1L)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("hello", response.getMessage());
+    }
+
+    @Test
+    void aiChatBotAsync_shouldInterruptUpstreamWhenCancelled() throws Exception {
+        CountDownLatch calling = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            calling.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new AiServiceException("assistant call interrupted");
+            }
+            return null;
+        }).when(geminiClient).generateContent(any());
+
+        CompletableFuture<ApiResponse> chat = chatBotService.aiChatBotAsync("what is in my cart", null, 1L);
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+        chat.cancel(true);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aiChatBotAsync_shouldTurnAwayChatsBeyondTheConcurrencyLimit() throws Exception {
+        CompletableFuture<ApiResponse> first = chatBotService.aiChatBotAsync("one", null, 1L);
+        CompletableFuture<ApiResponse> second = chatBotService.aiChatBotAsync("two", null, 1L);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AiServiceException.class, e.getCause());
+
+        upstream.countDown();
+        assertEquals("hello", first.get(5, TimeUnit.SECONDS).getMessage());
+    }
+
+    @Test
+    void aiChatBotAsync_shouldRejectOnceTheQueueIsFullBeforeQueuedChatsStart() throws Exception {
+        chatBotService.shutdown();
+        chatBotService = new AiChatBotServiceImpl(new ChatContextBuilder(cartRepository, orderRepository,
+                orderItemRepository, productRepository, new SimpleMeterRegistry(), 1000, 5, Duration.ZERO, 100),
+                geminiClient, intentRouter,
+                new ChatAnswerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)),
+                transactionTemplate, new SimpleMeterRegistry(),
+                1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<ApiResponse> running = chatBotService.aiChatBotAsync("one", null, 1L);
+        verify(geminiClient, timeout(5000)).generateContent(any());
+        CompletableFuture<ApiResponse> waiting = chatBotService.aiChatBotAsync("two", null, 1L);
+        CompletableFuture<ApiResponse> overflow = chatBotService.aiChatBotAsync("three", null, 1L);
+
+        // the second chat holds the only queue slot even if its thread has not started yet
+        assertTrue(overflow.isCompletedExceptionally());
+
+        upstream.countDown();
+        assertEquals("hello", running.get(5, TimeUnit.SECONDS).getMessage());
+        assertEquals("hello", waiting.get(5, TimeUnit.SECONDS).getMessage());
+    }
+}
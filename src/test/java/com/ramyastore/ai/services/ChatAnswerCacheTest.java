@@ -0,0 +1,74 @@
+package com.ramyastore.ai.services;
+
+import com.ramyastore.exception.AiServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatAnswerCacheTest {
+
+    private ChatAnswerCache answerCache;
+
+    @BeforeEach
+    void setUp() {
+        answerCache = new ChatAnswerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_shouldShareOneUpstreamCallAcrossConcurrentIdenticalQuestions() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<String>> answers = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String prompt = i % 2 == 0 ? "Is this in stock?" : "is this in stock";
+            answers.add(executor.submit(() -> answerCache.get(prompt, "product-12", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "Yes, 4 left.";
+            })));
+        }
+
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<String> answer : answers) {
+            assertEquals("Yes, 4 left.", answer.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldMissWhenGroundingDataChanges() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        answerCache.get("what's the price", "v1", () -> "Rs " + (loads.incrementAndGet() * 100));
+        String changed = answerCache.get("what's the price", "v2", () -> "Rs " + (loads.incrementAndGet() * 100));
+
+        assertEquals("Rs 200", changed);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheFailures() throws Exception {
+        assertThrows(AiServiceException.class, () -> answerCache.get("hi", "v1", () -> {
+            throw new AiServiceException("assistant timed out");
+        }));
+
+        assertEquals("hello", answerCache.get("hi", "v1", () -> "hello"));
+    }
+
+    @Test
+    void normalize_shouldIgnoreCaseAndPunctuation() {
+        assertEquals("what s the price", ChatAnswerCache.normalize("  What's the   PRICE?? "));
+    }
+}
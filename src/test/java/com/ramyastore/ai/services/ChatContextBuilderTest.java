@@ -0,0 +1,131 @@
+package com.ramyastore.ai.services;
+
+import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.PaymentStatus;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.model.Cart;
+import com.ramyastore.model.CartItem;
+import com.ramyastore.model.Product;
+import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.OrderItemRepository;
+import com.ramyastore.repository.OrderRepository;
+import com.ramyastore.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatContextBuilderTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ChatContextBuilder contextBuilder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        contextBuilder = new ChatContextBuilder(cartRepository, orderRepository, orderItemRepository,
+                productRepository, meterRegistry, 200, 3, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void build_shouldSummariseOnlyRecentOrdersWithTheirProductTitles() throws Exception {
+        when(orderRepository.countStatusesForUser(1L)).thenReturn(List.of(
+                new Object[]{OrderStatus.DELIVERED, 40L}, new Object[]{OrderStatus.SHIPPED, 1L}));
+        when(orderRepository.findUserOrderSummaries(eq(1L), isNull(), any(), any(), any(), eq(Long.MAX_VALUE),
+                argThat((Limit limit) -> limit.max() == 3)))
+                .thenReturn(List.of(summary(9L, OrderStatus.SHIPPED)));
+        when(orderItemRepository.findTitlesForOrders(List.of(9L))).thenReturn(List.<Object[]>of(
+                new Object[]{9L, "Linen shirt", 2}));
+
+        JSONObject context = contextBuilder.build(ChatIntentRouter.ORDER, null, 1L);
+
+        assertEquals(41, context.getLong("totalOrders"));
+        assertEquals(40, context.getJSONObject("statusCounts").getLong("DELIVERED"));
+        JSONObject order = context.getJSONArray("recentOrders").getJSONObject(0);
+        assertEquals("SHIPPED", order.getString("status"));
+        assertEquals("Linen shirt", order.getJSONArray("products").getJSONObject(0).getString("title"));
+        verify(orderRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void build_shouldTrimCartLinesToTheTokenBudget() throws Exception {
+        Cart cart = new Cart();
+        for (long id = 1; id <= 30; id++) {
+            cart.getCartItems().add(cartItem(id));
+        }
+        when(cartRepository.findByUserId(1L)).thenReturn(cart);
+
+        JSONObject context = contextBuilder.build(ChatIntentRouter.CART, null, 1L);
+
+        JSONArray items = context.getJSONArray("items");
+        assertTrue(ChatContextBuilder.estimateTokens(context.toString()) <= 200);
+        assertEquals(30, items.length() + context.getInt("omitted"));
+        assertEquals("Product 1", items.getJSONObject(0).getString("title"));
+    }
+
+    @Test
+    void build_shouldReuseProductSummaryAndRecordItsSize() throws Exception {
+        Product product = new Product();
+        product.setId(12L);
+        product.setTitle("Linen shirt");
+        product.setDescription("x".repeat(2_000));
+        product.setSizes("S, M, L");
+        product.setQuantity(4);
+        when(productRepository.findById(12L)).thenReturn(Optional.of(product));
+
+        JSONObject first = contextBuilder.build(ChatIntentRouter.PRODUCT, 12L, 1L);
+        JSONObject second = contextBuilder.build(ChatIntentRouter.PRODUCT, 12L, 2L);
+
+        assertEquals(first.toString(), second.toString());
+        assertTrue(first.getString("description").length() < 500);
+        assertEquals(3, first.getJSONArray("sizes").length());
+        assertTrue(first.getBoolean("inStock"));
+        verify(productRepository, times(1)).findById(12L);
+        assertEquals(2, meterRegistry.get("ai.context.size").tag("function", ChatIntentRouter.PRODUCT)
+                .summary().count());
+    }
+
+    private static OrderSummaryDto summary(Long id, OrderStatus status) {
+        LocalDateTime orderDate = LocalDateTime.of(2024, 6, 1, 10, 0);
+        return new OrderSummaryDto(id, "ORD-" + id, 5L, status, PaymentStatus.COMPLETED, 1200, 2,
+                orderDate, orderDate.plusDays(7));
+    }
+
+    private static CartItem cartItem(Long id) {
+        Product product = new Product();
+        product.setTitle("Product " + id);
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProduct(product);
+        item.setSize("M");
+        item.setQuantity(1);
+        item.setSellingPrice(499);
+        return item;
+    }
+}
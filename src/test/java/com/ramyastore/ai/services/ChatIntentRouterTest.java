@@ -0,0 +1,56 @@
+package com.ramyastore.ai.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatIntentRouterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatIntentRouter router;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ChatIntentRouter(meterRegistry, new ClassPathResource("ai/intent-model.json"), 0.85, true);
+    }
+
+    @Test
+    void route_shouldAnswerCommonQuestionsWithRules() {
+        assertEquals(Optional.of(ChatIntentRouter.ORDER), router.route("Where is my order?", null));
+        assertEquals(Optional.of(ChatIntentRouter.CART), router.route("what's in my cart", null));
+        assertEquals(Optional.of(ChatIntentRouter.PRODUCT),
+                router.route("the product id is 12, which sizes are available", 12L));
+        assertEquals(3, routes("rule"));
+    }
+
+    @Test
+    void route_shouldUseModelWhenNoSingleRuleMatches() {
+        assertEquals(Optional.of(ChatIntentRouter.ORDER), router.route("has my parcel been shipped yet", null));
+        assertEquals(1, routes("model"));
+    }
+
+    @Test
+    void route_shouldFallBackToLlmOnAmbiguity() {
+        assertEquals(Optional.empty(), router.route("hello there", null));
+        assertEquals(Optional.empty(), router.route("is my stuff here", null));
+        assertEquals(Optional.empty(), router.route("what fabric is it made of", null));
+        assertEquals(3, routes("llm"));
+    }
+
+    @Test
+    void route_shouldAlwaysDeferWhenDisabled() {
+        router = new ChatIntentRouter(meterRegistry, new ClassPathResource("ai/intent-model.json"), 0.85, false);
+
+        assertEquals(Optional.empty(), router.route("where is my order", null));
+    }
+
+    private double routes(String source) {
+        return meterRegistry.get("ai.intent.route").tag("source", source).counter().count();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ramyastore.config;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenVerifierTest {
+
+    private JwtTokenVerifier tokenVerifier;
+    private JwtProvider jwtProvider;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenVerifier = new JwtTokenVerifier(new SimpleMeterRegistry(), 100);
+        jwtProvider = new JwtProvider(tokenVerifier);
+        token = jwtProvider.generateToken(new UsernamePasswordAuthenticationToken("ramya@store.com", null,
+                AuthorityUtils.createAuthorityList("ROLE_CUSTOMER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void verify_shouldParseOnceAndServeRepeatsFromCache() {
+        JwtPrincipal first = tokenVerifier.verify(token);
+        JwtPrincipal second = tokenVerifier.verify(token);
+
+        assertEquals("ramya@store.com", first.email());
+        assertEquals(List.of("ROLE_CUSTOMER"),
+                first.authorities().stream().map(Object::toString).toList());
+        assertNotNull(first.expiresAt());
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_shouldRejectTamperedTokens() {
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> tokenVerifier.verify(tampered));
+    }
+
+    @Test
+    void getEmailFromJwtToken_shouldReusePrincipalResolvedByFilter() {
+        JwtPrincipal principal = new JwtPrincipal("from-filter@store.com", List.of(), null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(JwtTokenVerifier.TOKEN_ATTRIBUTE, token);
+        request.setAttribute(JwtTokenVerifier.PRINCIPAL_ATTRIBUTE, principal);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("from-filter@store.com", jwtProvider.getEmailFromJwtToken("Bearer " + token));
+        String otherToken = jwtProvider.generateToken(new UsernamePasswordAuthenticationToken("other@store.com",
+                null, AuthorityUtils.createAuthorityList("ROLE_CUSTOMER")));
+        assertEquals("other@store.com", jwtProvider.getEmailFromJwtToken("Bearer " + otherToken));
+    }
+}
@@ -1,5 +1,6 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.CartItemException;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.UserException;
@@ -9,7 +10,6 @@ import com.ramyastore.response.ApiResponse;
 import com.ramyastore.service.CartItemService;
 import com.ramyastore.service.CartService;
 import com.ramyastore.service.ProductService;
-import com.ramyastore.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -27,16 +27,13 @@ public class CartControllerTest {
     @Mock
     private CartService cartService;
 
-    @Mock
-    private UserService userService;
-
     @Mock
     private ProductService productService;
 
     @Mock
     private CartItemService cartItemService;
 
-    private User mockUser;
+    private UserIdentity mockUser;
     private Cart mockCart;
     private CartItem mockCartItem;
 
@@ -44,12 +41,9 @@ public class CartControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        mockUser = new User();
-        mockUser.setId(1L);
-        mockUser.setEmail("user@example.com");
+        mockUser = new UserIdentity(1L, "user@example.com", null);
 
         mockCart = new Cart();
-        mockCart.setUser(mockUser);
 
         mockCartItem = new CartItem();
         mockCartItem.setId(100L);
@@ -58,12 +52,9 @@ public class CartControllerTest {
 
     @Test
     void testFindUserCartHandler() throws UserException {
-        String jwt = "mock-jwt";
-
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(mockUser);
-        when(cartService.findUserCart(mockUser)).thenReturn(mockCart);
+        when(cartService.findUserCart(1L)).thenReturn(mockCart);
 
-        ResponseEntity<Cart> response = cartController.findUserCartHandler(jwt);
+        ResponseEntity<Cart> response = cartController.findUserCartHandler(mockUser);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mockCart, response.getBody());
@@ -71,7 +62,6 @@ public class CartControllerTest {
 
     @Test
     void testAddItemToCart() throws UserException, ProductException {
-        String jwt = "mock-jwt";
         AddItemRequest request = new AddItemRequest();
         request.setProductId(1L);
         request.setSize("M");
@@ -80,11 +70,10 @@ public class CartControllerTest {
         Product product = new Product();
         product.setId(1L);
 
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(mockUser);
         when(productService.findProductById(1L)).thenReturn(product);
-        when(cartService.addCartItem(mockUser, product, "M", 2)).thenReturn(mockCartItem);
+        when(cartService.addCartItem(1L, product, "M", 2)).thenReturn(mockCartItem);
 
-        ResponseEntity<CartItem> response = cartController.addItemToCart(request, jwt);
+        ResponseEntity<CartItem> response = cartController.addItemToCart(request, mockUser);
 
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
         assertEquals(mockCartItem, response.getBody());
@@ -92,13 +81,11 @@ public class CartControllerTest {
 
     @Test
     void testDeleteCartItemHandler() throws CartItemException, UserException {
-        String jwt = "mock-jwt";
         Long cartItemId = 100L;
 
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(mockUser);
         doNothing().when(cartItemService).removeCartItem(mockUser.getId(), cartItemId);
 
-        ResponseEntity<ApiResponse> response = cartController.deleteCartItemHandler(cartItemId, jwt);
+        ResponseEntity<ApiResponse> response = cartController.deleteCartItemHandler(cartItemId, mockUser);
 
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
         assertEquals("Item Remove From Cart", response.getBody().getMessage());
@@ -108,7 +95,6 @@ public class CartControllerTest {
 
     @Test
     void testUpdateCartItemHandler() throws CartItemException, UserException {
-        String jwt = "mock-jwt";
         Long cartItemId = 100L;
 
         CartItem inputCartItem = new CartItem();
@@ -117,10 +103,9 @@ public class CartControllerTest {
         CartItem updatedItem = new CartItem();
         updatedItem.setQuantity(3);
 
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(mockUser);
         when(cartItemService.updateCartItem(mockUser.getId(), cartItemId, inputCartItem)).thenReturn(updatedItem);
 
-        ResponseEntity<CartItem> response = cartController.updateCartItemHandler(cartItemId, inputCartItem, jwt);
+        ResponseEntity<CartItem> response = cartController.updateCartItemHandler(cartItemId, inputCartItem, mockUser);
 
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
         assertEquals(3, response.getBody().getQuantity());
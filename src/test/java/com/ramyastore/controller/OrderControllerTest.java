@@ -1,12 +1,17 @@
 package com.ramyastore.controller;
 
 import com.razorpay.PaymentLink;
+import com.ramyastore.domain.OrderStatus;
 import com.ramyastore.domain.PaymentMethod;
+import com.ramyastore.dto.CheckoutResult;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.OrderException;
 import com.ramyastore.exception.SellerException;
 import com.ramyastore.exception.UserException;
 import com.ramyastore.model.*;
 import com.ramyastore.repository.PaymentOrderRepository;
+import com.ramyastore.response.CursorPage;
 import com.ramyastore.response.PaymentLinkResponse;
 import com.ramyastore.service.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,9 +47,6 @@ class OrderControllerTest {
     @Mock
     private PaymentOrderRepository paymentOrderRepository;
 
-    @Mock
-    private SellerReportService sellerReportService;
-
     @Mock
     private SellerService sellerService;
 
@@ -70,8 +72,11 @@ class OrderControllerTest {
         when(paymentLink.get("id")).thenReturn("razorpay-payment-id");
 
         when(userService.findUserProfileByJwt(jwt)).thenReturn(user);
-        when(cartService.findUserCart(user)).thenReturn(cart);
-        when(orderService.createOrder(user, address, cart)).thenReturn(orders);
+        when(cartService.findUserCart(user.getId())).thenReturn(cart);
+        CheckoutResult checkout = new CheckoutResult();
+        checkout.setOrders(orders);
+        checkout.getTimings().put("persist", 2.5);
+        when(orderService.checkout(user, address, cart)).thenReturn(checkout);
         when(paymentService.createOrder(user, orders)).thenReturn(paymentOrder);
         when(paymentService.createRazorpayPaymentLink(user, paymentOrder.getAmount(), paymentOrder.getId()))
                 .thenReturn(paymentLink);
@@ -82,6 +87,7 @@ class OrderControllerTest {
         PaymentLinkResponse body = response.getBody();
         assertNotNull(body);
         assertEquals("http://razorpay.link", body.getPayment_link_url());
+        assertEquals("persist;dur=2.5", response.getHeaders().getFirst("Server-Timing"));
 
         verify(paymentOrderRepository).save(paymentOrder);
         assertEquals("razorpay-payment-id", paymentOrder.getPaymentLinkId());
@@ -102,8 +108,11 @@ class OrderControllerTest {
         String stripePaymentUrl = "http://stripe.payment.link";
 
         when(userService.findUserProfileByJwt(jwt)).thenReturn(user);
-        when(cartService.findUserCart(user)).thenReturn(cart);
-        when(orderService.createOrder(user, address, cart)).thenReturn(orders);
+        when(cartService.findUserCart(user.getId())).thenReturn(cart);
+        CheckoutResult checkout = new CheckoutResult();
+        checkout.setOrders(orders);
+        checkout.getTimings().put("persist", 2.5);
+        when(orderService.checkout(user, address, cart)).thenReturn(checkout);
         when(paymentService.createOrder(user, orders)).thenReturn(paymentOrder);
         when(paymentService.createStripePaymentLink(user, paymentOrder.getAmount(), paymentOrder.getId()))
                 .thenReturn(stripePaymentUrl);
@@ -119,32 +128,43 @@ class OrderControllerTest {
     }
 
     @Test
-    void usersOrderHistoryHandler_Success() throws UserException {
-        String jwt = "jwt-token";
-        User user = new User();
+    void usersOrderHistoryHandler_Success() {
+        UserIdentity user = new UserIdentity(1L, "user@test.com", null);
         List<Order> orders = new ArrayList<>();
 
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(user);
-        when(orderService.usersOrderHistory(user.getId())).thenReturn(orders);
+        when(orderService.usersOrderHistory(1L)).thenReturn(orders);
 
-        ResponseEntity<List<Order>> response = orderController.usersOrderHistoryHandler(jwt);
+        ResponseEntity<List<Order>> response = orderController.usersOrderHistoryHandler(user);
 
         assertEquals(202, response.getStatusCodeValue());
         assertEquals(orders, response.getBody());
+        verifyNoInteractions(userService);
     }
 
     @Test
-    void getOrderById_Success() throws OrderException, UserException {
-        String jwt = "jwt-token";
+    void usersOrderSummariesHandler_ReturnsCursorPage() throws Exception {
+        UserIdentity user = new UserIdentity(1L, "user@test.com", null);
+        CursorPage<OrderSummaryDto> page = new CursorPage<>(List.of(new OrderSummaryDto()), "next", true, null);
+
+        when(orderService.getUserOrderSummaries(1L, OrderStatus.DELIVERED, null, null, null, 20)).thenReturn(page);
+
+        ResponseEntity<CursorPage<OrderSummaryDto>> response = orderController.usersOrderSummariesHandler(user,
+                null, OrderStatus.DELIVERED, null, null, 20);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void getOrderById_Success() throws OrderException {
         Long orderId = 10L;
 
-        User user = new User();
+        UserIdentity user = new UserIdentity(1L, "user@test.com", null);
         Order order = new Order();
 
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(user);
         when(orderService.findOrderById(orderId)).thenReturn(order);
 
-        ResponseEntity<Order> response = orderController.getOrderById(orderId, jwt);
+        ResponseEntity<Order> response = orderController.getOrderById(orderId, user);
 
         assertEquals(202, response.getStatusCodeValue());
         assertEquals(order, response.getBody());
@@ -152,16 +172,14 @@ class OrderControllerTest {
 
     @Test
     void getOrderItemById_Success() throws Exception {
-        String jwt = "jwt-token";
         Long orderItemId = 5L;
 
-        User user = new User();
+        UserIdentity user = new UserIdentity(1L, "user@test.com", null);
         OrderItem orderItem = new OrderItem();
 
-        when(userService.findUserProfileByJwt(jwt)).thenReturn(user);
         when(orderItemService.getOrderItemById(orderItemId)).thenReturn(orderItem);
 
-        ResponseEntity<OrderItem> response = orderController.getOrderItemById(orderItemId, jwt);
+        ResponseEntity<OrderItem> response = orderController.getOrderItemById(orderItemId, user);
 
         assertEquals(202, response.getStatusCodeValue());
         assertEquals(orderItem, response.getBody());
@@ -175,24 +193,14 @@ class OrderControllerTest {
         User user = new User();
         Order order = new Order();
         order.setSellerId(1L);
-
-        Seller seller = new Seller();
-        SellerReport sellerReport = new SellerReport();
-        sellerReport.setCanceledOrders(0);
-        sellerReport.setTotalRefunds(0L);
+        order.setTotalSellingPrice(750);
 
         when(userService.findUserProfileByJwt(jwt)).thenReturn(user);
         when(orderService.cancelOrder(orderId, user)).thenReturn(order);
-        when(sellerService.getSellerById(order.getSellerId())).thenReturn(seller);
-        when(sellerReportService.getSellerReport(seller)).thenReturn(sellerReport);
 
         ResponseEntity<Order> response = orderController.cancelOrder(orderId, jwt);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(order, response.getBody());
-        assertEquals(1, sellerReport.getCanceledOrders());
-        assertEquals(order.getTotalSellingPrice(), sellerReport.getTotalRefunds());
-
-        verify(sellerReportService).updateSellerReport(sellerReport);
     }
 }
@@ -1,5 +1,6 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.dto.ProductDetailDto;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.model.Product;
 import com.ramyastore.service.ProductService;
@@ -52,21 +53,19 @@ class ProductControllerTest {
 
     @Test
     void getProductById_returnsProduct_whenProductExists() throws Exception {
-        Product product = new Product();
-        product.setId(1L);
-        product.setTitle("Test Product");
+        ProductDetailDto product = ProductDetailDto.builder().id(1L).title("Test Product").build();
 
-        when(productService.findProductById(1L)).thenReturn(product);
+        when(productService.getProductDetail(1L)).thenReturn(product);
 
         mockMvc.perform(get("/products/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
-                .andExpect(jsonPath("$.name", is("Test Product")));
+                .andExpect(jsonPath("$.title", is("Test Product")));
     }
 
     @Test
     void getProductById_throwsProductException_whenProductNotFound() throws Exception {
-        when(productService.findProductById(1L)).thenThrow(new ProductException("Product not found"));
+        when(productService.getProductDetail(1L)).thenThrow(new ProductException("Product not found"));
 
         mockMvc.perform(get("/products/1"))
                 .andExpect(status().isInternalServerError());
@@ -85,7 +84,7 @@ class ProductControllerTest {
 
         List<Product> productList = Arrays.asList(product1, product2);
 
-        when(productService.searchProduct("test")).thenReturn(productList);
+        when(productService.searchProduct("test", null)).thenReturn(productList);
 
         mockMvc.perform(get("/products/search")
                         .param("query", "test"))
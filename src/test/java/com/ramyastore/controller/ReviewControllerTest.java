@@ -1,5 +1,9 @@
 package com.ramyastore.controller;
 
+import com.ramyastore.config.CurrentIdentityArgumentResolver;
+import com.ramyastore.config.JwtPrincipal;
+import com.ramyastore.config.JwtTokenVerifier;
+import com.ramyastore.dto.UserIdentity;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.exception.ReviewNotFoundException;
 import com.ramyastore.exception.UserException;
@@ -8,6 +12,7 @@ import com.ramyastore.model.Review;
 import com.ramyastore.model.User;
 import com.ramyastore.request.CreateReviewRequest;
 import com.ramyastore.response.ApiResponse;
+import com.ramyastore.service.IdentityService;
 import com.ramyastore.service.ProductService;
 import com.ramyastore.service.ReviewService;
 import com.ramyastore.service.UserService;
@@ -41,6 +46,9 @@ class ReviewControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private IdentityService identityService;
+
     @InjectMocks
     private ReviewController reviewController;
 
@@ -51,7 +59,9 @@ class ReviewControllerTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(reviewController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(reviewController)
+                .setCustomArgumentResolvers(new CurrentIdentityArgumentResolver(identityService))
+                .build();
         objectMapper = new ObjectMapper();
     }
 
@@ -101,39 +111,38 @@ class ReviewControllerTest {
         req.setReviewText("Updated review");
         req.setReviewRating(4);
 
-        User user = new User();
-        user.setId(10L);
         Review review = new Review();
 
-        when(userService.findUserProfileByJwt(anyString())).thenReturn(user);
+        when(identityService.findUser("user@example.com")).thenReturn(new UserIdentity(10L, "user@example.com", null));
         when(reviewService.updateReview(eq(5L), eq("Updated review"), eq(4), eq(10L))).thenReturn(review);
 
         mockMvc.perform(patch("/api/reviews/5")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("Authorization", AUTH_HEADER)
+                        .requestAttr(JwtTokenVerifier.PRINCIPAL_ATTRIBUTE, principal())
                         .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").exists());
 
-        verify(userService, times(1)).findUserProfileByJwt(AUTH_HEADER);
+        verify(userService, never()).findUserProfileByJwt(any());
         verify(reviewService, times(1)).updateReview(5L, "Updated review", 4, 10L);
     }
 
     @Test
     void deleteReview_deletesAndReturnsApiResponse() throws Exception {
-        User user = new User();
-        user.setId(15L);
-
-        when(userService.findUserProfileByJwt(anyString())).thenReturn(user);
+        when(identityService.findUser("user@example.com")).thenReturn(new UserIdentity(15L, "user@example.com", null));
         doNothing().when(reviewService).deleteReview(7L, 15L);
 
         mockMvc.perform(delete("/api/reviews/7")
-                        .header("Authorization", AUTH_HEADER))
+                        .requestAttr(JwtTokenVerifier.PRINCIPAL_ATTRIBUTE, principal()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value(true))
                 .andExpect(jsonPath("$.message").value("Review deleted successfully"));
 
-        verify(userService, times(1)).findUserProfileByJwt(AUTH_HEADER);
+        verify(userService, never()).findUserProfileByJwt(any());
         verify(reviewService, times(1)).deleteReview(7L, 15L);
     }
+
+    private static JwtPrincipal principal() {
+        return new JwtPrincipal("user@example.com", List.of(), null);
+    }
 }
@@ -0,0 +1,93 @@
+package com.ramyastore.repository;
+
+import com.ramyastore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the guarded stock UPDATEs against MySQL, each attempt in its own
+ * transaction, so the no-oversell guarantee comes from the database row.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductRepositoryStockTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reserveStock_shouldNeverOversellUnderConcurrentCheckouts() throws Exception {
+        int initialStock = 200;
+        int attempts = 1_000;
+        Product product = new Product();
+        product.setTitle("Hot SKU");
+        product.setQuantity(initialStock);
+        Long productId = productRepository.save(product).getId();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                Integer updated = transactionTemplate.execute(status -> productRepository.reserveStock(productId, 1));
+                if (updated != null && updated == 1) {
+                    reserved.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(initialStock, reserved.get());
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void releaseStock_shouldReturnQuantityToTheRow() {
+        Product product = new Product();
+        product.setTitle("Returned SKU");
+        product.setQuantity(1);
+        Long productId = productRepository.save(product).getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertEquals(0, transactionTemplate.execute(status -> productRepository.reserveStock(productId, 2)));
+        assertEquals(1, transactionTemplate.execute(status -> productRepository.reserveStock(productId, 1)));
+        transactionTemplate.execute(status -> productRepository.releaseStock(productId, 3));
+
+        assertEquals(3, productRepository.findById(productId).orElseThrow().getQuantity());
+    }
+}
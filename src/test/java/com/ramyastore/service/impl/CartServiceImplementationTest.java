@@ -0,0 +1,106 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.model.Cart;
+import com.ramyastore.model.CartItem;
+import com.ramyastore.model.Product;
+import com.ramyastore.model.User;
+import com.ramyastore.repository.CartItemRepository;
+import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.MigrationMarkerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CartServiceImplementationTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private MigrationMarkerRepository migrationMarkerRepository;
+
+    @InjectMocks
+    private CartServiceImplementation cartService;
+
+    private User user;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setId(1L);
+        cart = new Cart();
+        cart.setId(9L);
+        cart.setUser(user);
+        when(cartRepository.findByUserId(1L)).thenReturn(cart);
+        when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void findUserCart_shouldNotWrite() {
+        assertSame(cart, cartService.findUserCart(1L));
+
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void addCartItem_shouldShiftStoredTotalsByItemDelta() throws Exception {
+        cartService.addCartItem(1L, product(1000, 800), "M", 2);
+        cartService.addCartItem(1L, product(500, 500), "L", 1);
+
+        verify(cartRepository).addItemDelta(9L, 2000, 1600, 2);
+        verify(cartRepository).addItemDelta(9L, 500, 500, 1);
+        assertEquals(0, cart.getTotalMrpPrice());
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void updateAndRemoveCartItem_shouldShiftTotalsAndOrphanTheItem() throws Exception {
+        CartItem item = cartService.addCartItem(1L, product(1000, 800), "M", 1);
+        item.setId(5L);
+        CartItemServiceImplementation cartItemService =
+                new CartItemServiceImplementation(cartItemRepository, cartRepository);
+        when(cartItemRepository.findById(5L)).thenReturn(Optional.of(item));
+
+        CartItem update = new CartItem();
+        update.setQuantity(3);
+        cartItemService.updateCartItem(1L, 5L, update);
+
+        verify(cartRepository).addItemDelta(9L, 2000, 1600, 2);
+
+        cartItemService.removeCartItem(1L, 5L);
+
+        verify(cartRepository).addItemDelta(9L, -3000, -2400, -3);
+        assertTrue(cart.getCartItems().isEmpty());
+        verify(cartItemRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void reconcileTotals_shouldRunOnlyOnce() {
+        when(migrationMarkerRepository.markApplied(anyString(), any())).thenReturn(1, 0);
+
+        cartService.reconcileTotals();
+        cartService.reconcileTotals();
+
+        verify(cartRepository, times(1)).reconcileTotals();
+    }
+
+    private static Product product(int mrpPrice, int sellingPrice) {
+        Product product = new Product();
+        product.setMrpPrice(mrpPrice);
+        product.setSellingPrice(sellingPrice);
+        return product;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.model.Category;
+import com.ramyastore.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CategoryTreeServiceImplTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryTreeServiceImpl categoryTreeService;
+
+    private Category men;
+    private Category topwear;
+    private Category shirts;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        men = category(1L, "men", null);
+        topwear = category(2L, "men_topwear", men);
+        shirts = category(3L, "men_shirts", topwear);
+        Category women = category(4L, "women", null);
+
+        when(categoryRepository.findAll()).thenReturn(List.of(men, topwear, shirts, women));
+        categoryTreeService.reload();
+    }
+
+    @Test
+    void findDescendantIds_shouldIncludeEveryLevelBelow() {
+        assertEquals(Set.of(1L, 2L, 3L), categoryTreeService.findDescendantIds("men"));
+        assertEquals(Set.of(2L, 3L), categoryTreeService.findDescendantIds("men_topwear"));
+        assertEquals(Set.of(3L), categoryTreeService.findDescendantIds("men_shirts"));
+        assertTrue(categoryTreeService.findDescendantIds("kids").isEmpty());
+    }
+
+    @Test
+    void findAncestorPath_shouldStartAtRoot() {
+        assertEquals(List.of(men, topwear, shirts), categoryTreeService.findAncestorPath("men_shirts"));
+    }
+
+    @Test
+    void register_shouldExtendTreeWithoutReloading() {
+        Category tshirts = category(5L, "men_tshirts", topwear);
+
+        categoryTreeService.register(tshirts);
+
+        assertSame(tshirts, categoryTreeService.findByCategoryId("men_tshirts"));
+        assertEquals(Set.of(1L, 2L, 3L, 5L), categoryTreeService.findDescendantIds("men"));
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    private static Category category(Long id, String categoryId, Category parent) {
+        Category category = new Category();
+        category.setId(id);
+        category.setCategoryId(categoryId);
+        category.setName(categoryId.replace("_", " "));
+        category.setParentCategory(parent);
+        category.setLevel(parent == null ? 1 : parent.getLevel() + 1);
+        return category;
+    }
+}
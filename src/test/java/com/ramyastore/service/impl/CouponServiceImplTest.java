@@ -0,0 +1,175 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.exception.CouponNotValidException;
+import com.ramyastore.model.Cart;
+import com.ramyastore.model.Coupon;
+import com.ramyastore.model.User;
+import com.ramyastore.repository.CartRepository;
+import com.ramyastore.repository.CouponRedemptionRepository;
+import com.ramyastore.repository.CouponRepository;
+import com.ramyastore.repository.MigrationMarkerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CouponServiceImplTest {
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponRedemptionRepository redemptionRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private MigrationMarkerRepository migrationMarkerRepository;
+
+    @InjectMocks
+    private CouponServiceImpl couponService;
+
+    private User user;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setId(1L);
+        cart = new Cart();
+        cart.setTotalSellingPrice(1000);
+        when(cartRepository.findByUserId(1L)).thenReturn(cart);
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(couponRepository.findAll()).thenReturn(List.of(coupon(7L, "SAVE10", true)));
+        couponService.refreshIndex();
+    }
+
+    @Test
+    void applyCoupon_shouldValidateFromIndexAndRecordRedemption() throws Exception {
+        when(redemptionRepository.insertIfAbsent(eq(7L), eq(1L), any())).thenReturn(1);
+
+        Cart result = couponService.applyCoupon("SAVE10", 1000, user);
+
+        assertEquals(900.0, result.getTotalSellingPrice());
+        assertEquals(100, result.getCouponPrice());
+        assertEquals("SAVE10", result.getCouponCode());
+        verify(couponRepository, never()).findByCode(any());
+        assertTrue(user.getUsedCoupons().isEmpty());
+    }
+
+    @Test
+    void applyCoupon_shouldRejectSecondRedemption() {
+        when(redemptionRepository.insertIfAbsent(eq(7L), eq(1L), any())).thenReturn(0);
+
+        CouponNotValidException e = assertThrows(CouponNotValidException.class,
+                () -> couponService.applyCoupon("SAVE10", 1000, user));
+
+        assertEquals("coupon already used", e.getMessage());
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void applyCoupon_shouldRejectWhenCartAlreadyHasCoupon() {
+        cart.setCouponCode("WELCOME5");
+        cart.setCouponPrice(50);
+        cart.setTotalSellingPrice(950);
+
+        assertThrows(CouponNotValidException.class, () -> couponService.applyCoupon("SAVE10", 1000, user));
+
+        assertEquals(50, cart.getCouponPrice());
+        assertEquals(950.0, cart.getTotalSellingPrice());
+        verifyNoInteractions(redemptionRepository);
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void applyCoupon_shouldNotRedeemInvalidCoupons() {
+        when(couponRepository.findAll()).thenReturn(List.of(coupon(7L, "SAVE10", false)));
+        couponService.refreshIndex();
+
+        assertThrows(CouponNotValidException.class, () -> couponService.applyCoupon("SAVE10", 1000, user));
+        assertThrows(CouponNotValidException.class, () -> couponService.applyCoupon("SAVE10", 100, user));
+        assertThrows(CouponNotValidException.class, () -> couponService.applyCoupon("UNKNOWN", 1000, user));
+        verifyNoInteractions(redemptionRepository);
+    }
+
+    @Test
+    void createCoupon_shouldRefreshIndex() throws Exception {
+        Coupon created = coupon(8L, "NEW20", true);
+        when(couponRepository.save(created)).thenReturn(created);
+        when(couponRepository.findAll()).thenReturn(List.of(coupon(7L, "SAVE10", true), created));
+        when(redemptionRepository.insertIfAbsent(eq(8L), eq(1L), any())).thenReturn(1);
+
+        couponService.createCoupon(created);
+        couponService.applyCoupon("NEW20", 1000, user);
+
+        verify(redemptionRepository).insertIfAbsent(eq(8L), eq(1L), any());
+    }
+
+    @Test
+    void removeCoupon_shouldFreeRedemptionOnlyWhileCouponIsOnCart() throws Exception {
+        cart.setCouponCode("SAVE10");
+        cart.setCouponPrice(100);
+        cart.setTotalSellingPrice(900);
+
+        couponService.removeCoupon("SAVE10", user);
+        couponService.removeCoupon("SAVE10", user);
+
+        verify(redemptionRepository, times(1)).deleteRedemption(7L, 1L);
+        assertEquals(1000.0, cart.getTotalSellingPrice());
+        assertNull(cart.getCouponCode());
+    }
+
+    @Test
+    void applyCoupon_shouldMatchCodeIgnoringCase() throws Exception {
+        when(redemptionRepository.insertIfAbsent(eq(7L), eq(1L), any())).thenReturn(1);
+
+        Cart result = couponService.applyCoupon("save10", 1000, user);
+
+        assertEquals("SAVE10", result.getCouponCode());
+        couponService.removeCoupon("Save10", user);
+        verify(redemptionRepository).deleteRedemption(7L, 1L);
+    }
+
+    @Test
+    void createCoupon_shouldStoreNormalizedCode() {
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Coupon saved = couponService.createCoupon(coupon(8L, " summer20 ", true));
+
+        assertEquals("SUMMER20", saved.getCode());
+    }
+
+    @Test
+    void onApplicationReady_shouldBackfillOnlyWhenMarkerIsNew() {
+        when(migrationMarkerRepository.markApplied(anyString(), any())).thenReturn(1, 0);
+
+        couponService.onApplicationReady();
+        couponService.onApplicationReady();
+
+        verify(redemptionRepository, times(1)).backfillFromUserCoupons();
+        verify(redemptionRepository, never()).count();
+    }
+
+    private static Coupon coupon(Long id, String code, boolean active) {
+        Coupon coupon = new Coupon();
+        coupon.setId(id);
+        coupon.setCode(code);
+        coupon.setDiscountPercentage(10);
+        coupon.setMinimumOrderValue(500);
+        coupon.setValidityStartDate(LocalDate.now().minusDays(1));
+        coupon.setValidityEndDate(LocalDate.now().plusDays(1));
+        coupon.setActive(active);
+        return coupon;
+    }
+}
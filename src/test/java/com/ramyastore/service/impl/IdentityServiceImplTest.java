@@ -0,0 +1,71 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.AccountStatus;
+import com.ramyastore.domain.USER_ROLE;
+import com.ramyastore.dto.SellerIdentity;
+import com.ramyastore.dto.UserIdentity;
+import com.ramyastore.exception.SellerException;
+import com.ramyastore.exception.UserException;
+import com.ramyastore.repository.SellerRepository;
+import com.ramyastore.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdentityServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    private IdentityServiceImpl identityService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        identityService = new IdentityServiceImpl(userRepository, sellerRepository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void findUser_shouldQueryOncePerEmail() throws Exception {
+        UserIdentity identity = new UserIdentity(1L, "a@store.com", USER_ROLE.ROLE_CUSTOMER);
+        when(userRepository.findIdentityByEmail("a@store.com")).thenReturn(identity);
+
+        assertSame(identity, identityService.findUser("a@store.com"));
+        assertSame(identity, identityService.findUser("a@store.com"));
+
+        verify(userRepository, times(1)).findIdentityByEmail("a@store.com");
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void findUser_shouldNotCacheUnknownEmails() {
+        assertThrows(UserException.class, () -> identityService.findUser("new@store.com"));
+        assertThrows(UserException.class, () -> identityService.findUser("new@store.com"));
+
+        verify(userRepository, times(2)).findIdentityByEmail("new@store.com");
+    }
+
+    @Test
+    void evictSeller_shouldForceReload() throws Exception {
+        when(sellerRepository.findIdentityByEmail("s@store.com")).thenReturn(
+                new SellerIdentity(3L, "s@store.com", AccountStatus.PENDING_VERIFICATION),
+                new SellerIdentity(3L, "s@store.com", AccountStatus.ACTIVE));
+
+        identityService.findSeller("s@store.com");
+        identityService.evictSeller("s@store.com");
+
+        assertEquals(AccountStatus.ACTIVE, identityService.findSeller("s@store.com").getAccountStatus());
+        assertThrows(SellerException.class, () -> identityService.findSeller(null));
+    }
+}
@@ -0,0 +1,198 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.ReservationStatus;
+import com.ramyastore.exception.OrderException;
+import com.ramyastore.model.InventoryReservation;
+import com.ramyastore.model.Order;
+import com.ramyastore.model.OrderItem;
+import com.ramyastore.model.Product;
+import com.ramyastore.repository.InventoryReservationRepository;
+import com.ramyastore.repository.ProductRepository;
+import com.ramyastore.service.ProductCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InventoryServiceImplTest {
+
+    private static final long HOT_SKU = 42L;
+
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InventoryServiceImpl inventoryService;
+
+    // stands in for the product row; the guarded UPDATE itself is covered by ProductRepositoryStockTest
+    private final AtomicInteger stock = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        inventoryService = new InventoryServiceImpl(reservationRepository, productRepository,
+                productCacheService, transactionTemplate, new SimpleMeterRegistry(), true, Duration.ofMinutes(15));
+
+        when(productRepository.reserveStock(eq(HOT_SKU), anyInt())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            int current;
+            do {
+                current = stock.get();
+                if (current < quantity) {
+                    return 0;
+                }
+            } while (!stock.compareAndSet(current, current - quantity));
+            return 1;
+        });
+        when(productRepository.releaseStock(eq(HOT_SKU), anyInt()))
+                .thenAnswer(invocation -> {
+                    stock.addAndGet(invocation.getArgument(1));
+                    return 1;
+                });
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void reserve_shouldTakeStockPerProductInAscendingIdOrderAndReservePerOrderLine() throws Exception {
+        when(productRepository.reserveStock(anyLong(), anyInt())).thenReturn(1);
+
+        inventoryService.reserve(List.of(
+                order(1L, item(9L, 1), item(3L, 2)),
+                order(2L, item(5L, 1), item(3L, 1))));
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).reserveStock(3L, 3);
+        inOrder.verify(productRepository).reserveStock(5L, 1);
+        inOrder.verify(productRepository).reserveStock(9L, 1);
+        ArgumentCaptor<Iterable<InventoryReservation>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(reservationRepository).saveAll(saved.capture());
+        List<String> lines = new ArrayList<>();
+        saved.getValue().forEach(reservation -> {
+            lines.add(reservation.getOrderId() + ":" + reservation.getProductId() + "x" + reservation.getQuantity());
+            assertEquals(ReservationStatus.HELD, reservation.getStatus());
+            assertNotNull(reservation.getExpiresAt());
+        });
+        assertEquals(List.of("1:9x1", "1:3x2", "2:5x1", "2:3x1"), lines);
+    }
+
+    @Test
+    void reserve_shouldMergeRepeatedProductWithinOneOrder() throws Exception {
+        when(productRepository.reserveStock(anyLong(), anyInt())).thenReturn(1);
+
+        inventoryService.reserve(List.of(order(1L, item(3L, 1), item(3L, 2))));
+
+        verify(productRepository).reserveStock(3L, 3);
+        ArgumentCaptor<Iterable<InventoryReservation>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(reservationRepository).saveAll(saved.capture());
+        List<InventoryReservation> reservations = new ArrayList<>();
+        saved.getValue().forEach(reservations::add);
+        assertEquals(1, reservations.size());
+        assertEquals(3, reservations.get(0).getQuantity());
+    }
+
+    @Test
+    void reserve_shouldThrowWithoutSavingWhenStockRunsOut() {
+        stock.set(1);
+
+        assertThrows(OrderException.class,
+                () -> inventoryService.reserve(List.of(order(1L, item(HOT_SKU, 2)))));
+
+        assertEquals(1, stock.get());
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void release_shouldReturnStockOnlyOnce() {
+        stock.set(0);
+        InventoryReservation reservation = reservation(7L, ReservationStatus.HELD);
+        when(reservationRepository.findByOrderId(1L)).thenReturn(List.of(reservation));
+        when(reservationRepository.transition(7L, ReservationStatus.HELD, ReservationStatus.RELEASED))
+                .thenReturn(1, 0);
+
+        Order order = order(1L);
+        inventoryService.release(order);
+        inventoryService.release(order);
+
+        assertEquals(2, stock.get());
+    }
+
+    @Test
+    void commit_shouldRetakeStockForExpiredReservation() {
+        stock.set(5);
+        InventoryReservation reservation = reservation(7L, ReservationStatus.EXPIRED);
+        when(reservationRepository.findByOrderId(1L)).thenReturn(List.of(reservation));
+        when(reservationRepository.transition(7L, ReservationStatus.EXPIRED, ReservationStatus.COMMITTED))
+                .thenReturn(1);
+
+        inventoryService.commit(order(1L));
+
+        assertEquals(3, stock.get());
+    }
+
+    @Test
+    void expireReservations_shouldReleaseHeldReservationsPastTheirWindow() {
+        stock.set(0);
+        InventoryReservation reservation = reservation(7L, ReservationStatus.HELD);
+        when(reservationRepository.findByStatusAndExpiresAtBefore(eq(ReservationStatus.HELD), any(), any(Limit.class)))
+                .thenReturn(List.of(reservation));
+        when(reservationRepository.transition(7L, ReservationStatus.HELD, ReservationStatus.EXPIRED))
+                .thenReturn(1);
+
+        assertEquals(1, inventoryService.expireReservations());
+        assertEquals(2, stock.get());
+        verify(productCacheService).evict(HOT_SKU);
+    }
+
+    private static InventoryReservation reservation(Long id, ReservationStatus status) {
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setId(id);
+        reservation.setOrderId(1L);
+        reservation.setProductId(HOT_SKU);
+        reservation.setQuantity(2);
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private static Order order(Long id, OrderItem... items) {
+        Order order = new Order();
+        order.setId(id);
+        for (OrderItem item : items) {
+            item.setOrder(order);
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+
+    private static OrderItem item(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
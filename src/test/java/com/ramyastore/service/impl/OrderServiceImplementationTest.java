@@ -0,0 +1,322 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.OrderTransitionOutcome;
+import com.ramyastore.domain.PaymentStatus;
+import com.ramyastore.dto.CheckoutResult;
+import com.ramyastore.dto.OrderSummaryDto;
+import com.ramyastore.dto.OrderTransitionResult;
+import com.ramyastore.exception.OrderException;
+import com.ramyastore.model.*;
+import com.ramyastore.repository.AddressRepository;
+import com.ramyastore.repository.OrderItemRepository;
+import com.ramyastore.repository.OrderRepository;
+import com.ramyastore.response.CursorPage;
+import com.ramyastore.service.InventoryService;
+import com.ramyastore.service.RevenueService;
+import com.ramyastore.service.SellerReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderServiceImplementationTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private RevenueService revenueService;
+
+    @Mock
+    private SellerReportService sellerReportService;
+
+    @InjectMocks
+    private OrderServiceImplementation orderService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(addressRepository.save(any(Address.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void checkout_shouldBuildOneOrderPerSellerAndPersistInOneBatch() throws Exception {
+        User user = new User();
+        Address address = new Address();
+        Cart cart = new Cart();
+        cart.getCartItems().add(cartItem(1L, 2, 400));
+        cart.getCartItems().add(cartItem(1L, 1, 250));
+        cart.getCartItems().add(cartItem(2L, 3, 900));
+
+        CheckoutResult result = orderService.checkout(user, address, cart);
+
+        List<Order> orders = result.getOrders().stream()
+                .sorted(Comparator.comparing(Order::getSellerId))
+                .toList();
+        assertEquals(2, orders.size());
+        assertEquals(650, orders.get(0).getTotalSellingPrice());
+        assertEquals(3, orders.get(0).getTotalItem());
+        assertEquals(2, orders.get(0).getOrderItems().size());
+        assertSame(orders.get(0), orders.get(0).getOrderItems().get(0).getOrder());
+        assertEquals(900, orders.get(1).getTotalSellingPrice());
+        assertEquals(OrderStatus.PENDING, orders.get(1).getOrderStatus());
+        assertTrue(user.getAddresses().contains(address));
+
+        ArgumentCaptor<List<Order>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository, times(1)).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        verify(orderRepository).flush();
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(orderItemRepository);
+
+        verify(inventoryService).reserve(saved.getValue());
+        assertTrue(result.getTimings().keySet().containsAll(List.of("address", "build", "persist", "reserve", "total")));
+    }
+
+    @Test
+    void checkout_shouldFailWhenStockCannotBeReserved() throws Exception {
+        Cart cart = new Cart();
+        cart.getCartItems().add(cartItem(1L, 1, 400));
+        doThrow(new OrderException("not enough stock for product 1")).when(inventoryService).reserve(anyCollection());
+
+        assertThrows(OrderException.class, () -> orderService.checkout(new User(), new Address(), cart));
+    }
+
+    @Test
+    void cancelOrder_shouldReleaseReservedStock() throws Exception {
+        User user = new User();
+        user.setId(3L);
+        Order order = new Order();
+        order.setUser(user);
+        when(orderRepository.findById(9L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        orderService.cancelOrder(9L, user);
+
+        assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        verify(inventoryService).release(order);
+    }
+
+    @Test
+    void cancelOrder_shouldRecordCancellationOnlyOnce() throws Exception {
+        User user = new User();
+        user.setId(3L);
+        Order order = new Order();
+        order.setUser(user);
+        order.setSellerId(1L);
+        order.setTotalSellingPrice(750);
+        when(orderRepository.findById(9L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        orderService.cancelOrder(9L, user);
+        orderService.cancelOrder(9L, user);
+
+        verify(sellerReportService, times(1)).recordOrderCancelled(1L, 750L);
+        verify(orderRepository, times(1)).save(order);
+        verify(inventoryService, times(1)).release(order);
+    }
+
+    @Test
+    void getSellerOrderSummaries_shouldReturnKeysetPages() throws Exception {
+        LocalDateTime newest = LocalDateTime.of(2024, 6, 1, 10, 0);
+        List<OrderSummaryDto> firstRows = List.of(summary(30L, newest), summary(20L, newest.minusDays(1)),
+                summary(10L, newest.minusDays(2)));
+        when(orderRepository.findSellerOrderSummaries(eq(5L), eq(OrderStatus.PLACED), any(), any(),
+                eq(LocalDateTime.of(9999, 12, 31, 23, 59, 59)), eq(Long.MAX_VALUE), any(Limit.class)))
+                .thenReturn(firstRows);
+
+        CursorPage<OrderSummaryDto> first = orderService.getSellerOrderSummaries(5L, OrderStatus.PLACED,
+                null, null, null, 2);
+
+        assertEquals(List.of(30L, 20L), first.getContent().stream().map(OrderSummaryDto::getId).toList());
+        assertTrue(first.isHasNext());
+
+        when(orderRepository.findSellerOrderSummaries(eq(5L), eq(OrderStatus.PLACED), any(), any(),
+                eq(newest.minusDays(1)), eq(20L), any(Limit.class)))
+                .thenReturn(List.of(summary(10L, newest.minusDays(2))));
+
+        CursorPage<OrderSummaryDto> second = orderService.getSellerOrderSummaries(5L, OrderStatus.PLACED,
+                null, null, first.getNextCursor(), 2);
+
+        assertEquals(List.of(10L), second.getContent().stream().map(OrderSummaryDto::getId).toList());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getUserOrderSummaries_shouldRejectForeignCursor() {
+        assertThrows(OrderException.class, () -> orderService.getUserOrderSummaries(1L, null,
+                null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void orderStatus_shouldOnlyAllowForwardStepsAndEarlyCancellation() {
+        assertTrue(OrderStatus.PLACED.canTransitionTo(OrderStatus.CONFIRMED));
+        assertTrue(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.DELIVERED));
+        assertTrue(OrderStatus.CONFIRMED.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.PLACED.canTransitionTo(OrderStatus.SHIPPED));
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CONFIRMED));
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void updateOrderStatuses_shouldUpdateEachStatusGroupInOneStatement() throws Exception {
+        when(orderRepository.lockStatusesForSeller(eq(5L), anyList())).thenReturn(List.of(
+                new Object[]{1L, OrderStatus.CONFIRMED, PaymentStatus.COMPLETED},
+                new Object[]{2L, OrderStatus.CONFIRMED, PaymentStatus.COMPLETED},
+                new Object[]{3L, OrderStatus.PLACED, PaymentStatus.COMPLETED},
+                new Object[]{4L, OrderStatus.SHIPPED, PaymentStatus.COMPLETED}));
+        when(orderRepository.transitionStatus(5L, List.of(1L, 2L), OrderStatus.CONFIRMED, OrderStatus.SHIPPED))
+                .thenReturn(2);
+
+        List<OrderTransitionResult> results = orderService.updateOrderStatuses(5L,
+                List.of(1L, 2L, 3L, 4L, 9L, 1L), OrderStatus.SHIPPED);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 9L), results.stream().map(OrderTransitionResult::getOrderId).toList());
+        assertEquals(List.of(OrderTransitionOutcome.UPDATED, OrderTransitionOutcome.UPDATED,
+                        OrderTransitionOutcome.INVALID_TRANSITION, OrderTransitionOutcome.UNCHANGED,
+                        OrderTransitionOutcome.NOT_FOUND),
+                results.stream().map(OrderTransitionResult::getOutcome).toList());
+        assertEquals(OrderStatus.PLACED, results.get(2).getPreviousStatus());
+        verify(orderRepository, times(1)).transitionStatus(anyLong(), anyList(), any(), any());
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(inventoryService, revenueService);
+    }
+
+    @Test
+    void updateOrderStatuses_shouldChunkLargeBatches() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 700; id++) {
+            ids.add(id);
+        }
+
+        orderService.updateOrderStatuses(5L, ids, OrderStatus.CONFIRMED);
+
+        ArgumentCaptor<List<Long>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository, times(2)).lockStatusesForSeller(eq(5L), chunks.capture());
+        assertEquals(500, chunks.getAllValues().get(0).size());
+        assertEquals(200, chunks.getAllValues().get(1).size());
+    }
+
+    @Test
+    void updateOrderStatuses_shouldReleaseStockAndRevenueForCancelledOrders() throws Exception {
+        when(orderRepository.lockStatusesForSeller(eq(5L), anyList())).thenReturn(List.of(
+                new Object[]{1L, OrderStatus.PLACED, PaymentStatus.COMPLETED},
+                new Object[]{2L, OrderStatus.PLACED, PaymentStatus.PENDING}));
+        when(orderRepository.transitionStatus(5L, List.of(1L, 2L), OrderStatus.PLACED, OrderStatus.CANCELLED))
+                .thenReturn(2);
+        Order paid = new Order();
+        paid.setId(1L);
+        Order unpaid = new Order();
+        unpaid.setId(2L);
+        when(orderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(paid, unpaid));
+
+        orderService.updateOrderStatuses(5L, List.of(1L, 2L), OrderStatus.CANCELLED);
+
+        verify(revenueService).recordPaidOrderCancelled(paid);
+        verify(revenueService, never()).recordPaidOrderCancelled(unpaid);
+        verify(inventoryService).release(paid);
+        verify(inventoryService).release(unpaid);
+        verify(sellerReportService, times(2)).recordOrderCancelled(any(), anyLong());
+    }
+
+    @Test
+    void updateOrderStatus_shouldRejectTransitionsOutsideTheStateMachine() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setSellerId(5L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.lockStatusesForSeller(5L, List.of(1L))).thenReturn(List.<Object[]>of(
+                new Object[]{1L, OrderStatus.DELIVERED, PaymentStatus.COMPLETED}));
+
+        assertThrows(OrderException.class, () -> orderService.updateOrderStatus(1L, OrderStatus.CANCELLED));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyList(), any(), any());
+        verifyNoInteractions(revenueService, sellerReportService, inventoryService);
+    }
+
+    @Test
+    void updateOrderStatus_shouldRecordCancellationLikeTheBulkPath() throws Exception {
+        Order order = new Order();
+        order.setId(1L);
+        order.setSellerId(5L);
+        order.setTotalSellingPrice(750);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.lockStatusesForSeller(5L, List.of(1L))).thenReturn(List.<Object[]>of(
+                new Object[]{1L, OrderStatus.CONFIRMED, PaymentStatus.COMPLETED}));
+        when(orderRepository.transitionStatus(5L, List.of(1L), OrderStatus.CONFIRMED, OrderStatus.CANCELLED))
+                .thenReturn(1);
+        when(orderRepository.findAllById(List.of(1L))).thenReturn(List.of(order));
+
+        orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
+
+        verify(revenueService).recordPaidOrderCancelled(order);
+        verify(sellerReportService).recordOrderCancelled(5L, 750L);
+        verify(inventoryService).release(order);
+    }
+
+    @Test
+    void updateOrderStatuses_shouldRejectOversizedBatches() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++) {
+            ids.add(id);
+        }
+
+        assertThrows(OrderException.class, () -> orderService.updateOrderStatuses(5L, ids, OrderStatus.PLACED));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldAlignOrderAndItemSequences() {
+        orderService.afterSingletonsInstantiated();
+
+        verify(orderRepository).alignIdSequence(Order.ID_ALLOCATION_SIZE);
+        verify(orderItemRepository).alignIdSequence(Order.ID_ALLOCATION_SIZE);
+    }
+
+    private static OrderSummaryDto summary(Long id, LocalDateTime orderDate) {
+        OrderSummaryDto summary = new OrderSummaryDto();
+        summary.setId(id);
+        summary.setOrderDate(orderDate);
+        return summary;
+    }
+
+    private static CartItem cartItem(Long sellerId, int quantity, int sellingPrice) {
+        Seller seller = new Seller();
+        seller.setId(sellerId);
+        Product product = new Product();
+        product.setSeller(seller);
+
+        CartItem item = new CartItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setSellingPrice(sellingPrice);
+        item.setMrpPrice(sellingPrice);
+        return item;
+    }
+}
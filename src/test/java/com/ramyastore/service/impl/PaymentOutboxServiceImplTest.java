@@ -0,0 +1,171 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.OutboxStatus;
+import com.ramyastore.model.*;
+import com.ramyastore.repository.*;
+import com.ramyastore.service.SellerReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentOutboxServiceImplTest {
+
+    @Mock
+    private PaymentOutboxRepository outboxRepository;
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    @Mock
+    private SellerReportRepository sellerReportRepository;
+
+    @Mock
+    private SellerReportService sellerReportService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentOutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxService = new PaymentOutboxServiceImpl(outboxRepository, paymentOrderRepository,
+                transactionRepository, sellerRepository, sellerReportRepository, sellerReportService,
+                transactionTemplate, 2, 50, 3, Duration.ofMinutes(5));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.shutdown();
+    }
+
+    @Test
+    void enqueue_shouldBeNoOpForReplayedPayment() {
+        PaymentOrder paymentOrder = new PaymentOrder();
+        paymentOrder.setId(7L);
+        when(outboxRepository.insertIfAbsent(eq("pay_1"), eq(7L), eq(OutboxStatus.PENDING.ordinal()), any()))
+                .thenReturn(1, 0);
+
+        assertTrue(outboxService.enqueue("pay_1", paymentOrder));
+        assertFalse(outboxService.enqueue("pay_1", paymentOrder));
+    }
+
+    @Test
+    void processPending_shouldBatchTransactionsAndAggregateSellerTotals() {
+        Seller seller = new Seller();
+        seller.setId(10L);
+        PaymentOrder paymentOrder = new PaymentOrder();
+        paymentOrder.setId(7L);
+        paymentOrder.getOrders().add(order(1L, 10L, 500, 2));
+        paymentOrder.getOrders().add(order(2L, 10L, 300, 1));
+
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setId(1L);
+        event.setPaymentOrderId(7L);
+
+        when(outboxRepository.findIdsByStatus(eq(OutboxStatus.PENDING), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(outboxRepository.claim(eq(1L), anyString(), any())).thenReturn(1);
+        when(outboxRepository.claim(eq(2L), anyString(), any())).thenReturn(0);
+        when(outboxRepository.finish(eq(1L), anyString(), eq(OutboxStatus.DONE), any(), isNull())).thenReturn(1);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(paymentOrderRepository.findById(7L)).thenReturn(Optional.of(paymentOrder));
+        when(sellerRepository.findAllById(anyIterable())).thenReturn(List.of(seller));
+        when(sellerReportRepository.addCounters(10L, 2, 800L, 3L, 0, 0L)).thenReturn(1);
+
+        assertEquals(1, outboxService.processPending());
+
+        ArgumentCaptor<List<Transaction>> transactions = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository, times(1)).saveAll(transactions.capture());
+        assertEquals(2, transactions.getValue().size());
+        assertSame(seller, transactions.getValue().get(0).getSeller());
+        verify(sellerReportRepository, times(1)).addCounters(10L, 2, 800L, 3L, 0, 0L);
+        verify(outboxRepository).finish(eq(1L), anyString(), eq(OutboxStatus.DONE), any(), isNull());
+        verify(outboxRepository, never()).findById(2L);
+    }
+
+    @Test
+    void process_shouldCreateMissingReportBeforeIncrementing() {
+        Seller seller = new Seller();
+        seller.setId(10L);
+        PaymentOrder paymentOrder = new PaymentOrder();
+        paymentOrder.getOrders().add(order(1L, 10L, 500, 1));
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setPaymentOrderId(7L);
+
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(paymentOrderRepository.findById(7L)).thenReturn(Optional.of(paymentOrder));
+        when(sellerRepository.findAllById(anyIterable())).thenReturn(List.of(seller));
+        when(sellerReportRepository.addCounters(10L, 1, 500L, 1L, 0, 0L)).thenReturn(0, 1);
+        when(outboxRepository.finish(eq(1L), eq("token"), eq(OutboxStatus.DONE), any(), isNull())).thenReturn(1);
+
+        outboxService.process(1L, "token");
+
+        verify(sellerReportService).getSellerReport(seller);
+        verify(sellerReportRepository, times(2)).addCounters(10L, 1, 500L, 1L, 0, 0L);
+    }
+
+    @Test
+    void process_shouldRetryThenFailAfterMaxAttempts() {
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setPaymentOrderId(7L);
+        event.setAttempts(1);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(paymentOrderRepository.findById(7L)).thenReturn(Optional.empty());
+        when(outboxRepository.finish(eq(1L), eq("token"), eq(OutboxStatus.DONE), any(), isNull())).thenReturn(1);
+
+        outboxService.process(1L, "token");
+        verify(outboxRepository).finish(eq(1L), eq("token"), eq(OutboxStatus.PENDING), any(),
+                eq("payment order not found with id 7"));
+
+        event.setAttempts(3);
+        outboxService.process(1L, "token");
+        verify(outboxRepository).finish(eq(1L), eq("token"), eq(OutboxStatus.FAILED), any(), anyString());
+    }
+
+    @Test
+    void process_shouldApplyNothingWhenTheClaimWasTakenOver() {
+        when(outboxRepository.finish(eq(1L), eq("stale"), eq(OutboxStatus.DONE), any(), isNull())).thenReturn(0);
+
+        outboxService.process(1L, "stale");
+
+        verify(paymentOrderRepository, never()).findById(any());
+        verify(transactionRepository, never()).saveAll(any());
+        verify(outboxRepository, times(1)).finish(any(), any(), any(), any(), any());
+    }
+
+    private static Order order(Long id, Long sellerId, int totalSellingPrice, int items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setSellerId(sellerId);
+        order.setTotalSellingPrice(totalSellingPrice);
+        for (int i = 0; i < items; i++) {
+            order.getOrderItems().add(new OrderItem());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.service.SharedProductCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheServiceImplTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InMemorySharedProductCache sharedCache;
+
+    private ProductCacheServiceImpl cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sharedCache = new InMemorySharedProductCache(100);
+        ObjectProvider<SharedProductCache> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(sharedCache);
+
+        cacheService = new ProductCacheServiceImpl(provider, meterRegistry, 100,
+                Duration.ofMinutes(5), Duration.ofMinutes(30));
+    }
+
+    @Test
+    void get_shouldRecordLocalHitsAndMisses() throws ProductException {
+        ProductDetailDto product = product(1L);
+
+        assertSame(product, cacheService.get(1L, id -> product));
+        assertSame(product, cacheService.get(1L, id -> fail("loaded twice")));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void get_shouldFallBackToSharedTier() throws ProductException {
+        ProductDetailDto product = product(2L);
+        sharedCache.put(product, Duration.ofMinutes(1), sharedCache.generation(2L));
+
+        assertSame(product, cacheService.get(2L, id -> fail("shared tier skipped")));
+        assertEquals(1.0, meterRegistry.get("product.cache.shared").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_shouldNotCacheValueLoadedDuringEviction() throws ProductException {
+        ProductDetailDto stale = product(3L);
+        ProductDetailDto fresh = product(3L);
+
+        ProductDetailDto loaded = cacheService.get(3L, id -> {
+            // the writer commits and evicts while the old row is being mapped
+            cacheService.evict(3L);
+            return stale;
+        });
+
+        assertSame(stale, loaded);
+        assertNull(sharedCache.get(3L));
+        assertSame(fresh, cacheService.get(3L, id -> fresh));
+    }
+
+    @Test
+    void get_shouldPropagateLoaderFailure() {
+        assertThrows(ProductException.class,
+                () -> cacheService.get(4L, id -> {
+                    throw new ProductException("product not found");
+                }));
+    }
+
+    @Test
+    void evict_shouldClearBothTiers() throws ProductException {
+        cacheService.get(5L, id -> product(5L));
+
+        cacheService.evict(5L);
+
+        assertNull(sharedCache.get(5L));
+        ProductDetailDto reloaded = product(5L);
+        assertSame(reloaded, cacheService.get(5L, id -> reloaded));
+    }
+
+    @Test
+    void evict_shouldEvictAgainAfterCommit() throws ProductException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheService.evict(6L);
+            // a concurrent reader refills the cache from the not yet committed state
+            cacheService.get(6L, id -> product(6L));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(sharedCache.get(6L));
+        ProductDetailDto reloaded = product(6L);
+        assertSame(reloaded, cacheService.get(6L, id -> reloaded));
+    }
+
+    @Test
+    void sharedTier_shouldIgnorePutAfterEviction() {
+        long generation = sharedCache.generation(7L);
+        sharedCache.evict(7L);
+
+        sharedCache.put(product(7L), Duration.ofMinutes(1), generation);
+
+        assertNull(sharedCache.get(7L));
+    }
+
+    @Test
+    void sharedTier_shouldExpireEntries() {
+        sharedCache.put(product(8L), Duration.ofNanos(-1), sharedCache.generation(8L));
+
+        assertNull(sharedCache.get(8L));
+    }
+
+    private static ProductDetailDto product(Long id) {
+        return ProductDetailDto.builder().id(id).build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.ramyastore.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ramyastore.domain.ImportStatus;
+import com.ramyastore.dto.ProductImportError;
+import com.ramyastore.dto.ProductImportReport;
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.model.Category;
+import com.ramyastore.model.Product;
+import com.ramyastore.model.Seller;
+import com.ramyastore.repository.CategoryRepository;
+import com.ramyastore.service.CategoryTreeService;
+import com.ramyastore.service.ProductSearchService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceImplTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryTreeService categoryTreeService;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ProductImportServiceImpl importService;
+
+    private Seller seller;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new ProductImportServiceImpl(transactionTemplate, categoryRepository,
+                categoryTreeService, productSearchService, new ObjectMapper(), 2);
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+
+        seller = new Seller();
+        seller.setId(7L);
+
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> {
+            Category category = invocation.getArgument(0);
+            category.setId((long) category.getCategoryId().hashCode());
+            return category;
+        });
+    }
+
+    @Test
+    void importProducts_shouldPersistValidCsvRowsInChunksAndReportBadRows() throws ProductException {
+        String csv = """
+                title,description,mrpPrice,sellingPrice,color,images,category,category2,category3
+                Cotton Shirt,"Soft, breathable",1000,800,Blue,a.jpg|b.jpg,men,men_topwear,men_shirts
+                Broken Shirt,,1000,1200,Blue,,men,men_topwear,men_shirts
+                Linen Shirt,"Says ""hello""",2000,1500,White,,men,men_topwear,men_shirts
+                """;
+
+        ProductImportReport report = importService.importProducts(stream(csv), "csv", seller, "batch-1");
+
+        assertEquals(ImportStatus.COMPLETED, report.getStatus());
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(List.of(new ProductImportError(3, "sellingPrice must be between 0 and mrpPrice")),
+                report.getErrors());
+
+        ArgumentCaptor<Product> products = ArgumentCaptor.forClass(Product.class);
+        verify(entityManager, times(2)).persist(products.capture());
+        assertEquals("Soft, breathable", products.getAllValues().get(0).getDescription());
+        assertEquals(List.of("a.jpg", "b.jpg"), products.getAllValues().get(0).getImages());
+        assertEquals("Says \"hello\"", products.getAllValues().get(1).getDescription());
+
+        // one insert of each category level, then served from the per-import cache
+        verify(categoryRepository, times(3)).save(any(Category.class));
+        verify(productSearchService, times(2)).indexProduct(any(Product.class));
+        assertEquals(report, importService.getImport("batch-1", seller));
+    }
+
+    @Test
+    void importProducts_shouldIsolateRowsWhenChunkFails() throws ProductException {
+        String ndjson = """
+                {"title":"Shirt","mrpPrice":1000,"sellingPrice":800,"category":"men","category2":"men_topwear","category3":"men_shirts"}
+                not json
+                {"title":"Jeans","mrpPrice":2000,"sellingPrice":1000,"category":"men","category2":"men_bottomwear","category3":"men_jeans"}
+                """;
+        doThrow(new PersistenceException("duplicate"))
+                .doNothing()
+                .doThrow(new PersistenceException("duplicate"))
+                .when(entityManager).flush();
+
+        ProductImportReport report = importService.importProducts(stream(ndjson), "ndjson", seller, null);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals(3, report.getErrors().get(1).getRow());
+    }
+
+    @Test
+    void importProducts_shouldRejectCsvWithoutRequiredColumns() {
+        assertThrows(ProductException.class, () ->
+                importService.importProducts(stream("title,color\nShirt,Blue\n"), "csv", seller, null));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,177 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.model.Category;
+import com.ramyastore.model.Product;
+import com.ramyastore.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class ProductSearchServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductSearchServiceImpl searchService;
+
+    private final Map<Long, Product> catalog = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        searchService = new ProductSearchServiceImpl(productRepository, meterRegistry);
+
+        Category men = category("men", "Men", null);
+        Category topwear = category("men_topwear", "Men Topwear", men);
+        Category shirts = category("men_shirts", "Shirts", topwear);
+
+        catalog.put(1L, product(1L, "Slim Fit Cotton Shirt", "Blue", shirts));
+        catalog.put(2L, product(2L, "Printed T-Shirt", "Red", topwear));
+        catalog.put(3L, product(3L, "Running Shoes", "Blue", null));
+
+        when(productRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(new ArrayList<>(catalog.values())));
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Product> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                found.add(catalog.get(id));
+            }
+            return found;
+        });
+
+        searchService.rebuildIndex();
+    }
+
+    @Test
+    void search_shouldMatchTitleAndCategoryHierarchy() {
+        Page<Product> result = searchService.search("men shirt", 0, 10);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(Set.of(1L, 2L), Set.of(result.getContent().get(0).getId(),
+                result.getContent().get(1).getId()));
+    }
+
+    @Test
+    void indexProduct_shouldWaitForTransactionCommit() {
+        Product jacket = product(4L, "Denim Jacket", "Blue", null);
+        catalog.put(4L, jacket);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchService.indexProduct(jacket);
+            assertEquals(0, searchService.search("jacket", 0, 10).getTotalElements());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, searchService.search("jacket", 0, 10).getTotalElements());
+    }
+
+    @Test
+    void search_shouldTreatNegativePageAsFirstPage() {
+        Page<Product> result = searchService.search("shirt", -3, 10);
+
+        assertEquals(0, result.getNumber());
+        assertFalse(result.getContent().isEmpty());
+    }
+
+    @Test
+    void search_shouldMatchPrefixes() {
+        assertEquals(List.of(3L), searchService.rank("runn"));
+        assertTrue(searchService.rank("sh").containsAll(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void search_shouldRequireEveryTerm() {
+        assertEquals(List.of(3L), searchService.rank("blue shoes"));
+        assertTrue(searchService.rank("red shoes").isEmpty());
+    }
+
+    @Test
+    void search_shouldRankTitleMatchesAboveDescriptionMatches() {
+        Product product = product(4L, "Cotton Kurta", "Green", null);
+        product.setDescription("pairs well with a shirt");
+        catalog.put(4L, product);
+        searchService.indexProduct(product);
+
+        List<Long> ranked = searchService.rank("shirt");
+        assertEquals(4L, ranked.get(ranked.size() - 1));
+    }
+
+    @Test
+    void indexProduct_shouldReplacePreviousTerms() {
+        Product product = catalog.get(3L);
+        product.setTitle("Trail Sneakers");
+        searchService.indexProduct(product);
+
+        assertTrue(searchService.rank("running").isEmpty());
+        assertEquals(List.of(3L), searchService.rank("sneakers"));
+    }
+
+    @Test
+    void removeProduct_shouldDropProductFromResults() {
+        searchService.removeProduct(1L);
+
+        assertEquals(List.of(2L), searchService.rank("shirt"));
+    }
+
+    @Test
+    void search_shouldPageResultsAndRecordLatency() {
+        Page<Product> firstPage = searchService.search("sh", 0, 2);
+        Page<Product> secondPage = searchService.search("sh", 1, 2);
+
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(2, firstPage.getContent().size());
+        assertEquals(1, secondPage.getContent().size());
+        assertEquals(2, meterRegistry.get("product.search.latency").timer().count());
+    }
+
+    @Test
+    void search_shouldFallBackToDatabaseUntilIndexIsBuilt() {
+        ProductSearchServiceImpl coldService = new ProductSearchServiceImpl(productRepository, meterRegistry);
+        when(productRepository.searchProduct("shirt")).thenReturn(List.of(catalog.get(1L)));
+
+        Page<Product> result = coldService.search("shirt", 0, 10);
+
+        assertEquals(1, result.getTotalElements());
+        verify(productRepository).searchProduct("shirt");
+    }
+
+    private static Category category(String categoryId, String name, Category parent) {
+        Category category = new Category();
+        category.setCategoryId(categoryId);
+        category.setName(name);
+        category.setParentCategory(parent);
+        category.setLevel(parent == null ? 1 : parent.getLevel() + 1);
+        return category;
+    }
+
+    private static Product product(Long id, String title, String color, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setColor(color);
+        product.setCategory(category);
+        return product;
+    }
+}
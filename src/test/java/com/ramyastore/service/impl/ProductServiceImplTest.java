@@ -1,12 +1,22 @@
 package com.ramyastore.service.impl;
 
+import com.ramyastore.dto.FacetCount;
+import com.ramyastore.dto.ProductCardDto;
+import com.ramyastore.dto.ProductDetailDto;
+import com.ramyastore.dto.ProductFacets;
 import com.ramyastore.exception.ProductException;
 import com.ramyastore.model.Category;
 import com.ramyastore.model.Product;
+import com.ramyastore.model.Review;
 import com.ramyastore.model.Seller;
 import com.ramyastore.repository.CategoryRepository;
 import com.ramyastore.repository.ProductRepository;
 import com.ramyastore.request.CreateProductRequest;
+import com.ramyastore.response.CursorPage;
+import com.ramyastore.service.CategoryTreeService;
+import com.ramyastore.service.ProductCacheService;
+import com.ramyastore.service.ProductSearchService;
+import com.ramyastore.utils.CursorUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -28,6 +38,15 @@ class ProductServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private CategoryTreeService categoryTreeService;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -101,7 +120,9 @@ class ProductServiceImplTest {
         assertEquals("cat1", categoryLevel1.getCategoryId());
 
         verify(categoryRepository, times(3)).save(any(Category.class));
+        verify(categoryTreeService).register(categoryLevel3);
         verify(productRepository).save(any(Product.class));
+        verify(productSearchService).indexProduct(savedProduct);
     }
 
     @Test
@@ -129,6 +150,8 @@ class ProductServiceImplTest {
         productService.deleteProduct(1L);
 
         verify(productRepository).delete(product);
+        verify(productCacheService).evict(1L);
+        verify(productSearchService).removeProduct(1L);
     }
 
     @Test
@@ -155,6 +178,35 @@ class ProductServiceImplTest {
         assertEquals(1L, updated.getId());
         assertEquals("New Title", updated.getTitle());
         verify(productRepository).save(productToUpdate);
+        verify(productCacheService).evict(1L);
+    }
+
+    @Test
+    void updateProduct_shouldKeepRatingAggregatesStockAndSeller() throws ProductException {
+        Seller seller = new Seller();
+        Product existing = new Product();
+        existing.setId(1L);
+        existing.setSeller(seller);
+        existing.setQuantity(12);
+        existing.setNumRatings(40);
+        existing.getRatingSummary().setRatingCount(40);
+        existing.getRatingSummary().setAverageRating(4.5);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Product edit = new Product();
+        edit.setTitle("New Title");
+        edit.setSellingPrice(799);
+
+        Product updated = productService.updateProduct(1L, edit);
+
+        assertSame(existing, updated);
+        assertEquals("New Title", updated.getTitle());
+        assertEquals(799, updated.getSellingPrice());
+        assertEquals(12, updated.getQuantity());
+        assertEquals(40, updated.getNumRatings());
+        assertEquals(4.5, updated.getRatingSummary().getAverageRating());
+        assertSame(seller, updated.getSeller());
     }
 
     @Test
@@ -176,28 +228,122 @@ class ProductServiceImplTest {
     void findProductById_shouldReturnProductWhenFound() throws ProductException {
         Product product = new Product();
         product.setId(1L);
+        product.setTitle("Linen shirt");
+        product.setSellingPrice(899);
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        loadThroughCache();
 
         Product found = productService.findProductById(1L);
-        assertEquals(product, found);
+        assertEquals(1L, found.getId());
+        assertEquals("Linen shirt", found.getTitle());
+        assertEquals(899, found.getSellingPrice());
+    }
+
+    @Test
+    void findProductById_shouldBuildDetachedCopyFromCachedDetail() throws ProductException {
+        ProductDetailDto detail = ProductDetailDto.builder()
+                .id(1L)
+                .title("Cached")
+                .sellingPrice(499)
+                .images(List.of("front.jpg"))
+                .category(ProductDetailDto.CategoryView.builder().id(3L).categoryId("men_shirts").level(3).build())
+                .seller(ProductDetailDto.SellerView.builder().id(7L).sellerName("Ramya").build())
+                .build();
+        when(productCacheService.get(eq(1L), any())).thenReturn(detail);
+
+        Product first = productService.findProductById(1L);
+        Product second = productService.findProductById(1L);
+
+        assertNotSame(first, second);
+        assertEquals("Cached", first.getTitle());
+        assertEquals(499, first.getSellingPrice());
+        assertEquals(List.of("front.jpg"), first.getImages());
+        assertEquals("men_shirts", first.getCategory().getCategoryId());
+        assertEquals(7L, first.getSeller().getId());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductDetail_shouldServeCachedDetailWithoutQuerying() throws ProductException {
+        ProductDetailDto detail = ProductDetailDto.builder().id(1L).title("Cached").build();
+
+        when(productCacheService.get(eq(1L), any())).thenReturn(detail);
+
+        assertSame(detail, productService.getProductDetail(1L));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductDetail_shouldCacheDetachedViewWithoutReviews() throws ProductException {
+        Category parent = new Category();
+        parent.setCategoryId("men");
+        Category category = new Category();
+        category.setCategoryId("men_shirts");
+        category.setParentCategory(parent);
+        Seller seller = new Seller();
+        seller.setId(7L);
+        seller.setPassword("secret");
+        seller.getBusinessDetails().setBusinessName("Ramya Textiles");
+        Product product = new Product();
+        product.setId(1L);
+        product.setTitle("Linen shirt");
+        product.setCategory(category);
+        product.setSeller(seller);
+        product.getImages().add("front.jpg");
+        product.getReviews().add(new Review());
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        loadThroughCache();
+
+        ProductDetailDto detail = productService.getProductDetail(1L);
+
+        assertEquals("Linen shirt", detail.getTitle());
+        assertEquals("men", detail.getCategory().getParentCategory().getCategoryId());
+        assertEquals("Ramya Textiles", detail.getSeller().getBusinessDetails().getBusinessName());
+        assertEquals(List.of("front.jpg"), detail.getImages());
+        assertThrows(UnsupportedOperationException.class, () -> detail.getImages().add("back.jpg"));
+        product.getImages().add("side.jpg");
+        assertEquals(1, detail.getImages().size());
+    }
+
+    @Test
+    void updateProductStock_shouldEvictCachedProduct() throws ProductException {
+        Product product = new Product();
+        product.setId(1L);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.updateProductStock(1L);
+        verify(productCacheService).evict(1L);
+        verify(productCacheService, never()).get(any(), any());
     }
 
     @Test
-    void findProductById_shouldThrowExceptionWhenNotFound() {
+    void findProductById_shouldThrowExceptionWhenNotFound() throws ProductException {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        loadThroughCache();
 
         assertThrows(ProductException.class, () -> productService.findProductById(1L));
     }
 
     @Test
-    void searchProduct_shouldReturnListFromRepository() {
+    void searchProduct_shouldReturnEveryRankedMatchWithoutPageNumber() {
         List<Product> products = List.of(new Product(), new Product());
 
-        when(productRepository.searchProduct("query")).thenReturn(products);
+        when(productSearchService.search("query", 0, Integer.MAX_VALUE)).thenReturn(new PageImpl<>(products));
 
-        List<Product> result = productService.searchProduct("query");
-        assertEquals(products, result);
+        assertEquals(products, productService.searchProduct("query", null));
+    }
+
+    @Test
+    void searchProduct_shouldReturnRequestedPageAsList() {
+        List<Product> products = List.of(new Product());
+
+        when(productSearchService.search("query", 2, 10)).thenReturn(new PageImpl<>(products));
+
+        assertEquals(products, productService.searchProduct("query", 2));
     }
 
     @Test
@@ -219,6 +365,80 @@ class ProductServiceImplTest {
                 .findAll(any(Specification.class), any(Pageable.class));
     }
 
+    @Test
+    void getAllProductByCursor_shouldReturnNextCursorWithoutCounting() throws ProductException {
+        Product first = new Product();
+        first.setId(1L);
+        first.setSellingPrice(100);
+        Product second = new Product();
+        second.setId(2L);
+        second.setSellingPrice(150);
+        Product third = new Product();
+        third.setId(3L);
+        third.setSellingPrice(200);
+
+        when(productRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(first, second, third));
+
+        CursorPage<Product> result = productService.getAllProductByCursor(null, null, null, null,
+                null, null, null, "price_low", null, null, 2, false);
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertTrue(result.isHasNext());
+        assertArrayEquals(new String[]{"price_low", "150", "2"},
+                CursorUtils.decode(result.getNextCursor(), 3));
+        assertNull(result.getTotalElements());
+        verify(productRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getAllProductByCursor_shouldRejectCursorFromAnotherSort() {
+        String cursor = CursorUtils.encode("price_low", "150", "2");
+
+        assertThrows(ProductException.class, () -> productService.getAllProductByCursor(null, null,
+                null, null, null, null, null, "newest", null, cursor, 10, false));
+        assertThrows(ProductException.class, () -> productService.getAllProductByCursor(null, null,
+                null, null, null, null, null, "price_low", null, "not-a-cursor", 10, false));
+    }
+
+    @Test
+    void getProductFacets_shouldCountEachFacetWithoutItsOwnFilter() {
+        // red 400/15% x3, red 1200/35% x2, blue 700/5% x4 with maxPrice 999
+        when(productRepository.countFacetBuckets(any(), any(), any(), isNull(), eq(999), isNull()))
+                .thenReturn(List.of(
+                        new Object[]{"red", 0, 1, 1, 1, 3L},
+                        new Object[]{"red", 2, 3, 0, 1, 2L},
+                        new Object[]{"blue", 1, 0, 1, 1, 4L}));
+
+        ProductFacets facets = productService.getProductFacets(null, null, "red",
+                null, null, 999, null, null);
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(List.of(new FacetCount("blue", 4), new FacetCount("red", 3)), facets.getColors());
+        assertEquals(new FacetCount("0-499", 3), facets.getPriceRanges().get(0));
+        assertEquals(new FacetCount("1000-1999", 2), facets.getPriceRanges().get(2));
+        assertEquals(new FacetCount("5000+", 0), facets.getPriceRanges().get(4));
+        assertEquals(new FacetCount("10", 3), facets.getDiscounts().get(0));
+        assertEquals(new FacetCount("20", 0), facets.getDiscounts().get(1));
+        verify(productRepository, times(1)).countFacetBuckets(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchProductCards_shouldKeepSearchRankOrder() {
+        ProductCardDto first = new ProductCardDto(5L, "Linen Shirt", 900, 1000, 10, 2, 4.5);
+        ProductCardDto second = new ProductCardDto(3L, "Cotton Shirt", 500, 1000, 50, 0, 0.0);
+
+        when(productSearchService.searchIds("shirt", 0, 10))
+                .thenReturn(new PageImpl<>(List.of(5L, 3L), PageRequest.of(0, 10), 2));
+        when(productRepository.findCardsByIds(List.of(5L, 3L))).thenReturn(List.of(second, first));
+
+        Page<ProductCardDto> result = productService.searchProductCards("shirt", 0);
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertEquals(2, result.getTotalElements());
+        verify(productRepository, never()).findAllById(any());
+    }
+
     @Test
     void recentlyAddedProduct_shouldReturnEmptyList() {
         List<Product> products = productService.recentlyAddedProduct();
@@ -235,4 +455,9 @@ class ProductServiceImplTest {
         List<Product> result = productService.getProductBySellerId(1L);
         assertEquals(products, result);
     }
+
+    private void loadThroughCache() throws ProductException {
+        when(productCacheService.get(any(), any())).thenAnswer(invocation ->
+                invocation.<ProductCacheService.Loader>getArgument(1).load(invocation.getArgument(0)));
+    }
 }
@@ -0,0 +1,128 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.domain.OrderStatus;
+import com.ramyastore.domain.PaymentStatus;
+import com.ramyastore.dto.RevenueChart;
+import com.ramyastore.model.Order;
+import com.ramyastore.repository.MigrationMarkerRepository;
+import com.ramyastore.repository.SellerRevenueRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RevenueServiceImplTest {
+
+    @Mock
+    private SellerRevenueRollupRepository rollupRepository;
+
+    @Mock
+    private MigrationMarkerRepository migrationMarkerRepository;
+
+    @InjectMocks
+    private RevenueServiceImpl revenueService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getHourlyRevenueForChart_shouldFillEmptyHoursWithZero() {
+        List<Object[]> rows = List.of(new Object[]{9, 1500L}, new Object[]{18, 700L});
+        when(rollupRepository.sumRevenueByHour(eq(1L), any(), any())).thenReturn(rows);
+
+        List<RevenueChart> chart = revenueService.getHourlyRevenueForChart(1L);
+
+        assertEquals(24, chart.size());
+        assertEquals("9:00", chart.get(9).getDate());
+        assertEquals(1500.0, chart.get(9).getRevenue());
+        assertEquals(700.0, chart.get(18).getRevenue());
+        assertEquals(0.0, chart.get(0).getRevenue());
+        verify(rollupRepository, times(1)).sumRevenueByHour(eq(1L), any(), any());
+    }
+
+    @Test
+    void getDailyRevenueForChart_shouldUseOneGroupedQuery() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = List.<Object[]>of(
+                new Object[]{today.getYear(), today.getMonthValue(), today.getDayOfMonth(), 2500L});
+        when(rollupRepository.sumRevenueByDay(eq(1L), any(), any())).thenReturn(rows);
+
+        List<RevenueChart> chart = revenueService.getDailyRevenueForChart(30, 1L);
+
+        assertEquals(30, chart.size());
+        assertEquals(today.toString(), chart.get(29).getDate());
+        assertEquals(2500.0, chart.get(29).getRevenue());
+        assertEquals(today.minusDays(29).toString(), chart.get(0).getDate());
+        assertEquals(0.0, chart.get(0).getRevenue());
+        verify(rollupRepository, times(1)).sumRevenueByDay(eq(1L),
+                eq(today.minusDays(29).atStartOfDay()), eq(today.plusDays(1).atStartOfDay()));
+    }
+
+    @Test
+    void getMonthlyRevenueForChart_shouldKeepYearMonthLabels() {
+        YearMonth current = YearMonth.now();
+        List<Object[]> rows = List.<Object[]>of(new Object[]{current.getYear(), current.getMonthValue(), 900L});
+        when(rollupRepository.sumRevenueByMonth(eq(1L), any(), any())).thenReturn(rows);
+
+        List<RevenueChart> chart = revenueService.getMonthlyRevenueForChart(12, 1L);
+
+        assertEquals(12, chart.size());
+        assertEquals(String.format("%d-%02d", current.getYear(), current.getMonthValue()),
+                chart.get(11).getDate());
+        assertEquals(900.0, chart.get(11).getRevenue());
+    }
+
+    @Test
+    void recordOrderPaid_shouldAddToHourBucket() {
+        Order order = order(LocalDateTime.of(2024, 5, 3, 14, 37, 12));
+
+        revenueService.recordOrderPaid(order);
+
+        verify(rollupRepository).addRevenue(7L, LocalDateTime.of(2024, 5, 3, 14, 0), 1200L, 1);
+    }
+
+    @Test
+    void recordPaidOrderCancelled_shouldSubtractFromHourBucket() {
+        Order order = order(LocalDateTime.of(2024, 5, 3, 14, 37, 12));
+
+        revenueService.recordPaidOrderCancelled(order);
+
+        verify(rollupRepository).addRevenue(7L, LocalDateTime.of(2024, 5, 3, 14, 0), -1200L, -1);
+    }
+
+    @Test
+    void backfillRollup_shouldRebuildOnceBehindMigrationMarker() {
+        when(migrationMarkerRepository.markApplied(anyString(), any())).thenReturn(1, 0);
+
+        revenueService.backfillRollup();
+        revenueService.backfillRollup();
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).deleteAllInBatch();
+        inOrder.verify(rollupRepository).backfillFromOrders(PaymentStatus.COMPLETED.ordinal(),
+                OrderStatus.CANCELLED.ordinal());
+        verify(rollupRepository, times(1)).backfillFromOrders(anyInt(), anyInt());
+        verify(rollupRepository, never()).count();
+    }
+
+    private static Order order(LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setSellerId(7L);
+        order.setOrderDate(orderDate);
+        order.setTotalSellingPrice(1200);
+        return order;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.exception.ProductException;
+import com.ramyastore.exception.ReviewNotFoundException;
+import com.ramyastore.model.Product;
+import com.ramyastore.model.RatingSummary;
+import com.ramyastore.model.Review;
+import com.ramyastore.model.User;
+import com.ramyastore.repository.ProductRepository;
+import com.ramyastore.repository.ReviewRepository;
+import com.ramyastore.request.CreateReviewRequest;
+import com.ramyastore.response.ReviewPage;
+import com.ramyastore.service.ProductCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import javax.naming.AuthenticationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReviewServiceImplTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    @InjectMocks
+    private ReviewServiceImpl reviewService;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setId(1L);
+        user.setFullName("Jane");
+        product = new Product();
+        product.setId(10L);
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void createReview_shouldIncrementSummaryWithoutTouchingReviewList() {
+        CreateReviewRequest req = new CreateReviewRequest();
+        req.setReviewText("Great fit");
+        req.setReviewRating(4.5);
+
+        reviewService.createReview(req, user, product);
+
+        verify(productRepository).adjustRatingSummary(10L, 1, 4.5, 0, 0, 0, 0, 1);
+        verify(productCacheService).evict(10L);
+        assertTrue(product.getReviews().isEmpty());
+    }
+
+    @Test
+    void updateReview_shouldMoveRatingBetweenStarBuckets() throws ReviewNotFoundException, AuthenticationException {
+        Review review = review(2.0);
+        when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+
+        reviewService.updateReview(5L, "Better after washing", 4.0, 1L);
+
+        verify(productRepository).adjustRatingSummary(10L, 0, 2.0, 0, -1, 0, 1, 0);
+    }
+
+    @Test
+    void deleteReview_shouldDecrementSummary() throws ReviewNotFoundException, AuthenticationException {
+        Review review = review(1.0);
+        when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+
+        reviewService.deleteReview(5L, 1L);
+
+        verify(productRepository).adjustRatingSummary(10L, -1, -1.0, -1, 0, 0, 0, 0);
+        verify(productCacheService).evict(10L);
+    }
+
+    @Test
+    void backfillRatingSummaries_shouldStoreAggregatesForLegacyProducts() {
+        when(reviewRepository.summarizeRatingsForUnsummarizedProducts())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 2L, 7.0, 0L, 0L, 1L, 0L, 1L}));
+        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+
+        reviewService.backfillRatingSummaries();
+
+        assertEquals(new RatingSummary(2, 7.0, 3.5, 0, 0, 1, 0, 1), product.getRatingSummary());
+        assertEquals(2, product.getNumRatings());
+    }
+
+    @Test
+    void getReviewPage_shouldSeekAfterCursorAndAttachSummary() throws ProductException {
+        Review newest = review(5.0);
+        newest.setId(9L);
+        newest.setCreatedAt(LocalDateTime.of(2024, 5, 2, 10, 0));
+        Review older = review(3.0);
+        older.setId(8L);
+        older.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        RatingSummary summary = new RatingSummary(2, 8.0, 4.0, 0, 0, 1, 0, 1);
+
+        when(reviewRepository.findNewestAfter(eq(10L), any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(Limit.of(2))))
+                .thenReturn(List.of(newest, older));
+        when(productRepository.findRatingSummaryById(10L)).thenReturn(summary);
+
+        ReviewPage firstPage = reviewService.getReviewPage(10L, "newest", null, 1);
+
+        assertSame(summary, firstPage.getRatingSummary());
+        assertEquals(1, firstPage.getReviews().getContent().size());
+        assertEquals(9L, firstPage.getReviews().getContent().get(0).getId());
+        assertEquals("Jane", firstPage.getReviews().getContent().get(0).getUserFullName());
+        assertTrue(firstPage.getReviews().isHasNext());
+
+        when(reviewRepository.findNewestAfter(10L, newest.getCreatedAt(), 9L, Limit.of(2)))
+                .thenReturn(List.of(older));
+
+        ReviewPage secondPage = reviewService.getReviewPage(10L, "newest",
+                firstPage.getReviews().getNextCursor(), 1);
+
+        assertEquals(8L, secondPage.getReviews().getContent().get(0).getId());
+        assertFalse(secondPage.getReviews().isHasNext());
+        assertThrows(ProductException.class, () -> reviewService.getReviewPage(10L, "rating",
+                firstPage.getReviews().getNextCursor(), 1));
+    }
+
+    @Test
+    void starOf_shouldRoundHalfRatingsUp() {
+        assertEquals(1, RatingSummary.starOf(1.4));
+        assertEquals(2, RatingSummary.starOf(1.5));
+        assertEquals(5, RatingSummary.starOf(4.5));
+    }
+
+    private Review review(double rating) {
+        Review review = new Review();
+        review.setId(5L);
+        review.setRating(rating);
+        review.setUser(user);
+        review.setProduct(product);
+        return review;
+    }
+}
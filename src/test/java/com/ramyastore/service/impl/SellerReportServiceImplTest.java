@@ -0,0 +1,124 @@
+package com.ramyastore.service.impl;
+
+import com.ramyastore.model.Seller;
+import com.ramyastore.model.SellerReport;
+import com.ramyastore.repository.SellerReportRepository;
+import com.ramyastore.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SellerReportServiceImplTest {
+
+    @Mock
+    private SellerReportRepository sellerReportRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    private SellerReportServiceImpl sellerReportService;
+
+    private Seller seller;
+    private SellerReport stored;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sellerReportService = new SellerReportServiceImpl(sellerReportRepository, sellerRepository, 1_000_000);
+        seller = new Seller();
+        seller.setId(1L);
+        stored = new SellerReport();
+        stored.setSeller(seller);
+        stored.setTotalOrders(2);
+        stored.setTotalEarnings(1000L);
+        when(sellerReportRepository.findBySellerId(1L)).thenReturn(stored);
+    }
+
+    @Test
+    void getSellerReport_shouldMergePendingDeltasWithoutTouchingStoredReport() {
+        sellerReportService.recordOrderCancelled(1L, 300);
+        sellerReportService.recordOrderCancelled(1L, 200);
+
+        SellerReport report = sellerReportService.getSellerReport(seller);
+
+        assertEquals(2, report.getTotalOrders());
+        assertEquals(1000L, report.getTotalEarnings());
+        assertEquals(2, report.getCanceledOrders());
+        assertEquals(500L, report.getTotalRefunds());
+        assertEquals(0, stored.getCanceledOrders());
+        verifyNoMoreInteractions(ignoreStubs(sellerReportRepository));
+    }
+
+    @Test
+    void flush_shouldWriteOneAtomicUpdatePerSellerAndResetDeltas() {
+        when(sellerReportRepository.addCounters(anyLong(), anyInt(), anyLong(), anyLong(), anyInt(), anyLong()))
+                .thenReturn(1);
+        sellerReportService.recordOrderCancelled(1L, 500);
+        sellerReportService.recordOrderCancelled(1L, 250);
+        sellerReportService.recordOrderCancelled(2L, 100);
+
+        assertEquals(2, sellerReportService.flush());
+        assertEquals(0, sellerReportService.flush());
+
+        verify(sellerReportRepository).addCounters(1L, 0, 0L, 0L, 2, 750L);
+        verify(sellerReportRepository).addCounters(2L, 0, 0L, 0L, 1, 100L);
+    }
+
+    @Test
+    void flush_shouldCreateMissingReportThenApplyDeltas() {
+        when(sellerReportRepository.addCounters(eq(3L), anyInt(), anyLong(), anyLong(), anyInt(), anyLong()))
+                .thenReturn(0, 1);
+        when(sellerRepository.getReferenceById(3L)).thenReturn(new Seller());
+        sellerReportService.recordOrderCancelled(3L, 400);
+
+        sellerReportService.flush();
+
+        verify(sellerReportRepository).save(any(SellerReport.class));
+        verify(sellerReportRepository, times(2)).addCounters(3L, 0, 0L, 0L, 1, 400L);
+    }
+
+    @Test
+    void flush_shouldKeepDeltasWhenTheUpdateFails() {
+        when(sellerReportRepository.addCounters(anyLong(), anyInt(), anyLong(), anyLong(), anyInt(), anyLong()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(1);
+        sellerReportService.recordOrderCancelled(1L, 500);
+
+        assertEquals(0, sellerReportService.flush());
+        assertEquals(500L, sellerReportService.getSellerReport(seller).getTotalRefunds());
+        assertEquals(1, sellerReportService.flush());
+    }
+
+    @Test
+    void concurrentRecordsAndFlushes_shouldNotLoseRefunds() throws Exception {
+        AtomicLong flushedRefunds = new AtomicLong();
+        when(sellerReportRepository.addCounters(anyLong(), anyInt(), anyLong(), anyLong(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    flushedRefunds.addAndGet(invocation.<Long>getArgument(5));
+                    return 1;
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 20_000; i++) {
+            executor.submit(() -> sellerReportService.recordOrderCancelled(1L, 10));
+            if (i % 1_000 == 0) {
+                executor.submit(sellerReportService::flush);
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        sellerReportService.flush();
+
+        assertEquals(200_000L, flushedRefunds.get());
+    }
+}